@@ -16,18 +16,21 @@
 package net.stuxcrystal.simpledev.commands.compat.bukkit;
 
 import net.stuxcrystal.simpledev.commands.CommandHandler;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
 import net.stuxcrystal.simpledev.commands.compat.bukkit.contrib.commands.BukkitCommandExecutorContainer;
 import net.stuxcrystal.simpledev.commands.compat.bukkit.contrib.commands.BukkitCommandLoader;
 import net.stuxcrystal.simpledev.commands.compat.bukkit.scheduler.BukkitSchedulerWrapper;
-import org.apache.commons.lang.ArrayUtils;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.plugin.Plugin;
 
+import java.util.List;
+
 /**
  * Handler for Bukkit Plugins.
  */
-public class BukkitCommandHandler extends CommandHandler implements CommandExecutor {
+public class BukkitCommandHandler extends CommandHandler implements CommandExecutor, TabCompleter {
     /**
      * The Constructor for base-commands.
      *
@@ -54,6 +57,13 @@ public class BukkitCommandHandler extends CommandHandler implements CommandExecu
     private void initHandler() {
         this.registerCommandLoader(new BukkitCommandLoader());
         this.registerComponent(new BukkitSchedulerWrapper((BukkitPluginBackend)this.getServerBackend()));
+
+        // Forget the permissions of players that left the server.
+        Plugin plugin = ((BukkitPluginBackend) this.getServerBackend()).getHandle();
+        plugin.getServer().getPluginManager().registerEvents(new BukkitPermissionListener(this), plugin);
+
+        // Resolve player names using an index.
+        ((BukkitPluginBackend) this.getServerBackend()).startIndexing();
     }
 
     /**
@@ -66,19 +76,29 @@ public class BukkitCommandHandler extends CommandHandler implements CommandExecu
      */
     @Override
     public boolean onCommand(CommandSender _sender, org.bukkit.command.Command command, String label, String[] arguments) {
-        if (arguments.length == 0) {
-            // Make a command out of it.
-            arguments = new String[]{CommandHandler.FALLBACK_COMMAND_NAME};
-        }
-
         net.stuxcrystal.simpledev.commands.CommandExecutor<?> sender = ((BukkitPluginBackend) this.backend).wrapSender(_sender);
 
-        if (!this.execute(sender, arguments[0], (String[]) ArrayUtils.remove(arguments, 0)))
-            sender.sendMessage(T(sender, "cmd.notfound"));
+        // Uses the first argument as the command name without copying the arguments.
+        this.execute(sender, CommandLine.of(arguments));
 
         return true;
     }
 
+    /**
+     * Tab-completion for subcommands.
+     *
+     * @param _sender   The sender that requests the completions.
+     * @param command   The internal command
+     * @param alias     The alias used to execute this command.
+     * @param arguments The arguments passed to the command. The last one is being completed.
+     * @return The completions or {@code null} to let Bukkit complete the names of the online players.
+     */
+    @Override
+    public List<String> onTabComplete(CommandSender _sender, org.bukkit.command.Command command, String alias, String[] arguments) {
+        net.stuxcrystal.simpledev.commands.CommandExecutor<?> sender = ((BukkitPluginBackend) this.backend).wrapSender(_sender);
+        return this.tryComplete(sender, CommandLine.of(arguments));
+    }
+
     /**
      * Use this function to implement a command-switch for the backend.
      *
@@ -93,6 +113,20 @@ public class BukkitCommandHandler extends CommandHandler implements CommandExecu
         return this.execute(sender, label, arguments);
     }
 
+    /**
+     * Use this function to implement the tab-completion of a command-switch for the backend.
+     *
+     * @param _sender   The sender.
+     * @param command   The command
+     * @param label     The label
+     * @param arguments The arguments. The last one is being completed.
+     * @return The completions or {@code null} to let Bukkit complete the names of the online players.
+     */
+    public List<String> tabCompleteSwitch(CommandSender _sender, @SuppressWarnings("unused") org.bukkit.command.Command command, String label, String[] arguments) {
+        net.stuxcrystal.simpledev.commands.CommandExecutor<?> sender = ((BukkitPluginBackend) this.backend).wrapSender(_sender);
+        return this.tryComplete(sender, label, CommandLine.of(arguments));
+    }
+
     /**
      * Register the native command.
      * @param name      The name of the command.
@@ -0,0 +1,37 @@
+package net.stuxcrystal.simpledev.commands.compat.bukkit;
+
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerKickEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Removes the cached permissions of players leaving the server.
+ */
+class BukkitPermissionListener implements Listener {
+
+    /**
+     * The handler whose cache is invalidated.
+     */
+    private final CommandHandler handler;
+
+    /**
+     * Creates a new listener.
+     * @param handler The handler whose cache is invalidated.
+     */
+    BukkitPermissionListener(CommandHandler handler) {
+        this.handler = handler;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        this.handler.getPermissionCache().invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onKick(PlayerKickEvent event) {
+        this.handler.getPermissionCache().invalidate(event.getPlayer());
+    }
+}
@@ -0,0 +1,36 @@
+package net.stuxcrystal.simpledev.commands.compat.bukkit;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Keeps the index of the online players up to date and forgets the wrappers of players leaving the server.
+ */
+class BukkitPlayerIndexListener implements Listener {
+
+    /**
+     * The backend whose index is updated.
+     */
+    private final BukkitPluginBackend backend;
+
+    /**
+     * Creates a new listener.
+     * @param backend The backend whose index is updated.
+     */
+    BukkitPlayerIndexListener(BukkitPluginBackend backend) {
+        this.backend = backend;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        this.backend.playerJoined(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        this.backend.playerLeft(event.getPlayer());
+    }
+}
@@ -17,8 +17,12 @@ package net.stuxcrystal.simpledev.commands.compat.bukkit;
 
 import net.stuxcrystal.simpledev.commands.CommandBackend;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+import net.stuxcrystal.simpledev.commands.PlayerIndex;
+import net.stuxcrystal.simpledev.commands.utils.WrapperCache;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
@@ -28,6 +32,33 @@ import java.util.logging.Logger;
  * Represents a backend backend.
  */
 public class BukkitPluginBackend extends CommandBackend<Plugin,CommandSender> {
+
+    /**
+     * The index of the online players.
+     */
+    private final PlayerIndex<CommandSender> players = new PlayerIndex<>();
+
+    /**
+     * Is the index kept up to date?
+     */
+    private volatile boolean indexing = false;
+
+    /**
+     * The wrappers of the senders.
+     */
+    private final WrapperCache<CommandSender, BukkitSenderWrapper> wrappers = new WrapperCache<CommandSender, BukkitSenderWrapper>() {
+        @Override
+        protected BukkitSenderWrapper create(CommandSender handle, CommandHandler handler) {
+            return new BukkitSenderWrapper(handle, handler);
+        }
+
+        @Override
+        protected boolean isRetained(CommandSender handle) {
+            // Only players are removed when they leave, command blocks are not.
+            return handle instanceof Player || handle instanceof ConsoleCommandSender;
+        }
+    };
+
     /**
      * Creates a new handle.
      *
@@ -59,6 +90,10 @@ public class BukkitPluginBackend extends CommandBackend<Plugin,CommandSender> {
 
     @Override
     public CommandExecutor<?>[] getPlayers() {
+        CommandExecutor<?>[] indexed = this.getIndexedPlayers();
+        if (indexed != null)
+            return indexed;
+
         Player[] players = this.getHandle().getServer().getOnlinePlayers();
         CommandExecutor[] executors = new CommandExecutor[players.length];
         for (int i = 0; i<players.length; i++) {
@@ -98,8 +133,47 @@ public class BukkitPluginBackend extends CommandBackend<Plugin,CommandSender> {
         return ((BukkitSenderWrapper) executor).getHandle().hasPermission(node);
     }
 
+    @Override
+    protected PlayerIndex<CommandSender> getPlayerIndex() {
+        return this.indexing ? this.players : null;
+    }
+
+    /**
+     * Indexes the online players and keeps the index up to date.
+     */
+    synchronized void startIndexing() {
+        if (this.indexing)
+            return;
+
+        this.getHandle().getServer().getPluginManager().registerEvents(
+                new BukkitPlayerIndexListener(this), this.getHandle()
+        );
+
+        // Players that are already online (e.g. after a reload).
+        for (Player player : this.getHandle().getServer().getOnlinePlayers())
+            this.players.add(player.getName(), player);
+
+        this.indexing = true;
+    }
+
+    /**
+     * Adds a player that joined the server to the index.
+     * @param player The player.
+     */
+    void playerJoined(Player player) {
+        this.players.add(player.getName(), player);
+    }
+
+    /**
+     * Removes a player that left the server from the index.
+     * @param player The player.
+     */
+    void playerLeft(Player player) {
+        this.players.remove(player.getName());
+        this.wrappers.remove(player);
+    }
+
     CommandExecutor<?> wrapSender(CommandSender sender) {
-        if (sender == null) return null;
-        return new BukkitSenderWrapper(sender, this.getCommandHandler());
+        return this.wrappers.wrap(sender, this.getCommandHandler());
     }
 }
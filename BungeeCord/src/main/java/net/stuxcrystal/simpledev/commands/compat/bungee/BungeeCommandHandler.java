@@ -5,10 +5,12 @@ import net.md_5.bungee.api.plugin.Command;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
 import net.stuxcrystal.simpledev.commands.CommandHandler;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
 import net.stuxcrystal.simpledev.commands.compat.bungee.contrib.BungeeCommand;
 import net.stuxcrystal.simpledev.commands.compat.bungee.contrib.commands.BungeeCommandLoader;
 import net.stuxcrystal.simpledev.commands.compat.bungee.scheduler.BungeeSchedulerWrapper;
-import org.apache.commons.lang.ArrayUtils;
+
+import java.util.List;
 
 /**
  * Command Handler for BungeeCord.
@@ -38,6 +40,13 @@ public class BungeeCommandHandler extends CommandHandler {
     private void initHandler() {
         this.registerCommandLoader(new BungeeCommandLoader());
         this.registerComponent(new BungeeSchedulerWrapper((BungeePluginBackend)this.getServerBackend()));
+
+        // Forget the permissions of players that left the proxy.
+        Plugin plugin = ((BungeePluginBackend) this.getServerBackend()).getHandle();
+        plugin.getProxy().getPluginManager().registerListener(plugin, new BungeePermissionListener(this));
+
+        // Resolve player names using an index.
+        ((BungeePluginBackend) this.getServerBackend()).startIndexing();
     }
 
     /**
@@ -57,20 +66,36 @@ public class BungeeCommandHandler extends CommandHandler {
      */
     public void executeSubCommand(CommandSender sender, String[] args) {
         CommandExecutor executor = this.getServerBackend().wrapPlayer(sender);
-        args = (String[]) ArrayUtils.remove(args, 0);
+        CommandLine line = CommandLine.of(args);
+
+        // The first argument is the name of the command itself.
+        this.execute(executor, line.isEmpty() ? line : line.from(1));
 
-        String name;
-        if (args.length == 0) {
-            name = CommandHandler.FALLBACK_COMMAND_NAME;
-            args = new String[0];
-        } else {
-            name = args[0];
-            args = (String[]) ArrayUtils.remove(args, 0);
-        }
+    }
 
-        if (!this.execute(executor, name, args))
-            executor.sendMessage(T(executor, "cmd.notfound"));
+    /**
+     * Tab-completion for a command switch.
+     * @param sender    The sender.
+     * @param command   The command name.
+     * @param arguments The arguments. The last one is being completed.
+     * @return The completions.
+     */
+    public List<String> completeCommandSwitch(CommandSender sender, String command, String[] arguments) {
+        return this.complete(this.getServerBackend().wrapPlayer(sender), command, CommandLine.of(arguments));
+    }
+
+    /**
+     * Tab-completion for subcommands.
+     * @param sender The sender.
+     * @param args   The arguments. The last one is being completed.
+     * @return The completions.
+     */
+    public List<String> completeSubCommand(CommandSender sender, String[] args) {
+        CommandExecutor executor = this.getServerBackend().wrapPlayer(sender);
+        CommandLine line = CommandLine.of(args);
 
+        // The first argument is the name of the command itself.
+        return this.complete(executor, line.isEmpty() ? line : line.from(1));
     }
 
     /**
@@ -0,0 +1,31 @@
+package net.stuxcrystal.simpledev.commands.compat.bungee;
+
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+
+/**
+ * Removes the cached permissions of players leaving the proxy.
+ */
+class BungeePermissionListener implements Listener {
+
+    /**
+     * The handler whose cache is invalidated.
+     */
+    private final CommandHandler handler;
+
+    /**
+     * Creates a new listener.
+     * @param handler The handler whose cache is invalidated.
+     */
+    BungeePermissionListener(CommandHandler handler) {
+        this.handler = handler;
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onDisconnect(PlayerDisconnectEvent event) {
+        this.handler.getPermissionCache().invalidate(event.getPlayer());
+    }
+}
@@ -0,0 +1,36 @@
+package net.stuxcrystal.simpledev.commands.compat.bungee;
+
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.event.PostLoginEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
+
+/**
+ * Keeps the index of the online players up to date and forgets the wrappers of players leaving the proxy.
+ */
+class BungeePlayerIndexListener implements Listener {
+
+    /**
+     * The backend whose index is updated.
+     */
+    private final BungeePluginBackend backend;
+
+    /**
+     * Creates a new listener.
+     * @param backend The backend whose index is updated.
+     */
+    BungeePlayerIndexListener(BungeePluginBackend backend) {
+        this.backend = backend;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onLogin(PostLoginEvent event) {
+        this.backend.playerJoined(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onDisconnect(PlayerDisconnectEvent event) {
+        this.backend.playerLeft(event.getPlayer());
+    }
+}
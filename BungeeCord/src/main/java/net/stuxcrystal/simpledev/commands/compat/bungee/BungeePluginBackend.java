@@ -5,7 +5,10 @@ import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.stuxcrystal.simpledev.commands.CommandBackend;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+import net.stuxcrystal.simpledev.commands.PlayerIndex;
 import net.stuxcrystal.simpledev.commands.contrib.scheduler.FallbackSchedulerBackend;
+import net.stuxcrystal.simpledev.commands.utils.WrapperCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +19,26 @@ import java.util.logging.Logger;
  */
 public class BungeePluginBackend extends CommandBackend<Plugin, CommandSender> {
 
+    /**
+     * The index of the online players.
+     */
+    private final PlayerIndex<CommandSender> players = new PlayerIndex<>();
+
+    /**
+     * Is the index kept up to date?
+     */
+    private volatile boolean indexing = false;
+
+    /**
+     * The wrappers of the senders.
+     */
+    private final WrapperCache<CommandSender, BungeeSenderWrapper> wrappers = new WrapperCache<CommandSender, BungeeSenderWrapper>() {
+        @Override
+        protected BungeeSenderWrapper create(CommandSender handle, CommandHandler handler) {
+            return new BungeeSenderWrapper(handler, handle);
+        }
+    };
+
     /**
      * Creates a new handle.
      *
@@ -49,6 +72,10 @@ public class BungeePluginBackend extends CommandBackend<Plugin, CommandSender> {
 
     @Override
     public CommandExecutor<?>[] getPlayers() {
+        CommandExecutor<?>[] indexed = this.getIndexedPlayers();
+        if (indexed != null)
+            return indexed;
+
         List<ProxiedPlayer> players = new ArrayList<>(this.getHandle().getProxy().getPlayers());
         CommandExecutor[] executors = new CommandExecutor[players.size()];
         for (int i = 0; i<players.size(); i++) {
@@ -66,8 +93,7 @@ public class BungeePluginBackend extends CommandBackend<Plugin, CommandSender> {
 
     @Override
     public CommandExecutor<?> wrapPlayer(CommandSender player) {
-        if (player == null) return null;
-        return new BungeeSenderWrapper(this.getCommandHandler(), player);
+        return this.wrappers.wrap(player, this.getCommandHandler());
     }
 
     @Override
@@ -75,6 +101,46 @@ public class BungeePluginBackend extends CommandBackend<Plugin, CommandSender> {
         return wrapPlayer(this.getHandle().getProxy().getConsole());
     }
 
+    @Override
+    protected PlayerIndex<CommandSender> getPlayerIndex() {
+        return this.indexing ? this.players : null;
+    }
+
+    /**
+     * Indexes the online players and keeps the index up to date.
+     */
+    synchronized void startIndexing() {
+        if (this.indexing)
+            return;
+
+        this.getHandle().getProxy().getPluginManager().registerListener(
+                this.getHandle(), new BungeePlayerIndexListener(this)
+        );
+
+        // Players that are already online.
+        for (ProxiedPlayer player : this.getHandle().getProxy().getPlayers())
+            this.players.add(player.getName(), player);
+
+        this.indexing = true;
+    }
+
+    /**
+     * Adds a player that joined the proxy to the index.
+     * @param player The player.
+     */
+    void playerJoined(ProxiedPlayer player) {
+        this.players.add(player.getName(), player);
+    }
+
+    /**
+     * Removes a player that left the proxy from the index.
+     * @param player The player.
+     */
+    void playerLeft(ProxiedPlayer player) {
+        this.players.remove(player.getName());
+        this.wrappers.remove(player);
+    }
+
     @Override
     public Boolean hasPermission(CommandExecutor<?> executor, String node) {
         return ((CommandSender) executor.getHandle()).hasPermission(node);
@@ -2,12 +2,13 @@ package net.stuxcrystal.simpledev.commands.compat.bungee.contrib;
 
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.plugin.Command;
+import net.md_5.bungee.api.plugin.TabExecutor;
 import net.stuxcrystal.simpledev.commands.compat.bungee.BungeeCommandHandler;
 
 /**
  * Represents a command for BungeeCord.
  */
-public class BungeeCommand extends Command {
+public class BungeeCommand extends Command implements TabExecutor {
 
     private BungeeCommandHandler bch;
 
@@ -20,4 +21,9 @@ public class BungeeCommand extends Command {
     public void execute(CommandSender sender, String[] args) {
         this.bch.executeSubCommand(sender, args);
     }
+
+    @Override
+    public Iterable<String> onTabComplete(CommandSender sender, String[] args) {
+        return this.bch.completeSubCommand(sender, args);
+    }
 }
@@ -19,7 +19,7 @@ import net.canarymod.chat.MessageReceiver;
 import net.canarymod.plugin.Plugin;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
 import net.stuxcrystal.simpledev.commands.CommandHandler;
-import org.apache.commons.lang.ArrayUtils;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
 
 /**
  * CommandHandler for Canary Mod.
@@ -33,6 +33,7 @@ public class CanaryCommandHandler extends CommandHandler {
      */
     public CanaryCommandHandler(Plugin plugin) {
         super(new CanaryPluginBackend(plugin));
+        this.initHandler();
     }
 
     /**
@@ -42,6 +43,15 @@ public class CanaryCommandHandler extends CommandHandler {
      */
     public CanaryCommandHandler(CanaryCommandHandler handler) {
         super(handler);
+        this.initHandler();
+    }
+
+    /**
+     * Initializes the command handler.
+     */
+    private void initHandler() {
+        // Resolve player names using an index.
+        ((CanaryPluginBackend) this.getServerBackend()).startIndexing();
     }
 
     /**
@@ -52,19 +62,10 @@ public class CanaryCommandHandler extends CommandHandler {
      */
     public void executeSubCommand(MessageReceiver caller, String[] args) {
         CommandExecutor executor = ((CanaryPluginBackend) getServerBackend()).wrapReceiver(caller);
-        args = (String[]) ArrayUtils.remove(args, 0);
-
-        String name;
-        if (args.length == 0) {
-            name = CommandHandler.FALLBACK_COMMAND_NAME;
-            args = new String[0];
-        } else {
-            name = args[0];
-            args = (String[]) ArrayUtils.remove(args, 0);
-        }
+        CommandLine line = CommandLine.of(args);
 
-        if (!this.execute(executor, name, args))
-            executor.sendMessage(T(executor, "cmd.notfound"));
+        // The first argument is the name of the command itself.
+        this.execute(executor, line.isEmpty() ? line : line.from(1));
 
     }
 }
@@ -0,0 +1,36 @@
+package net.stuxcrystal.simpledev.commands.compat.canary;
+
+import net.canarymod.hook.HookHandler;
+import net.canarymod.hook.player.ConnectionHook;
+import net.canarymod.hook.player.DisconnectionHook;
+import net.canarymod.plugin.PluginListener;
+import net.canarymod.plugin.Priority;
+
+/**
+ * Keeps the index of the online players up to date and forgets the wrappers of players leaving the server.
+ */
+class CanaryPlayerIndexListener implements PluginListener {
+
+    /**
+     * The backend whose index is updated.
+     */
+    private final CanaryPluginBackend backend;
+
+    /**
+     * Creates a new listener.
+     * @param backend The backend whose index is updated.
+     */
+    CanaryPlayerIndexListener(CanaryPluginBackend backend) {
+        this.backend = backend;
+    }
+
+    @HookHandler(priority = Priority.CRITICAL)
+    public void onConnect(ConnectionHook hook) {
+        this.backend.playerJoined(hook.getPlayer());
+    }
+
+    @HookHandler(priority = Priority.PASSIVE)
+    public void onDisconnect(DisconnectionHook hook) {
+        this.backend.playerLeft(hook.getPlayer());
+    }
+}
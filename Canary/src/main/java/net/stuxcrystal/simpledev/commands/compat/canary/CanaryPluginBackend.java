@@ -16,13 +16,17 @@
 package net.stuxcrystal.simpledev.commands.compat.canary;
 
 import net.canarymod.Canary;
+import net.canarymod.api.Server;
 import net.canarymod.api.entity.living.humanoid.Player;
 import net.canarymod.chat.MessageReceiver;
 import net.canarymod.plugin.Plugin;
 import net.canarymod.tasks.ServerTask;
 import net.stuxcrystal.simpledev.commands.CommandBackend;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+import net.stuxcrystal.simpledev.commands.PlayerIndex;
 import net.stuxcrystal.simpledev.commands.contrib.scheduler.FallbackSchedulerBackend;
+import net.stuxcrystal.simpledev.commands.utils.WrapperCache;
 
 import java.util.List;
 import java.util.logging.Logger;
@@ -34,6 +38,32 @@ public class CanaryPluginBackend extends CommandBackend<Plugin, MessageReceiver>
 
     private FallbackSchedulerBackend scheduler;
 
+    /**
+     * The index of the online players.
+     */
+    private final PlayerIndex<MessageReceiver> players = new PlayerIndex<>();
+
+    /**
+     * Is the index kept up to date?
+     */
+    private volatile boolean indexing = false;
+
+    /**
+     * The wrappers of the receivers.
+     */
+    private final WrapperCache<MessageReceiver, CanarySenderWrapper> wrappers = new WrapperCache<MessageReceiver, CanarySenderWrapper>() {
+        @Override
+        protected CanarySenderWrapper create(MessageReceiver handle, CommandHandler handler) {
+            return new CanarySenderWrapper(handle, handler);
+        }
+
+        @Override
+        protected boolean isRetained(MessageReceiver handle) {
+            // Only players are removed when they leave, command blocks are not.
+            return handle instanceof Player || handle instanceof Server;
+        }
+    };
+
     /**
      * Creates a new handle.
      *
@@ -72,6 +102,10 @@ public class CanaryPluginBackend extends CommandBackend<Plugin, MessageReceiver>
 
     @Override
     public CommandExecutor<?>[] getPlayers() {
+        CommandExecutor<?>[] indexed = this.getIndexedPlayers();
+        if (indexed != null)
+            return indexed;
+
         List<Player> players = Canary.getServer().getPlayerList();
         CommandExecutor[] executors = new CommandExecutor[players.size()];
         for (int i = 0; i<players.size(); i++) {
@@ -105,8 +139,45 @@ public class CanaryPluginBackend extends CommandBackend<Plugin, MessageReceiver>
         return ((CanarySenderWrapper) executor).getHandle().hasPermission(node);
     }
 
+    @Override
+    protected PlayerIndex<MessageReceiver> getPlayerIndex() {
+        return this.indexing ? this.players : null;
+    }
+
+    /**
+     * Indexes the online players and keeps the index up to date.
+     */
+    synchronized void startIndexing() {
+        if (this.indexing)
+            return;
+
+        Canary.hooks().registerListener(new CanaryPlayerIndexListener(this), this.getHandle());
+
+        // Players that are already online (e.g. after a reload).
+        for (Player player : Canary.getServer().getPlayerList())
+            this.players.add(player.getName(), player);
+
+        this.indexing = true;
+    }
+
+    /**
+     * Adds a player that joined the server to the index.
+     * @param player The player.
+     */
+    void playerJoined(Player player) {
+        this.players.add(player.getName(), player);
+    }
+
+    /**
+     * Removes a player that left the server from the index.
+     * @param player The player.
+     */
+    void playerLeft(Player player) {
+        this.players.remove(player.getName());
+        this.wrappers.remove(player);
+    }
+
     CommandExecutor<?> wrapReceiver(MessageReceiver receiver) {
-        if (receiver == null) return null;
-        return new CanarySenderWrapper(receiver, this.getCommandHandler());
+        return this.wrappers.wrap(receiver, this.getCommandHandler());
     }
 }
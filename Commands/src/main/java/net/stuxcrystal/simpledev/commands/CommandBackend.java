@@ -20,6 +20,9 @@ import net.stuxcrystal.simpledev.commands.contrib.scheduler.fallback.TaskCompone
 import net.stuxcrystal.simpledev.commands.utils.HandleWrapper;
 import org.apache.commons.lang.StringUtils;
 
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 
 /**
@@ -35,6 +38,49 @@ public abstract class CommandBackend<T, P> extends HandleWrapper<T> {
      */
     private CommandHandler handler;
 
+    /**
+     * Caches if permissions are supported for each type of executor.
+     */
+    private final ConcurrentMap<Class<?>, Boolean> permissionSupport = new ConcurrentHashMap<>();
+
+    /**
+     * The wrapped players of the index.
+     */
+    private static final class IndexedPlayers {
+
+        /**
+         * The players of the index the wrappers have been created for.
+         */
+        private final List<?> players;
+
+        /**
+         * The handler the wrappers have been created for.
+         */
+        private final CommandHandler handler;
+
+        /**
+         * The wrapped players.
+         */
+        private final CommandExecutor<?>[] executors;
+
+        /**
+         * Creates a new snapshot of the wrapped players.
+         * @param players   The players of the index.
+         * @param handler   The handler the wrappers have been created for.
+         * @param executors The wrapped players.
+         */
+        private IndexedPlayers(List<?> players, CommandHandler handler, CommandExecutor<?>[] executors) {
+            this.players = players;
+            this.handler = handler;
+            this.executors = executors;
+        }
+    }
+
+    /**
+     * The wrapped players of the index or {@code null} if they have not been wrapped yet.
+     */
+    private volatile IndexedPlayers indexedPlayers = null;
+
     /**
      * Creates a new handle.
      *
@@ -122,6 +168,13 @@ public abstract class CommandBackend<T, P> extends HandleWrapper<T> {
         if (StringUtils.isBlank(name) || "CONSOLE".equalsIgnoreCase(name))
             return this.getConsole();
 
+        // Use the index if the backend maintains one.
+        PlayerIndex<P> index = this.getPlayerIndex();
+        if (index != null) {
+            P player = index.match(name);
+            return player == null ? null : this.wrapPlayer(player);
+        }
+
         CommandExecutor<?>[] executors = this.getPlayers();
 
         // Check for the exact name.
@@ -162,6 +215,39 @@ public abstract class CommandBackend<T, P> extends HandleWrapper<T> {
         return null;
     }
 
+    /**
+     * <p>Returns the wrapped players of the {@link #getPlayerIndex() index}.</p>
+     * <p>The players are only wrapped again after the index or the command handler changed.</p>
+     *
+     * @return A copy of the wrapped players or {@code null} if the backend does not maintain an index.
+     */
+    protected CommandExecutor<?>[] getIndexedPlayers() {
+        PlayerIndex<P> index = this.getPlayerIndex();
+        if (index == null)
+            return null;
+
+        List<P> players = index.values();
+        IndexedPlayers current = this.indexedPlayers;
+        if (current == null || current.players != players || current.handler != this.handler) {
+            CommandExecutor<?>[] executors = new CommandExecutor<?>[players.size()];
+            for (int i = 0; i < executors.length; i++)
+                executors[i] = this.wrapPlayer(players.get(i));
+            this.indexedPlayers = current = new IndexedPlayers(players, this.handler, executors);
+        }
+
+        return current.executors.clone();
+    }
+
+    /**
+     * <p>Returns the index of the online players.</p>
+     * <p>Backends that update an index when players join and leave should override this method.</p>
+     *
+     * @return The index or {@code null} if the players are searched using {@link #getPlayers()}.
+     */
+    protected PlayerIndex<P> getPlayerIndex() {
+        return null;
+    }
+
     /**
      * Wraps a player object.
      * @param player The player (sender) to wrap.
@@ -186,14 +272,32 @@ public abstract class CommandBackend<T, P> extends HandleWrapper<T> {
         return null;
     }
 
+    /**
+     * <p>Checks if the backend supports permissions for this type of executor.</p>
+     * <p>The backend is only asked once for each type of executor.</p>
+     *
+     * @param executor The executor.
+     * @return {@code true} if {@link #hasPermission(CommandExecutor, String)} returns a value for the executor.
+     */
+    public final boolean supportsPermissions(CommandExecutor<?> executor) {
+        Class<?> type = executor == null ? Void.class : executor.getClass();
+
+        Boolean result = this.permissionSupport.get(type);
+        if (result == null) {
+            result = this.hasPermission(executor, "chandler.testpermission") != null;
+            this.permissionSupport.put(type, result);
+        }
+        return result;
+    }
+
     /**
      * Returns the scheduler for this object.
      * @return The scheduler for this object.
      */
     public Scheduler getScheduler() {
         if (!this.getCommandHandler().hasFunction("__scheduler_exists", CommandBackend.class)) {
-            this.getCommandHandler().registerComponent(new TaskComponent());
-            this.getLogger().warning("Beware that the delay may not be accurate.");
+            if (this.getCommandHandler().registerComponentIfAbsent(new TaskComponent()))
+                this.getLogger().warning("Beware that the delay may not be accurate.");
         }
         return this.getComponent(Scheduler.class);
     }
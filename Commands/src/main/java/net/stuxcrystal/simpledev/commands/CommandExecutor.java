@@ -15,7 +15,6 @@
 
 package net.stuxcrystal.simpledev.commands;
 
-import net.stuxcrystal.simpledev.commands.contrib.DefaultPermissionHandler;
 import net.stuxcrystal.simpledev.commands.contrib.history.History;
 import net.stuxcrystal.simpledev.commands.contrib.history.HistoryComponent;
 import net.stuxcrystal.simpledev.commands.contrib.sessions.SessionManager;
@@ -62,11 +61,7 @@ public abstract class CommandExecutor<T> extends HandleWrapper<T> {
      * @return true if the sender has the permission needed.
      */
     public final boolean hasPermission(String node) {
-        PermissionHandler handler = this.handler.getPermissionHandler();
-        if (handler == null)
-            this.handler.setPermissionHandler(handler = new DefaultPermissionHandler(this.handler));
-
-        return handler.hasPermission(this, node);
+        return this.handler.getPermissionCache().hasPermission(this, node);
     }
 
     /**
@@ -100,7 +95,7 @@ public abstract class CommandExecutor<T> extends HandleWrapper<T> {
     public History getHistory() {
         // Make sure that the history subsystem has been registered.
         if (!this.getCommandHandler().isComponentRegistered(HistoryComponent.class))
-            this.getCommandHandler().registerComponent(HistoryComponent.class);
+            this.getCommandHandler().registerComponentIfAbsent(HistoryComponent.class);
 
         return this.getComponent(History.class);
     }
@@ -111,7 +106,7 @@ public abstract class CommandExecutor<T> extends HandleWrapper<T> {
      */
     public Sessions getSessions() {
         if (!this.getCommandHandler().isComponentRegistered(SessionManager.class))
-            this.getCommandHandler().registerComponent(new SessionManager(this.getCommandHandler()));
+            this.getCommandHandler().registerComponentIfAbsent(new SessionManager(this.getCommandHandler()));
         return this.getComponent(Sessions.class);
     }
 
@@ -16,22 +16,30 @@
 package net.stuxcrystal.simpledev.commands;
 
 import net.stuxcrystal.simpledev.commands.arguments.ArgumentList;
+import net.stuxcrystal.simpledev.commands.arguments.ArgumentSplitter;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
+import net.stuxcrystal.simpledev.commands.commands.BranchContainer;
 import net.stuxcrystal.simpledev.commands.commands.CommandContainer;
+import net.stuxcrystal.simpledev.commands.commands.CommandDescriptor;
+import net.stuxcrystal.simpledev.commands.commands.CommandExecutionTask;
 import net.stuxcrystal.simpledev.commands.commands.CommandLoader;
 import net.stuxcrystal.simpledev.commands.commands.CommandManager;
+import net.stuxcrystal.simpledev.commands.commands.CommandTable;
 import net.stuxcrystal.simpledev.commands.arguments.ArgumentHandler;
+import net.stuxcrystal.simpledev.commands.completion.CompletionManager;
+import net.stuxcrystal.simpledev.commands.completion.CompletionProvider;
+import net.stuxcrystal.simpledev.commands.completion.SuggestionTree;
 import net.stuxcrystal.simpledev.commands.component.ComponentContainer;
 import net.stuxcrystal.simpledev.commands.component.ComponentManager;
+import net.stuxcrystal.simpledev.commands.invocation.InvocationBackend;
 import net.stuxcrystal.simpledev.commands.contrib.DefaultPermissionHandler;
 import net.stuxcrystal.simpledev.commands.exceptions.ExceptionHandler;
 import net.stuxcrystal.simpledev.commands.translations.TranslationManager;
 import net.stuxcrystal.simpledev.commands.utils.HandleWrapper;
-import org.apache.commons.lang.ArrayUtils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
 
 /**
  * The handler for commands.
@@ -45,6 +53,21 @@ public class CommandHandler {
      */
     public static final String FALLBACK_COMMAND_NAME = " ";
 
+    /**
+     * Returned by the resolution of a line if the executor has already been told why the line has been rejected.
+     */
+    private static final LineCache.Route REJECTED = new LineCache.Route(null, null, null, null, null, -1);
+
+    /**
+     * Returned by the resolution of a line if the executor has already been told that the command does not exist.
+     */
+    private static final LineCache.Route NOT_FOUND = new LineCache.Route(null, null, null, null, null, -1);
+
+    /**
+     * The maximal amount of suggestions for a mistyped command.
+     */
+    private static final int MAX_SUGGESTIONS = 3;
+
     //////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     /**
@@ -52,10 +75,15 @@ public class CommandHandler {
      */
     private CommandManager commands = new CommandManager();
 
+    /**
+     * Stores the completion providers of the arguments.
+     */
+    private final CompletionManager completions = new CompletionManager();
+
     /**
      * List of registered sub-command-handlers.
      */
-    private final List<CommandHandler> subCommandHandler = new ArrayList<>();
+    private final List<CommandHandler> subCommandHandler = new CopyOnWriteArrayList<>();
 
     /**
      * The java backend to register tasks.
@@ -82,11 +110,26 @@ public class CommandHandler {
      */
     private PermissionHandler permissionHandler = null;
 
+    /**
+     * Caches the decisions of the permission-handler.
+     */
+    private final PermissionCache permissionCache = new PermissionCache(this);
+
+    /**
+     * Caches the routes of raw command lines.
+     */
+    private final LineCache lineCache = new LineCache();
+
     /**
      * Represents tha ArgumentHandler
      */
     private ArgumentHandler argument = null;
 
+    /**
+     * Binds the methods of the commands and components.
+     */
+    private InvocationBackend invocation = null;
+
     /**
      * Stores all exception handlers.
      */
@@ -180,28 +223,222 @@ public class CommandHandler {
      * Also prepares subcommands.
      *
      * @param container The container for the methods.
+     * @return The commands that have been registered.
+     */
+    public List<CommandContainer> registerCommands(Object container) {
+        return this.commands.registerCommands(this, container);
+    }
+
+    /**
+     * Replaces the commands with the commands found inside the container.<p />
+     *
+     * Commands being dispatched at the same time will either see the old commands or the new commands.
+     *
+     * @param old       The commands to remove. (As returned by {@link #registerCommands(Object)})
+     * @param container The container for the new methods.
+     * @return The commands that have been registered.
+     */
+    public List<CommandContainer> replaceCommands(Collection<? extends CommandContainer> old, Object container) {
+        return this.commands.replaceCommands(this, old, container);
+    }
+
+    /**
+     * Unregisters the commands.
+     *
+     * @param commands The commands to remove. (As returned by {@link #registerCommands(Object)})
      */
-    public void registerCommands(Object container) {
-        this.commands.registerCommands(this, container);
+    public void unregisterCommands(Collection<? extends CommandContainer> commands) {
+        this.commands.unregister(commands);
+    }
+
+    /**
+     * <p>Resolves the command with the given name.</p>
+     * <p>The commands of this handler are preferred over the commands of the subordinate handlers.</p>
+     *
+     * @param executor  The executor that executes the command.
+     * @param name      The name of the command.
+     * @return The command or {@code null} if no command has been found.
+     */
+    public CommandContainer resolve(CommandExecutor executor, String name) {
+        CommandDescriptor command = this.find(executor, name);
+        if (command == null)
+            return null;
+        return command.getContainer();
+    }
+
+    /**
+     * <p>Resolves the compiled command with the given name.</p>
+     * <p>The commands of this handler are preferred over the commands of the subordinate handlers.</p>
+     *
+     * @param executor  The executor that executes the command.
+     * @param name      The name of the command.
+     * @return The compiled command or {@code null} if no command has been found.
+     */
+    public CommandDescriptor find(CommandExecutor executor, String name) {
+        CommandDescriptor command = this.commands.find(executor, name);
+        if (command != null)
+            return command;
+
+        for (CommandHandler subhandler : this.subCommandHandler) {
+            command = subhandler.find(executor, name);
+            if (command != null)
+                return command;
+        }
+
+        return null;
     }
 
     /**
      * Executes the command.
+     *
      * @param executor  The executor that executes the command.
      * @param name      The name of the command.
      * @param args      The arguments for the command.
      * @return {@code true} if the command was found and has been executed.
      */
     public boolean execute(CommandExecutor executor, String name, String[] args) {
-        if (this.commands.execute(executor, name, args))
-            return true;
+        return this.execute(executor, name, CommandLine.of(args));
+    }
+
+    /**
+     * <p>Executes the command.</p>
+     * <p>
+     *     Routable sub-commands (see {@link BranchContainer}) are resolved in a single pass over the
+     *     arguments. The arguments are never copied, the command that is actually executed receives a
+     *     view on the original command line.
+     * </p>
+     *
+     * @param executor  The executor that executes the command.
+     * @param name      The name of the command.
+     * @param args      The arguments for the command.
+     * @return {@code true} if the command was found and has been executed.
+     */
+    public boolean execute(CommandExecutor executor, String name, CommandLine args) {
+        LineCache.Route route = this.cachedRoute(executor, name, args);
+        if (route == null)
+            return false;
+
+        this.execute(executor, route);
+        return true;
+    }
+
+    /**
+     * Resolves the command using the {@link #getLineCache() line cache}.
+     *
+     * @param executor  The executor that executes the command.
+     * @param name      The name of the command.
+     * @param args      The arguments for the command.
+     * @return The route, {@link #REJECTED} or {@code null} if no command has the name.
+     */
+    private LineCache.Route cachedRoute(CommandExecutor executor, String name, CommandLine args) {
+        if (!this.lineCache.isEnabled())
+            return this.route(executor, name, args, null);
+
+        LineCache.Tokens key = new LineCache.Tokens(name, args);
+        LineCache.Route route = this.lineCache.get(key);
+        if (route != null && this.isUsable(executor, route))
+            return route;
+
+        return this.route(executor, name, args, key);
+    }
+
+    /**
+     * Resolves the command and caches its route if the raw line is given.
+     *
+     * @param executor  The executor that executes the command.
+     * @param name      The name of the command.
+     * @param args      The arguments for the command.
+     * @param line      The raw line or its {@link LineCache.Tokens} or {@code null} if the route should not be cached.
+     * @return The route, {@link #REJECTED} if the executor has been told that a sub-command could not be
+     *         resolved or {@code null} if no command has the name.
+     */
+    private LineCache.Route route(CommandExecutor executor, String name, CommandLine args, Object line) {
+        // Read the change count first, so a change during the resolution invalidates the route.
+        long changes = CommandManager.getChangeCount();
+        List<CommandDescriptor> route = line == null ? null : new ArrayList<CommandDescriptor>();
+
+        CommandHandler handler = this;
+        CommandDescriptor command = handler.find(executor, name);
+        if (command == null)
+            return null;
+        route = CommandHandler.record(route, handler, name, command);
+
+        int offset = 0;
+        while (command.isRoutable()) {
+            if (!handler.commands.checkArgumentCount(command, executor, args.size() - offset))
+                return CommandHandler.REJECTED;
+
+            handler = ((BranchContainer) command.getContainer()).getSubCommandHandler();
+            if (offset < args.size()) {
+                name = args.get(offset++);
+            } else {
+                // An empty name represents a call without an argument
+                name = CommandHandler.FALLBACK_COMMAND_NAME;
+            }
+
+            command = handler.find(executor, name);
+            if (command == null) {
+                handler.notFound(executor, name);
+                return CommandHandler.REJECTED;
+            }
+            route = CommandHandler.record(route, handler, name, command);
+        }
+
+        CommandLine arguments = args.from(offset);
+        if (route == null)
+            return new LineCache.Route(handler, new CommandDescriptor[] {command}, arguments, null, null, changes);
+
+        // Split the arguments once, so the cached route can skip the splitter.
+        CommandLine split = null;
+        ArgumentSplitter splitter = null;
+        if (command.parseArguments()) {
+            splitter = executor.getCommandHandler().getArgumentHandler().getArgumentSplitter();
+            split = ArgumentList.split(splitter, arguments);
+        }
+
+        LineCache.Route result = new LineCache.Route(
+                handler, route.toArray(new CommandDescriptor[route.size()]), arguments, split, splitter, changes
+        );
+        this.lineCache.put(line, result);
+        return result;
+    }
+
+    /**
+     * Adds the command to the route if the command does not depend on the executor.
+     *
+     * @param route     The commands matched so far or {@code null} if the route is not cached.
+     * @param handler   The handler that resolved the command.
+     * @param name      The name of the command.
+     * @param command   The command.
+     * @return The route or {@code null} if the route cannot be cached.
+     */
+    private static List<CommandDescriptor> record(List<CommandDescriptor> route, CommandHandler handler, String name, CommandDescriptor command) {
+        // Another executor might have been matched to a command that this executor may not execute.
+        if (route == null || command != handler.first(name))
+            return null;
+
+        route.add(command);
+        return route;
+    }
+
+    /**
+     * Returns the command that is matched first if the executor may execute every command.
+     *
+     * @param name  The name of the command.
+     * @return The command or {@code null} if no command has the name.
+     */
+    private CommandDescriptor first(String name) {
+        CommandDescriptor command = this.commands.first(name);
+        if (command != null)
+            return command;
 
         for (CommandHandler subhandler : this.subCommandHandler) {
-            if (subhandler.execute(executor, name, args))
-                return true;
+            command = subhandler.first(name);
+            if (command != null)
+                return command;
         }
 
-        return false;
+        return null;
     }
 
     /**
@@ -211,27 +448,404 @@ public class CommandHandler {
      * @param rawArgs  The raw arguments.
      */
     public void execute(CommandExecutor executor, String[] rawArgs) {
+        this.execute(executor, CommandLine.of(rawArgs));
+    }
+
+    /**
+     * <p>Implementation of the execute method that uses the first token as its command name.</p>
+     * <p>The {@link #getLineCache() line cache} is used, so the tokens must not be modified afterwards.</p>
+     *
+     * @param executor The executor that executes the command.
+     * @param line     The command line.
+     */
+    public void execute(CommandExecutor executor, CommandLine line) {
+        this.execute(executor, this.route(executor, line, null));
+    }
+
+    /**
+     * <p>Executes a raw command line. The first token is used as the command name.</p>
+     *
+     * <p>
+     *     If the {@link #getLineCache() line cache} is enabled, executing the same line again skips the
+     *     resolution of the commands and the splitting of the arguments.
+     * </p>
+     *
+     * @param executor The executor that executes the command.
+     * @param line     The raw command line.
+     */
+    public void execute(CommandExecutor executor, String line) {
+        this.execute(executor, this.route(executor, line));
+    }
+
+    /**
+     * <p>Executes several raw command lines.</p>
+     *
+     * <p>
+     *     All lines are resolved and their arguments are checked before any command is executed. The commands
+     *     are then grouped by the thread they require and each group is handed to the scheduler at most once:
+     *     Synchronous commands are executed at once if this is the main thread. Inside each group the commands
+     *     are executed in the order of the lines.
+     * </p>
+     *
+     * <p>Meant for console scripts, setup macros and migrations. The {@link #getLineCache() line cache} is used.</p>
+     *
+     * @param executor The executor that executes the commands.
+     * @param lines    The raw command lines.
+     * @return The result of each line in the order of the lines.
+     */
+    public List<ExecutionResult> executeAll(CommandExecutor executor, Iterable<String> lines) {
+        List<ExecutionResult> results = new ArrayList<>();
+        List<CommandExecutionTask> sync = new ArrayList<>();
+        List<CommandExecutionTask> async = new ArrayList<>();
+
+        for (String line : lines) {
+            LineCache.Route route = this.route(executor, line);
+            if (route == CommandHandler.NOT_FOUND) {
+                results.add(ExecutionResult.NOT_FOUND);
+                continue;
+            }
+
+            CommandExecutionTask task = route == CommandHandler.REJECTED ? null : this.prepare(executor, route);
+            if (task == null) {
+                results.add(ExecutionResult.REJECTED);
+                continue;
+            }
+
+            if (route.getCommand().isAsyncCommand())
+                async.add(task);
+            else
+                sync.add(task);
+            results.add(ExecutionResult.ACCEPTED);
+        }
+
+        this.commands.callAll(this.getServerBackend(), sync, async);
+        return results;
+    }
+
+    /**
+     * Resolves a raw line using the {@link #getLineCache() line cache}.
+     *
+     * @param executor The executor that executes the command.
+     * @param line     The raw command line.
+     * @return The route, {@link #REJECTED} or {@link #NOT_FOUND}.
+     */
+    private LineCache.Route route(CommandExecutor executor, String line) {
+        if (!this.lineCache.isEnabled())
+            return this.route(executor, CommandLine.parse(line), null);
+
+        LineCache.Route route = this.lineCache.get(line);
+        if (route != null && this.isUsable(executor, route))
+            return route;
+
+        return this.route(executor, CommandLine.parse(line), line);
+    }
+
+    /**
+     * Resolves the command line. The first token is used as the command name.
+     *
+     * @param executor The executor that executes the command.
+     * @param line     The command line.
+     * @param raw      The raw line or {@code null} if the route should be cached by its tokens.
+     * @return The route, {@link #REJECTED} or {@link #NOT_FOUND}.
+     */
+    private LineCache.Route route(CommandExecutor executor, CommandLine line, String raw) {
         String name;
-        if (rawArgs.length == 0) {
+        if (line.isEmpty()) {
             name = CommandHandler.FALLBACK_COMMAND_NAME;
-            rawArgs = new String[0];
         } else {
-            name = rawArgs[0];
-            rawArgs = (String[]) ArrayUtils.remove(rawArgs, 0);
+            name = line.get(0);
+            line = line.from(1);
+        }
+
+        LineCache.Route route = raw == null
+                ? this.cachedRoute(executor, name, line)
+                : this.route(executor, name, line, raw);
+        if (route == null) {
+            this.notFound(executor, name);
+            return CommandHandler.NOT_FOUND;
         }
+        return route;
+    }
 
-        if (!this.execute(executor, name, rawArgs))
-            executor.sendMessage(T(executor, "cmd.notfound"));
+    /**
+     * Checks if a cached route may be used by the executor.
+     *
+     * @param executor The executor that executes the command.
+     * @param route    The route.
+     * @return {@code false} if the route is outdated or the executor may not execute one of its commands.
+     */
+    private boolean isUsable(CommandExecutor executor, LineCache.Route route) {
+        CommandHandler handler = executor.getCommandHandler();
+        if (!route.isValid(handler.getArgumentHandler().getArgumentSplitter()))
+            return false;
+
+        // The executor must be allowed to execute every command on the route.
+        int sender = CommandDescriptor.getSenderType(executor);
+        boolean permissions = handler.isPermissionsSupported(executor);
+        for (CommandDescriptor command : route.commands) {
+            if (!command.canExecute(executor, sender, permissions))
+                return false;
+        }
+        return true;
     }
 
     /**
-     * Short for CommandHandler.execute(executor, parser.copy(0));
+     * Executes a resolved route.
+     *
+     * @param executor The executor that executes the command.
+     * @param route    The route, {@link #REJECTED} or {@link #NOT_FOUND}.
+     */
+    private void execute(CommandExecutor executor, LineCache.Route route) {
+        if (route == CommandHandler.REJECTED || route == CommandHandler.NOT_FOUND)
+            return;
+
+        if (route.split != null) {
+            route.handler.commands.executeSplit(route.getCommand(), executor, route.split);
+        } else {
+            route.handler.commands.execute(route.getCommand(), executor, route.arguments);
+        }
+    }
+
+    /**
+     * Checks the arguments and creates the task that executes the command of a route.
+     *
+     * @param executor The executor that executes the command.
+     * @param route    The resolved route.
+     * @return The task or {@code null} if the arguments are invalid.
+     */
+    private CommandExecutionTask prepare(CommandExecutor executor, LineCache.Route route) {
+        if (route.split != null)
+            return route.handler.commands.prepareSplit(route.getCommand(), executor, route.split);
+        return route.handler.commands.prepare(route.getCommand(), executor, route.arguments);
+    }
+
+    /**
+     * Returns the names and aliases of the commands starting with the prefix.<p />
+     *
+     * The commands of the subordinate handlers are included. Only commands the executor can execute
+     * are returned.
+     *
+     * @param executor The executor that requests the completions.
+     * @param prefix   The prefix. The case is ignored.
+     * @return The names of the commands.
+     */
+    public List<String> completeNames(CommandExecutor executor, String prefix) {
+        List<String> result = this.commands.complete(executor, prefix);
+        if (this.subCommandHandler.isEmpty())
+            return result;
+
+        Set<String> names = new LinkedHashSet<>(result);
+        for (CommandHandler subhandler : this.subCommandHandler)
+            names.addAll(subhandler.completeNames(executor, prefix));
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Returns the names and aliases of the commands similar to the mistyped name.<p />
+     *
+     * The commands of the subordinate handlers are included. Only commands the executor can execute
+     * are returned. The names are looked up in a BK-tree, so the time needed does not grow with the
+     * amount of commands.
+     *
+     * @param executor The executor that mistyped the name.
+     * @param name     The mistyped name. The case is ignored.
+     * @return The most similar names first. At most three names are returned.
+     */
+    public List<String> suggestNames(CommandExecutor executor, String name) {
+        // Short names would match almost everything.
+        int maxDistance = Math.min(2, (name.length() + 1) / 3);
+        if (maxDistance == 0)
+            return Collections.emptyList();
+
+        List<String> result = this.suggestNames(executor, name, maxDistance);
+        if (this.subCommandHandler.isEmpty())
+            return result;
+
+        // Order the names of all handlers by their distance.
+        final String folded = CommandTable.fold(name);
+        List<String> names = new ArrayList<>(new LinkedHashSet<>(result));
+        Collections.sort(names, new Comparator<String>() {
+            @Override
+            public int compare(String o1, String o2) {
+                return Integer.compare(
+                        SuggestionTree.distance(folded, CommandTable.fold(o1)),
+                        SuggestionTree.distance(folded, CommandTable.fold(o2))
+                );
+            }
+        });
+        return names.size() > CommandHandler.MAX_SUGGESTIONS ? names.subList(0, CommandHandler.MAX_SUGGESTIONS) : names;
+    }
+
+    /**
+     * Collects the similar names of this handler and its subordinate handlers.
+     *
+     * @param executor    The executor that mistyped the name.
+     * @param name        The mistyped name.
+     * @param maxDistance The maximal edit distance.
+     * @return The names of this handler followed by the names of the subordinate handlers.
+     */
+    private List<String> suggestNames(CommandExecutor executor, String name, int maxDistance) {
+        List<String> result = this.commands.suggest(executor, name, maxDistance, CommandHandler.MAX_SUGGESTIONS);
+        if (this.subCommandHandler.isEmpty())
+            return result;
+
+        result = new ArrayList<>(result);
+        for (CommandHandler subhandler : this.subCommandHandler)
+            result.addAll(subhandler.suggestNames(executor, name, maxDistance));
+        return result;
+    }
+
+    /**
+     * Tells the executor that the command does not exist and suggests similar commands.
+     *
+     * @param executor The executor.
+     * @param name     The name that has not been found.
+     */
+    private void notFound(CommandExecutor executor, String name) {
+        executor.sendMessage(T(executor, "cmd.notfound"));
+
+        List<String> suggestions = this.suggestNames(executor, name);
+        if (suggestions.isEmpty())
+            return;
+
+        StringBuilder sb = new StringBuilder();
+        for (String suggestion : suggestions) {
+            if (sb.length() != 0)
+                sb.append(", ");
+            sb.append(suggestion);
+        }
+        executor.sendMessage(T(executor, "cmd.notfound.suggest", sb.toString()));
+    }
+
+    /**
+     * Completes the last token of the command line.<p />
+     *
+     * The first token is used as the command name like in {@link #execute(CommandExecutor, CommandLine)}.
+     *
+     * @param executor The executor that requests the completions.
+     * @param line     The command line. The last token is the one that is being completed.
+     * @return The completions.
+     */
+    public List<String> complete(CommandExecutor executor, CommandLine line) {
+        List<String> result = this.tryComplete(executor, line);
+        return result == null ? Collections.<String>emptyList() : result;
+    }
+
+    /**
+     * Completes the last argument of the command.<p />
+     *
+     * Routable sub-commands are followed like in {@link #execute(CommandExecutor, String, CommandLine)}.
+     *
+     * @param executor The executor that requests the completions.
+     * @param name     The name of the command.
+     * @param args     The arguments. The last argument is the one that is being completed.
+     * @return The completions.
+     */
+    public List<String> complete(CommandExecutor executor, String name, CommandLine args) {
+        List<String> result = this.tryComplete(executor, name, args);
+        return result == null ? Collections.<String>emptyList() : result;
+    }
+
+    /**
+     * Completes the last token of the command line like {@link #complete(CommandExecutor, CommandLine)}.<p />
+     *
+     * Returns {@code null} if no command or completion provider is responsible for the token, so the platform
+     * can fall back to its default completion (e.g. the names of the online players).
+     *
+     * @param executor The executor that requests the completions.
+     * @param line     The command line. The last token is the one that is being completed.
+     * @return The completions or {@code null} if nothing is responsible for the token.
+     */
+    public List<String> tryComplete(CommandExecutor executor, CommandLine line) {
+        if (line.isEmpty())
+            return this.completeNames(executor, "");
+
+        if (line.size() == 1)
+            return this.completeNames(executor, line.get(0));
+
+        return this.tryComplete(executor, line.get(0), line.from(1));
+    }
+
+    /**
+     * Completes the last argument of the command like {@link #complete(CommandExecutor, String, CommandLine)}.<p />
+     *
+     * Returns {@code null} if no command or completion provider is responsible for the argument, so the platform
+     * can fall back to its default completion (e.g. the names of the online players).
+     *
+     * @param executor The executor that requests the completions.
+     * @param name     The name of the command.
+     * @param args     The arguments. The last argument is the one that is being completed.
+     * @return The completions or {@code null} if nothing is responsible for the argument.
+     */
+    public List<String> tryComplete(CommandExecutor executor, String name, CommandLine args) {
+        if (args.isEmpty())
+            return null;
+
+        CommandHandler handler = this;
+        CommandDescriptor command = handler.find(executor, name);
+        if (command == null)
+            return null;
+
+        int offset = 0;
+        while (command.isRoutable()) {
+            handler = ((BranchContainer) command.getContainer()).getSubCommandHandler();
+
+            // The name of the sub-command is being completed.
+            if (offset == args.size() - 1)
+                return handler.completeNames(executor, args.get(offset));
+
+            command = handler.find(executor, args.get(offset++));
+            if (command == null)
+                return null;
+        }
+
+        args = args.from(offset);
+        int position = args.size() - 1;
+        CompletionProvider provider = handler.getCompletionProvider(command.getContainer(), position);
+        if (provider == null)
+            return null;
+
+        return provider.complete(executor, args.sub(0, position), args.get(position));
+    }
+
+    /**
+     * Searches the completion provider of the argument in this handler and its subordinate handlers.
+     *
+     * @param command  The command.
+     * @param position The index of the argument.
+     * @return The provider or {@code null}.
+     */
+    private CompletionProvider getCompletionProvider(CommandContainer command, int position) {
+        CompletionProvider provider = this.completions.getProvider(command, position);
+        if (provider != null)
+            return provider;
+
+        for (CommandHandler subhandler : this.subCommandHandler) {
+            provider = subhandler.getCompletionProvider(command, position);
+            if (provider != null)
+                return provider;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the manager that stores the completion providers of the commands of this handler.
+     *
+     * @return The completion manager.
+     */
+    public CompletionManager getCompletionManager() {
+        return this.completions;
+    }
+
+    /**
+     * Short for CommandHandler.execute(executor, parser.getCommandLine());
      *
      * @param executor The executor that executes the command.
      * @param parser   The already parsed argumetns.
      */
     public void execute(CommandExecutor executor, ArgumentList parser) {
-        this.execute(executor, (String[]) parser.from(0).copy().toArray());
+        this.execute(executor, parser.getCommandLine());
     }
 
     /**
@@ -243,6 +857,35 @@ public class CommandHandler {
         return new ArrayList<>(this.commands.getCommands());
     }
 
+    /**
+     * <p>Builds the handlers of all sub-commands.</p>
+     *
+     * <p>
+     *     The handlers of sub-commands are built when they are needed first. Call this method after the
+     *     commands have been registered to pay this cost when the plugin is enabled.
+     * </p>
+     */
+    public void warmUp() {
+        this.warmUp(Collections.newSetFromMap(new IdentityHashMap<CommandHandler, Boolean>()));
+    }
+
+    /**
+     * Builds the handlers of all sub-commands.
+     * @param visited The handlers that have already been built.
+     */
+    private void warmUp(Set<CommandHandler> visited) {
+        if (!visited.add(this))
+            return;
+
+        for (CommandContainer command : this.commands.getCommands()) {
+            if (command instanceof BranchContainer)
+                ((BranchContainer) command).getSubCommandHandler().warmUp(visited);
+        }
+
+        for (CommandHandler handler : this.subCommandHandler)
+            handler.warmUp(visited);
+    }
+
     //////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 
@@ -282,15 +925,41 @@ public class CommandHandler {
      */
     public void setPermissionHandler(PermissionHandler handler) {
         this.permissionHandler = handler;
+        this.permissionCache.invalidateAll();
     }
 
     /**
-     * Checks if permissions are supported.
+     * Returns the cache for the decisions of the permission-handler.<p />
+     *
+     * Invalidate the decisions of an executor using this cache if its permissions change.
+     *
+     * @return The cache.
+     */
+    public PermissionCache getPermissionCache() {
+        return this.permissionCache;
+    }
+
+    /**
+     * Returns the cache for the routes of raw command lines.<p />
+     *
+     * The cache is disabled until its size is set. See {@link #execute(CommandExecutor, String)}.
+     *
+     * @return The cache.
+     */
+    public LineCache getLineCache() {
+        return this.lineCache;
+    }
+
+    /**
+     * Checks if permissions are supported.<p />
+     *
+     * The backend is only asked once per type of executor.
+     *
      * @return true if so.
      */
     public boolean isPermissionsSupported(CommandExecutor sender) {
         if (sender != null && !(this.getPermissionHandler() instanceof DefaultPermissionHandler)) return true;
-        return (this.getServerBackend().hasPermission(sender, "chandler.testpermission") != null);
+        return this.getServerBackend().supportsPermissions(sender);
     }
 
 
@@ -348,6 +1017,37 @@ public class CommandHandler {
 
     //////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Returns the backend that binds the methods of commands and components.<p />
+     *
+     * Child handlers use the backend of their parent if they have no backend of their own.
+     *
+     * @return The current invocation backend.
+     */
+    public InvocationBackend getInvocationBackend() {
+        if (this.invocation != null)
+            return this.invocation;
+
+        if (this.parent != null)
+            return this.parent.getInvocationBackend();
+
+        return InvocationBackend.REFLECTION;
+    }
+
+    /**
+     * Sets the backend that binds the methods of commands and components.<p />
+     *
+     * The methods are bound when they are registered, so only commands and components registered
+     * afterwards use the new backend.
+     *
+     * @param backend The new backend or {@code null} to use the backend of the parent.
+     */
+    public void setInvocationBackend(InvocationBackend backend) {
+        this.invocation = backend;
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
     /**
      * Registers an subordinate CommandHandler.
      * @param index         The index where the new command-handler should be registered.
@@ -359,6 +1059,7 @@ public class CommandHandler {
         }
 
         this.subCommandHandler.add(index, subHandler);
+        this.getRootCommandHandler().getLineCache().clear();
     }
 
     /**
@@ -367,6 +1068,7 @@ public class CommandHandler {
      */
     private void unregisterCommandHandler(CommandHandler subHandler) {
         this.subCommandHandler.remove(subHandler);
+        this.getRootCommandHandler().getLineCache().clear();
     }
 
     /**
@@ -425,6 +1127,24 @@ public class CommandHandler {
         this.getRootCommandHandler().components.registerComponents(component);
     }
 
+    /**
+     * Adds all extension methods to the command handler if the component has not been registered yet.
+     * @param component The component to add.
+     * @return {@code true} if the component has been registered by this call.
+     */
+    public boolean registerComponentIfAbsent(ComponentContainer component) {
+        return this.getRootCommandHandler().components.registerComponentsIfAbsent(component);
+    }
+
+    /**
+     * Adds all static extension methods to the command handler if the component has not been registered yet.
+     * @param component The class for the container.
+     * @return {@code true} if the component has been registered by this call.
+     */
+    public boolean registerComponentIfAbsent(Class<? extends ComponentContainer> component) {
+        return this.getRootCommandHandler().components.registerComponentsIfAbsent(component);
+    }
+
     /**
      * Checks if the component has been registered.
      * @param component The component.
@@ -434,6 +1154,17 @@ public class CommandHandler {
         return this.getRootCommandHandler().components.isRegistered(component);
     }
 
+    /**
+     * Returns the manager of the components.<p />
+     *
+     * The components are managed by the root command handler.
+     *
+     * @return The component manager.
+     */
+    public ComponentManager getComponentManager() {
+        return this.getRootCommandHandler().components;
+    }
+
     /**
      * Calls a component method.
      * @param name      The name of the method.
@@ -446,6 +1177,19 @@ public class CommandHandler {
         return this.getRootCommandHandler().components.call(name, self, params);
     }
 
+    /**
+     * Calls a component method without waiting for the main thread.
+     * @param name      The name of the method.
+     * @param self      The object that is associated with the object.
+     * @param params    The parameters.
+     * @param <T>       The return type.
+     * @return The future result of the method.
+     * @see ComponentManager#callAsync(String, HandleWrapper, Object...)
+     */
+    public <T> Future<T> callComponentAsync(String name, HandleWrapper self, Object... params) {
+        return this.getRootCommandHandler().components.callAsync(name, self, params);
+    }
+
     /**
      * Checks if the function has already been registered.
      * @param name      The name of the function.
@@ -0,0 +1,24 @@
+package net.stuxcrystal.simpledev.commands;
+
+/**
+ * The result of a line passed to {@link CommandHandler#executeAll(CommandExecutor, Iterable)}.
+ */
+public enum ExecutionResult {
+
+    /**
+     * The command passed all checks and has been executed or scheduled.
+     */
+    ACCEPTED,
+
+    /**
+     * No command has been found for the line.
+     */
+    NOT_FOUND,
+
+    /**
+     * The command has been found but the executor or the arguments have been rejected.
+     * The executor has been told why.
+     */
+    REJECTED
+
+}
@@ -0,0 +1,245 @@
+package net.stuxcrystal.simpledev.commands;
+
+import net.stuxcrystal.simpledev.commands.arguments.ArgumentSplitter;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
+import net.stuxcrystal.simpledev.commands.commands.CommandDescriptor;
+import net.stuxcrystal.simpledev.commands.commands.CommandManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Caches how raw command lines are dispatched.</p>
+ *
+ * <p>
+ *     Command blocks, schedulers and scripts often execute the same line over and over again. For each line the
+ *     cache stores the commands the line has been routed through and its split arguments, so executing the line
+ *     again only checks whether the executor may execute these commands.
+ * </p>
+ *
+ * <p>
+ *     Raw lines are cached by their text. Lines the platform already split into tokens (e.g. commands
+ *     dispatched by the server) are cached by the command name and their tokens.
+ * </p>
+ *
+ * <p>
+ *     The cache is disabled by default. If it is full, the line that has not been executed for the longest time
+ *     is removed. Entries become invalid as soon as any command is registered or unregistered or the
+ *     {@link ArgumentSplitter} changes.
+ * </p>
+ */
+public class LineCache {
+
+    /**
+     * The resolved dispatch of a line. Only routes that do not depend on the executor are cached.
+     */
+    static final class Route {
+
+        /**
+         * The handler that executes the command.
+         */
+        final CommandHandler handler;
+
+        /**
+         * The commands that have been matched, starting with the command named by the first token.
+         */
+        final CommandDescriptor[] commands;
+
+        /**
+         * The arguments of the executed command.
+         */
+        final CommandLine arguments;
+
+        /**
+         * The split arguments or {@code null} if the arguments have not been split.
+         */
+        final CommandLine split;
+
+        /**
+         * The splitter that split the arguments.
+         */
+        final ArgumentSplitter splitter;
+
+        /**
+         * The change count of the command managers when the route has been resolved.
+         * See {@link CommandManager#getChangeCount()}.
+         */
+        final long changes;
+
+        /**
+         * Creates a new route.
+         * @param handler   The handler that executes the command.
+         * @param commands  The commands that have been matched.
+         * @param arguments The arguments of the executed command.
+         * @param split     The split arguments or {@code null} if the arguments have not been split.
+         * @param splitter  The splitter that split the arguments.
+         * @param changes   The change count of the command managers when the route has been resolved.
+         */
+        Route(CommandHandler handler, CommandDescriptor[] commands, CommandLine arguments, CommandLine split, ArgumentSplitter splitter, long changes) {
+            this.handler = handler;
+            this.commands = commands;
+            this.arguments = arguments;
+            this.split = split;
+            this.splitter = splitter;
+            this.changes = changes;
+        }
+
+        /**
+         * Returns the command that is executed.
+         * @return The last matched command.
+         */
+        CommandDescriptor getCommand() {
+            return this.commands[this.commands.length - 1];
+        }
+
+        /**
+         * Checks if the route may still be used.
+         * @param splitter The current splitter of the executor.
+         * @return {@code true} if neither the commands nor the splitter changed.
+         */
+        boolean isValid(ArgumentSplitter splitter) {
+            return this.changes == CommandManager.getChangeCount() && (this.split == null || this.splitter == splitter);
+        }
+    }
+
+    /**
+     * The key of a line that has already been split into tokens.
+     */
+    static final class Tokens {
+
+        /**
+         * The name of the command.
+         */
+        private final String name;
+
+        /**
+         * The arguments of the command.
+         */
+        private final CommandLine arguments;
+
+        /**
+         * The hash code of the name and the tokens.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new key.
+         * @param name      The name of the command.
+         * @param arguments The arguments of the command. Must not be modified afterwards.
+         */
+        Tokens(String name, CommandLine arguments) {
+            this.name = name;
+            this.arguments = arguments;
+
+            int hash = name.hashCode() * 31 + arguments.getFlags().hashCode();
+            for (int i = 0, size = arguments.size(); i < size; i++)
+                hash = hash * 31 + arguments.get(i).hashCode();
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Tokens)) return false;
+
+            Tokens other = (Tokens) o;
+            if (this.hash != other.hash || !this.name.equals(other.name))
+                return false;
+
+            CommandLine a = this.arguments, b = other.arguments;
+            if (a.size() != b.size() || !a.getFlags().equals(b.getFlags()))
+                return false;
+            for (int i = 0, size = a.size(); i < size; i++) {
+                if (!a.get(i).equals(b.get(i)))
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * The routes, ordered by their last access. The keys are raw lines or {@link Tokens}.
+     */
+    private final LinkedHashMap<Object, Route> routes = new LinkedHashMap<Object, Route>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Route> eldest) {
+            return this.size() > LineCache.this.size;
+        }
+    };
+
+    /**
+     * The maximal amount of lines.
+     */
+    private volatile int size = 0;
+
+    /**
+     * Sets the maximal amount of cached lines.
+     * @param size The amount of lines. {@code 0} disables the cache.
+     */
+    public synchronized void setSize(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("The size must not be negative.");
+
+        this.size = size;
+
+        // Shrink the cache.
+        while (this.routes.size() > size) {
+            this.routes.remove(this.routes.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Returns the maximal amount of cached lines.
+     * @return The amount of lines. {@code 0} if the cache is disabled.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Checks if lines are cached at all.
+     * @return {@code true} if the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return this.size > 0;
+    }
+
+    /**
+     * Returns the cached route of the line.
+     * @param line The raw line or its {@link Tokens}.
+     * @return The route or {@code null} if the line has not been cached.
+     */
+    synchronized Route get(Object line) {
+        return this.routes.get(line);
+    }
+
+    /**
+     * Stores the route of the line.
+     * @param line  The raw line or its {@link Tokens}.
+     * @param route The route.
+     */
+    synchronized void put(Object line, Route route) {
+        if (this.size > 0)
+            this.routes.put(line, route);
+    }
+
+    /**
+     * Removes the route of the line.
+     * @param line The raw line or its {@link Tokens}.
+     */
+    synchronized void remove(Object line) {
+        this.routes.remove(line);
+    }
+
+    /**
+     * Removes all lines.
+     */
+    public synchronized void clear() {
+        this.routes.clear();
+    }
+}
@@ -0,0 +1,225 @@
+package net.stuxcrystal.simpledev.commands;
+
+import net.stuxcrystal.simpledev.commands.contrib.DefaultPermissionHandler;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the decisions of the {@link PermissionHandler}.<p />
+ *
+ * The decisions are stored by the handle of the executor and the permission node. Each decision is only valid
+ * for a limited time. Call one of the invalidate-methods if the permissions of an executor change (e.g. if the
+ * operator status changes or the executor leaves the server).<p />
+ *
+ * The handles are only weakly referenced, so the decisions of executors that are never invalidated explicitly
+ * disappear once their handle is collected.
+ */
+public class PermissionCache {
+
+    /**
+     * A cached decision.
+     */
+    private static final class Decision {
+
+        /**
+         * Has the executor the permission?
+         */
+        private final boolean value;
+
+        /**
+         * The time the decision expires in nanoseconds.
+         */
+        private final long expires;
+
+        /**
+         * Creates a new decision.
+         * @param value   The decision.
+         * @param expires The time the decision expires.
+         */
+        private Decision(boolean value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * Weak reference to a handle that compares the handles by identity.
+     */
+    private static final class Key extends WeakReference<Object> {
+
+        /**
+         * The identity hash code of the handle.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new key.
+         * @param handle The handle.
+         * @param queue  The queue notified when the handle has been collected or {@code null} for lookups.
+         */
+        private Key(Object handle, ReferenceQueue<Object> queue) {
+            super(handle, queue);
+            this.hash = System.identityHashCode(handle);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Object handle = this.get();
+            return handle != null && handle == ((Key) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * The command handler whose permission handler is cached.
+     */
+    private final CommandHandler handler;
+
+    /**
+     * The decisions, mapped by the handle of the executor and the node.
+     */
+    private final ConcurrentMap<Key, ConcurrentMap<String, Decision>> decisions = new ConcurrentHashMap<>();
+
+    /**
+     * Contains the keys of collected handles.
+     */
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    /**
+     * The time a decision is valid in nanoseconds.
+     */
+    private volatile long ttl = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * Creates a new cache.
+     * @param handler The command handler whose permission handler is cached.
+     */
+    public PermissionCache(CommandHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Sets the time a decision is valid.
+     * @param ttl  The time. {@code 0} disables the cache.
+     * @param unit The unit of the time.
+     */
+    public void setTimeToLive(long ttl, TimeUnit unit) {
+        this.ttl = unit.toNanos(ttl);
+        this.invalidateAll();
+    }
+
+    /**
+     * Checks if the executor has the permission.
+     * @param executor The executor.
+     * @param node     The permission node.
+     * @return {@code true} if the executor has the permission.
+     */
+    public boolean hasPermission(CommandExecutor<?> executor, String node) {
+        long ttl = this.ttl;
+        Object handle = executor.getHandle();
+
+        ConcurrentMap<String, Decision> nodes = null;
+        if (ttl > 0 && handle != null) {
+            nodes = this.decisions.get(new Key(handle, null));
+            if (nodes != null) {
+                Decision decision = nodes.get(node);
+                if (decision != null) {
+                    if (decision.expires - System.nanoTime() > 0)
+                        return decision.value;
+
+                    // Don't keep expired decisions of nodes that are not checked again.
+                    nodes.remove(node, decision);
+                }
+            }
+        }
+
+        boolean value = this.getPermissionHandler().hasPermission(executor, node);
+
+        if (ttl > 0 && handle != null) {
+            if (nodes == null) {
+                this.expunge();
+                nodes = new ConcurrentHashMap<>();
+                ConcurrentMap<String, Decision> previous = this.decisions.putIfAbsent(new Key(handle, this.queue), nodes);
+                if (previous != null)
+                    nodes = previous;
+            }
+            nodes.put(node, new Decision(value, System.nanoTime() + ttl));
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the permission handler that makes the decisions.
+     * @return The permission handler.
+     */
+    private PermissionHandler getPermissionHandler() {
+        PermissionHandler handler = this.handler.getPermissionHandler();
+        if (handler == null)
+            this.handler.setPermissionHandler(handler = new DefaultPermissionHandler(this.handler));
+        return handler;
+    }
+
+    /**
+     * Removes all decisions of the executor.
+     * @param executor The executor.
+     */
+    public void invalidate(CommandExecutor<?> executor) {
+        this.invalidate((Object) executor.getHandle());
+    }
+
+    /**
+     * Removes all decisions of the executor with the given handle.<p />
+     *
+     * Use this method if the executor is not wrapped (e.g. inside an event listener of the platform).
+     *
+     * @param handle The handle of the executor.
+     */
+    public void invalidate(Object handle) {
+        if (handle != null)
+            this.decisions.remove(new Key(handle, null));
+        this.expunge();
+    }
+
+    /**
+     * Removes the decision of the executor for the node.
+     * @param executor The executor.
+     * @param node     The permission node.
+     */
+    public void invalidate(CommandExecutor<?> executor, String node) {
+        Object handle = executor.getHandle();
+        if (handle == null)
+            return;
+
+        ConcurrentMap<String, Decision> nodes = this.decisions.get(new Key(handle, null));
+        if (nodes != null)
+            nodes.remove(node);
+    }
+
+    /**
+     * Removes all decisions.
+     */
+    public void invalidateAll() {
+        this.decisions.clear();
+    }
+
+    /**
+     * Removes the decisions of collected handles.
+     */
+    private void expunge() {
+        Reference<?> key;
+        while ((key = this.queue.poll()) != null)
+            this.decisions.remove(key);
+    }
+}
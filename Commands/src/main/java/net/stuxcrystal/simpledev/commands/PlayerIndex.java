@@ -0,0 +1,293 @@
+package net.stuxcrystal.simpledev.commands;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>An index over the names of the online players.</p>
+ *
+ * <p>
+ *     The backend adds players when they join and removes them when they leave. Each update publishes a new
+ *     snapshot, which keeps the names sorted twice: once respecting the case and once ignoring it. A name is
+ *     therefore matched using binary searches without wrapping the players or creating lower-case copies of
+ *     their names.
+ * </p>
+ *
+ * @param <P> The type of the players.
+ */
+public class PlayerIndex<P> {
+
+    /**
+     * Sorts ignoring the case. Names equal ignoring the case are sorted respecting the case.
+     */
+    private static final Comparator<String> FOLDED = new Comparator<String>() {
+        @Override
+        public int compare(String o1, String o2) {
+            int result = String.CASE_INSENSITIVE_ORDER.compare(o1, o2);
+            return result != 0 ? result : o1.compareTo(o2);
+        }
+    };
+
+    /**
+     * Immutable snapshot of the index.
+     */
+    private static final class Snapshot {
+
+        /**
+         * The names sorted respecting the case.
+         */
+        private final String[] names;
+
+        /**
+         * The players in the order of {@link #names}.
+         */
+        private final Object[] players;
+
+        /**
+         * The players in alphabetical order.
+         */
+        private final List<Object> values;
+
+        /**
+         * The names sorted ignoring the case.
+         */
+        private final String[] folded;
+
+        /**
+         * The players in the order of {@link #folded}.
+         */
+        private final Object[] foldedPlayers;
+
+        /**
+         * Creates a new snapshot.
+         * @param names         The names sorted respecting the case.
+         * @param players       The players in the order of the names.
+         * @param folded        The names sorted ignoring the case.
+         * @param foldedPlayers The players in the order of the folded names.
+         */
+        private Snapshot(String[] names, Object[] players, String[] folded, Object[] foldedPlayers) {
+            this.names = names;
+            this.players = players;
+            this.values = Collections.unmodifiableList(Arrays.asList(players));
+            this.folded = folded;
+            this.foldedPlayers = foldedPlayers;
+        }
+    }
+
+    /**
+     * The index without any players.
+     */
+    private static final Snapshot EMPTY = new Snapshot(new String[0], new Object[0], new String[0], new Object[0]);
+
+    /**
+     * The current snapshot.
+     */
+    private volatile Snapshot snapshot = PlayerIndex.EMPTY;
+
+    /**
+     * Adds a player. A player with the same name is replaced.
+     * @param name   The name of the player.
+     * @param player The player.
+     */
+    public synchronized void add(String name, P player) {
+        Snapshot current = this.snapshot;
+
+        String[] names = current.names;
+        Object[] players = current.players;
+        String[] folded = current.folded;
+        Object[] foldedPlayers = current.foldedPlayers;
+
+        int index = Arrays.binarySearch(names, name);
+        if (index >= 0) {
+            players = players.clone();
+            players[index] = player;
+            foldedPlayers = foldedPlayers.clone();
+            foldedPlayers[Arrays.binarySearch(folded, name, PlayerIndex.FOLDED)] = player;
+        } else {
+            index = -index - 1;
+            names = PlayerIndex.insert(names, new String[names.length + 1], index, name);
+            players = PlayerIndex.insert(players, new Object[players.length + 1], index, player);
+
+            index = -Arrays.binarySearch(folded, name, PlayerIndex.FOLDED) - 1;
+            folded = PlayerIndex.insert(folded, new String[folded.length + 1], index, name);
+            foldedPlayers = PlayerIndex.insert(foldedPlayers, new Object[foldedPlayers.length + 1], index, player);
+        }
+
+        this.snapshot = new Snapshot(names, players, folded, foldedPlayers);
+    }
+
+    /**
+     * Removes a player.
+     * @param name The name of the player.
+     */
+    public synchronized void remove(String name) {
+        Snapshot current = this.snapshot;
+
+        int index = Arrays.binarySearch(current.names, name);
+        if (index < 0)
+            return;
+
+        int foldedIndex = Arrays.binarySearch(current.folded, name, PlayerIndex.FOLDED);
+        this.snapshot = new Snapshot(
+                PlayerIndex.remove(current.names, new String[current.names.length - 1], index),
+                PlayerIndex.remove(current.players, new Object[current.players.length - 1], index),
+                PlayerIndex.remove(current.folded, new String[current.folded.length - 1], foldedIndex),
+                PlayerIndex.remove(current.foldedPlayers, new Object[current.foldedPlayers.length - 1], foldedIndex)
+        );
+    }
+
+    /**
+     * Removes all players.
+     */
+    public synchronized void clear() {
+        this.snapshot = PlayerIndex.EMPTY;
+    }
+
+    /**
+     * Returns the number of indexed players.
+     * @return The number of players.
+     */
+    public int size() {
+        return this.snapshot.names.length;
+    }
+
+    /**
+     * <p>Returns the indexed players in alphabetical order.</p>
+     * <p>The same list is returned until the index is changed, so it can be used to detect changes.</p>
+     *
+     * @return An immutable list of the players.
+     */
+    @SuppressWarnings("unchecked")
+    public List<P> values() {
+        return (List<P>) (List<?>) this.snapshot.values;
+    }
+
+    /**
+     * Returns the player with exactly the given name.
+     * @param name The name.
+     * @return The player or {@code null} if no player has the name.
+     */
+    @SuppressWarnings("unchecked")
+    public P getExact(String name) {
+        Snapshot snapshot = this.snapshot;
+        int index = Arrays.binarySearch(snapshot.names, name);
+        return index < 0 ? null : (P) snapshot.players[index];
+    }
+
+    /**
+     * <p>Matches a player using the criteria of {@link CommandBackend#getExecutor(String)}.</p>
+     *
+     * <p>
+     *     If several players start with the name, the first one in alphabetical order is returned. Names that
+     *     only contain the given name are searched linearly, as they cannot be found in a sorted index.
+     * </p>
+     *
+     * @param name The name to match.
+     * @return The player or {@code null} if no player matches.
+     */
+    @SuppressWarnings("unchecked")
+    public P match(String name) {
+        Snapshot snapshot = this.snapshot;
+
+        // The exact name and the names starting with the given name respecting the case.
+        int index = Arrays.binarySearch(snapshot.names, name);
+        if (index >= 0)
+            return (P) snapshot.players[index];
+        index = -index - 1;
+        if (index < snapshot.names.length && snapshot.names[index].startsWith(name)) {
+            // The exact name disregarding the case is preferred.
+            P exact = this.getFolded(snapshot, name, true);
+            return exact != null ? exact : (P) snapshot.players[index];
+        }
+
+        // The names starting with the given name disregarding the case.
+        P folded = this.getFolded(snapshot, name, false);
+        if (folded != null)
+            return folded;
+
+        // The names containing the given name.
+        for (int i = 0; i < snapshot.names.length; i++) {
+            if (snapshot.names[i].contains(name))
+                return (P) snapshot.players[i];
+        }
+        for (int i = 0; i < snapshot.names.length; i++) {
+            if (PlayerIndex.containsIgnoreCase(snapshot.names[i], name))
+                return (P) snapshot.players[i];
+        }
+
+        return null;
+    }
+
+    /**
+     * Searches the names ignoring the case.
+     * @param snapshot The snapshot to search.
+     * @param name     The name to match.
+     * @param exact    Only return players whose name equals the given name.
+     * @return The first player starting with (or equal to) the name or {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    private P getFolded(Snapshot snapshot, String name, boolean exact) {
+        // Find the first name that is not smaller ignoring the case.
+        String[] folded = snapshot.folded;
+        int low = 0, high = folded.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(folded[mid], name) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        if (low == folded.length || !folded[low].regionMatches(true, 0, name, 0, name.length()))
+            return null;
+        if (exact && folded[low].length() != name.length())
+            return null;
+        return (P) snapshot.foldedPlayers[low];
+    }
+
+    /**
+     * Checks if the name contains the given part disregarding the case.
+     * @param name The name.
+     * @param part The part.
+     * @return {@code true} if the name contains the part.
+     */
+    private static boolean containsIgnoreCase(String name, String part) {
+        for (int i = 0; i + part.length() <= name.length(); i++) {
+            if (name.regionMatches(true, i, part, 0, part.length()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copies the array and inserts the value.
+     * @param source The array.
+     * @param target The array with one more element.
+     * @param index  The index of the new value.
+     * @param value  The new value.
+     * @param <T>    The type of the elements.
+     * @return The target array.
+     */
+    private static <T> T[] insert(T[] source, T[] target, int index, T value) {
+        System.arraycopy(source, 0, target, 0, index);
+        target[index] = value;
+        System.arraycopy(source, index, target, index + 1, source.length - index);
+        return target;
+    }
+
+    /**
+     * Copies the array without the value at the given index.
+     * @param source The array.
+     * @param target The array with one element less.
+     * @param index  The index of the removed value.
+     * @param <T>    The type of the elements.
+     * @return The target array.
+     */
+    private static <T> T[] remove(T[] source, T[] target, int index) {
+        System.arraycopy(source, 0, target, 0, index);
+        System.arraycopy(source, index + 1, target, index, source.length - index - 1);
+        return target;
+    }
+}
@@ -14,9 +14,29 @@ import java.util.List;
 public class ArgumentHandler {
 
     /**
-     * The registered argument-types.
+     * Marks classes that are not supported by any type.
      */
-    private List<ArgumentType> argumentTypes = new ArrayList<>();
+    private static final ArgumentType UNSUPPORTED = new ArgumentType() {
+        @Override
+        public boolean isTypeSupported(Class<?> cls) {
+            return false;
+        }
+
+        @Override
+        public Object convert(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
+            throw new IllegalArgumentException("Unsupported type");
+        }
+    };
+
+    /**
+     * The registered argument-types. Copied when types are registered.
+     */
+    private volatile List<ArgumentType> argumentTypes = new ArrayList<>();
+
+    /**
+     * The argument-type used for each class. Replaced when argument-types are registered.
+     */
+    private volatile ClassValue<ArgumentType> resolved = this.newCache();
 
     /**
      * The argument-splitter for this handler.
@@ -42,8 +62,40 @@ public class ArgumentHandler {
      * Registers the argument-types for the argument-parser.
      * @param types The new argument-parser.
      */
-    public void registerArgumentTypes(ArgumentType... types) {
-        Collections.addAll(this.argumentTypes, types);
+    public synchronized void registerArgumentTypes(ArgumentType... types) {
+        List<ArgumentType> argumentTypes = new ArrayList<>(this.argumentTypes);
+        Collections.addAll(argumentTypes, types);
+        this.argumentTypes = argumentTypes;
+
+        // The types may support classes that have already been resolved.
+        this.resolved = this.newCache();
+    }
+
+    /**
+     * Creates the cache for the currently registered types.
+     * @return The cache.
+     */
+    private ClassValue<ArgumentType> newCache() {
+        return new ClassValue<ArgumentType>() {
+            @Override
+            protected ArgumentType computeValue(Class<?> cls) {
+                for (ArgumentType type : ArgumentHandler.this.argumentTypes) {
+                    if (type.isTypeSupported(cls))
+                        return type;
+                }
+                return ArgumentHandler.UNSUPPORTED;
+            }
+        };
+    }
+
+    /**
+     * Returns the argument-type that converts the values of the given class.
+     * @param cls The type of the class.
+     * @return The first registered type supporting the class or {@code null} if the class is not supported.
+     */
+    public ArgumentType getArgumentType(Class<?> cls) {
+        ArgumentType type = this.resolved.get(cls);
+        return type == ArgumentHandler.UNSUPPORTED ? null : type;
     }
 
     /**
@@ -52,10 +104,7 @@ public class ArgumentHandler {
      * @return true.
      */
     public boolean supportsType(Class<?> cls) {
-        for (ArgumentType type : argumentTypes) {
-            if (type.isTypeSupported(cls)) return true;
-        }
-        return false;
+        return this.getArgumentType(cls) != null;
     }
 
     /**
@@ -70,12 +119,51 @@ public class ArgumentHandler {
      */
     @SuppressWarnings("unchecked")
     public <T> T convertType(String value, Class<T> type, CommandExecutor executor, CommandBackend handler) {
-        for (ArgumentType aType : argumentTypes) {
-            if (aType.isTypeSupported(type))
-                return (T) aType.convert(value, type, executor, handler);
+        ArgumentType aType = this.getArgumentType(type);
+        if (aType == null)
+            throw new IllegalArgumentException("Unsupported type");
+
+        return (T) aType.convert(value, type, executor, handler);
+    }
+
+    /**
+     * <p>Converts the string to the given type without throwing exceptions.</p>
+     * <p>Types that do not implement {@link ParsingType} are converted using {@link ArgumentType#convert}.</p>
+     *
+     * @param value     The value to convert.
+     * @param type      The type to convert.
+     * @param executor  The executor that is used to convert the value.
+     * @param handler   The handler that is used to convert a value.
+     * @return The converted value or the reason why it could not be converted.
+     */
+    public ParseResult tryConvert(String value, Class<?> type, CommandExecutor executor, CommandBackend handler) {
+        ArgumentType aType = this.getArgumentType(type);
+        if (aType == null)
+            return ParseResult.failure(ParseResult.Reason.UNSUPPORTED_TYPE);
+
+        if (aType instanceof ParsingType)
+            return ((ParsingType) aType).tryParse(value, type, executor, handler);
+
+        Object result;
+        try {
+            result = aType.convert(value, type, executor, handler);
+        } catch (RuntimeException e) {
+            return ParseResult.failure(ParseResult.Reason.MALFORMED);
         }
 
-        throw new IllegalArgumentException("Unsupported type");
+        if (result == null)
+            return ParseResult.failure(ParseResult.Reason.UNKNOWN_VALUE);
+        return ParseResult.success(result);
+    }
+
+    /**
+     * Returns the type that can complete values of the given class.
+     * @param cls The type of the class.
+     * @return The type or {@code null} if no type can complete the values.
+     */
+    public CompletableType getCompletableType(Class<?> cls) {
+        ArgumentType type = this.getArgumentType(cls);
+        return type instanceof CompletableType ? (CompletableType) type : null;
     }
 
     /**
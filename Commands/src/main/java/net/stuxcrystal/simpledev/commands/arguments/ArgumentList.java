@@ -18,8 +18,6 @@ import net.stuxcrystal.simpledev.commands.CommandExecutor;
 import net.stuxcrystal.simpledev.commands.CommandHandler;
 import net.stuxcrystal.simpledev.commands.arguments.iterators.ArgumentContainer;
 import net.stuxcrystal.simpledev.commands.arguments.types.PrimitiveType;
-import org.apache.commons.lang.ArrayUtils;
-import org.apache.commons.lang.StringUtils;
 
 /**
  * Argument Parser for BukkitInstallPlugin
@@ -31,13 +29,18 @@ public class ArgumentList extends ArgumentContainer {
     /**
      * Raw arguments
      */
-    private String[] arguments = new String[0];
+    private CommandLine arguments = CommandLine.EMPTY;
 
     /**
      * Raw flags.
      */
     private String flags = "";
 
+    /**
+     * The bitmask of the flags.
+     */
+    private long flagMask = Flags.NONE;
+
     /**
      * Reference to the Command-Handler.
      */
@@ -56,29 +59,91 @@ public class ArgumentList extends ArgumentContainer {
      * @param args      The arguments specified by the function.
      */
     public ArgumentList(CommandExecutor executor, CommandHandler handler, String[] args) {
+        this(executor, handler, CommandLine.of(args));
+    }
+
+    /**
+     * Initializes the argument parser.
+     *
+     * @param executor  The executor that executes the function.
+     * @param handler   The handler that handles the function.
+     * @param line      The arguments specified by the function.
+     */
+    public ArgumentList(CommandExecutor executor, CommandHandler handler, CommandLine line) {
+        this(executor, handler);
+        parseArgs(line);
+    }
+
+    /**
+     * Initializes the argument parser without arguments.
+     *
+     * @param executor  The executor that executes the function.
+     * @param handler   The handler that handles the function.
+     */
+    private ArgumentList(CommandExecutor executor, CommandHandler handler) {
         super(null);
         this.executor = executor;
         this.handler = handler;
-        parseArgs(args);
     }
 
     /**
-     * Parses the args.
+     * Creates an argument parser for arguments that have already been split.<p />
+     *
+     * The split line can be reused as long as the {@link ArgumentSplitter} of the handler does not change.
      *
-     * @param args The array of arguments to be parsed.
+     * @param executor  The executor that executes the function.
+     * @param handler   The handler that handles the function.
+     * @param split     The arguments as returned by {@link #split(ArgumentSplitter, CommandLine)}.
+     * @return The argument parser.
      */
-    private void parseArgs(String[] args) {
-        String rawArgs = StringUtils.join(args, " ");
+    public static ArgumentList ofSplit(CommandExecutor executor, CommandHandler handler, CommandLine split) {
+        ArgumentList parser = new ArgumentList(executor, handler);
+        parser.setArgs(split);
+        return parser;
+    }
 
-        String[] parsed = this.handler.getArgumentHandler().getArgumentSplitter().split(rawArgs);
+    /**
+     * Splits the arguments.
+     *
+     * @param splitter The splitter of the argument handler.
+     * @param line     The arguments to be split.
+     * @return The split arguments. The flags are stored inside the line.
+     */
+    public static CommandLine split(ArgumentSplitter splitter, CommandLine line) {
+        // Splitters that support command lines don't need to join the arguments.
+        if (splitter instanceof LineSplitter)
+            return ((LineSplitter) splitter).split(line);
 
-        if (parsed.length >= 1) {
-            flags = parsed[0];
-        }
+        String[] parsed = splitter.split(line.join());
 
-        if (parsed.length >= 2) {
-            arguments = (String[]) ArrayUtils.subarray(parsed, 1, parsed.length);
-        }
+        CommandLine arguments = CommandLine.EMPTY;
+        if (parsed.length >= 2)
+            arguments = CommandLine.of(parsed).from(1);
+
+        if (parsed.length >= 1 && !parsed[0].isEmpty())
+            arguments = arguments.withFlags(parsed[0]);
+
+        return arguments;
+    }
+
+    /**
+     * Parses the args.
+     *
+     * @param line The arguments to be parsed.
+     */
+    private void parseArgs(CommandLine line) {
+        this.setArgs(ArgumentList.split(this.handler.getArgumentHandler().getArgumentSplitter(), line));
+    }
+
+    /**
+     * Stores the split arguments.
+     *
+     * @param split The split arguments.
+     */
+    private void setArgs(CommandLine split) {
+        arguments = split;
+        flags = split.getFlags();
+        flagMask = split.getFlagMask();
     }
 
     /**
@@ -88,7 +153,7 @@ public class ArgumentList extends ArgumentContainer {
      * @return true if the flag is present.
      */
     public boolean hasFlag(char c) {
-        return flags.contains(new String(new char[]{c}));
+        return Flags.contains(flagMask, flags, c);
     }
 
     /**
@@ -100,6 +165,15 @@ public class ArgumentList extends ArgumentContainer {
         return flags;
     }
 
+    /**
+     * Returns the bitmask of the flags.
+     *
+     * @return The bitmask of the flags. See {@link Flags}.
+     */
+    public long getFlagMask() {
+        return flagMask;
+    }
+
     /**
      * Returns the size of the arguments array.
      *
@@ -107,7 +181,7 @@ public class ArgumentList extends ArgumentContainer {
      */
     @Override
     public int size() {
-        return this.arguments.length;
+        return this.arguments.size();
     }
 
     /**
@@ -147,12 +221,40 @@ public class ArgumentList extends ArgumentContainer {
         ArgumentHandler handler = this.handler.getArgumentHandler();
 
         // Make sure the handler supports the given type.
-        if (!handler.supportsType(clazz)) {
+        ArgumentType type = handler.getArgumentType(clazz);
+        if (type == null) {
             throw new NumberFormatException("Unsupported type: " + cls);
         }
 
         // Convert and return the specified result.
-        return (T) handler.convertType(arguments[index], clazz, this.executor, this.handler.getServerBackend());
+        return (T) type.convert(arguments.get(index), clazz, this.executor, this.handler.getServerBackend());
+    }
+
+    @Override
+    public ParseResult tryGet(int index, Class<?> cls) {
+        index = this.getRealIndex(index);
+        if (index == -1)
+            return ParseResult.failure(ParseResult.Reason.MISSING);
+
+        Class<?> clazz = cls.isPrimitive() ? PrimitiveType.wrap(cls) : cls;
+        return this.handler.getArgumentHandler().tryConvert(
+                this.arguments.get(index), clazz, this.executor, this.handler.getServerBackend()
+        );
+    }
+
+    @Override
+    protected String getPrimitive(int index, Class<?> type) {
+        int preIndex = index;
+        index = this.getRealIndex(index);
+        if (index == -1)
+            throw new IndexOutOfBoundsException(this.outOfBoundsMsg(preIndex));
+
+        // Only bypass the argument handler if it would use the default type anyway.
+        ArgumentType converter = this.handler.getArgumentHandler().getArgumentType(type);
+        if (converter == null || converter.getClass() != PrimitiveType.class)
+            return null;
+
+        return this.arguments.get(index);
     }
 
     /**
@@ -169,7 +271,7 @@ public class ArgumentList extends ArgumentContainer {
      */
     public String getString(int index) {
         String result = this.get(index, String.class, null);
-        if (result == null) return this.arguments[this.getRealIndex(index)];
+        if (result == null) return this.arguments.get(this.getRealIndex(index));
         return result;
     }
 
@@ -179,7 +281,7 @@ public class ArgumentList extends ArgumentContainer {
      * @return The joined string.
      */
     public String getJoinedString(int beginIndex) {
-        return this.getJoinedString(beginIndex, this.arguments.length);
+        return this.getJoinedString(beginIndex, this.arguments.size());
     }
 
     /**
@@ -200,8 +302,18 @@ public class ArgumentList extends ArgumentContainer {
         if (endIndex < 0)
             throw new IndexOutOfBoundsException(this.outOfBoundsMsg(pEnd));
 
-        String[] arguments = (String[]) ArrayUtils.subarray(this.arguments, beginIndex, endIndex);
-        return StringUtils.join(arguments, " ");
+        return this.arguments.join(beginIndex, endIndex);
+    }
+
+    /**
+     * Returns the arguments as a command line without copying them.<p />
+     *
+     * Use this method to hand the arguments to another CommandHandler.
+     *
+     * @return The command line containing the arguments.
+     */
+    public CommandLine getCommandLine() {
+        return this.arguments;
     }
 
     /**
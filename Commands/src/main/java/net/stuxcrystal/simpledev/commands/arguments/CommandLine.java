@@ -0,0 +1,400 @@
+package net.stuxcrystal.simpledev.commands.arguments;
+
+import java.util.Arrays;
+
+/**
+ * <p>An immutable view on the tokens of a command line.</p>
+ *
+ * <p>
+ *     A command line is either backed by the token array passed by the platform or by a single
+ *     character sequence with start and end offsets for each token. Slicing the line
+ *     (see {@link #from(int)} and {@link #sub(int, int)}) never copies the tokens, the slices share
+ *     the backing data with their parent line.
+ * </p>
+ *
+ * <p>
+ *     Tokens of a line backed by a character sequence are only turned into strings when they are
+ *     actually requested.
+ * </p>
+ */
+public final class CommandLine {
+
+    /**
+     * The empty command line.
+     */
+    public static final CommandLine EMPTY = new CommandLine(null, null, new String[0], 0, 0, "", Flags.NONE, true);
+
+    /**
+     * The character sequence the tokens are taken from. May be {@code null} if the line is backed by tokens.
+     */
+    private final CharSequence source;
+
+    /**
+     * The start (inclusive) and end (exclusive) offset of each token inside the source.
+     */
+    private final int[] bounds;
+
+    /**
+     * The tokens that have already been turned into strings.
+     */
+    private final String[] tokens;
+
+    /**
+     * The index of the first token of this view.
+     */
+    private final int offset;
+
+    /**
+     * The amount of tokens in this view.
+     */
+    private final int size;
+
+    /**
+     * The flags that have been parsed out of the line.
+     */
+    private final String flags;
+
+    /**
+     * The bitmask of the flags. See {@link Flags}.
+     */
+    private final long flagMask;
+
+    /**
+     * Are all tokens exact substrings of the source?
+     */
+    private final boolean verbatim;
+
+    /**
+     * Internal constructor for command lines.
+     * @param source    The character sequence. May be {@code null}.
+     * @param bounds    The offsets of the tokens. Must be {@code null} if the source is {@code null}.
+     * @param tokens    The materialized tokens.
+     * @param offset    The first token of the view.
+     * @param size      The size of the view.
+     * @param flags     The flags of the line.
+     * @param flagMask  The bitmask of the flags.
+     * @param verbatim  Are all tokens exact substrings of the source?
+     */
+    private CommandLine(CharSequence source, int[] bounds, String[] tokens, int offset, int size, String flags, long flagMask, boolean verbatim) {
+        this.source = source;
+        this.bounds = bounds;
+        this.tokens = tokens;
+        this.offset = offset;
+        this.size = size;
+        this.flags = flags;
+        this.flagMask = flagMask;
+        this.verbatim = verbatim;
+    }
+
+    /**
+     * <p>Wraps the given tokens.</p>
+     * <p>The array is not copied and must not be modified afterwards.</p>
+     *
+     * @param tokens The tokens of the command line.
+     * @return A command line backed by the given tokens.
+     */
+    public static CommandLine of(String... tokens) {
+        if (tokens.length == 0)
+            return CommandLine.EMPTY;
+        return new CommandLine(null, null, tokens, 0, tokens.length, "", Flags.NONE, true);
+    }
+
+    /**
+     * <p>Creates a command line backed by a character sequence.</p>
+     * <p>
+     *     The bounds contain the start (inclusive) and end (exclusive) offset of each token.
+     *     Tokens that are not exact substrings of the source (e.g. because they contained escape
+     *     sequences) can be passed as already materialized tokens.
+     * </p>
+     *
+     * @param source    The character sequence.
+     * @param bounds    The start and end offsets of the tokens. Not copied.
+     * @param tokens    The already materialized tokens. Must have a size of {@code count}. Not copied.
+     * @param count     The amount of tokens.
+     * @param flags     The flags that were found.
+     * @param verbatim  {@code false} if any token of the line has been passed materialized because it isn't
+     *                  an exact substring of the source.
+     * @return A new command line.
+     */
+    public static CommandLine of(CharSequence source, int[] bounds, String[] tokens, int count, String flags, boolean verbatim) {
+        return CommandLine.of(source, bounds, tokens, count, flags, Flags.mask(flags), verbatim);
+    }
+
+    /**
+     * <p>Creates a command line backed by a character sequence.</p>
+     * <p>Used by splitters that already computed the bitmask of the flags.</p>
+     *
+     * @param source    The character sequence.
+     * @param bounds    The start and end offsets of the tokens. Not copied.
+     * @param tokens    The already materialized tokens. Must have a size of {@code count}. Not copied.
+     * @param count     The amount of tokens.
+     * @param flags     The flags that were found.
+     * @param flagMask  The bitmask of the flags. See {@link Flags}.
+     * @param verbatim  {@code false} if any token of the line has been passed materialized because it isn't
+     *                  an exact substring of the source.
+     * @return A new command line.
+     */
+    public static CommandLine of(CharSequence source, int[] bounds, String[] tokens, int count, String flags, long flagMask, boolean verbatim) {
+        return new CommandLine(source, bounds, tokens, 0, count, flags, flagMask, verbatim);
+    }
+
+    /**
+     * <p>Splits a raw command line at its spaces.</p>
+     * <p>Empty tokens are ignored.</p>
+     *
+     * @param raw The raw command line.
+     * @return The command line.
+     */
+    public static CommandLine parse(CharSequence raw) {
+        int length = raw.length();
+
+        // Count the tokens first so we only allocate once.
+        int count = 0;
+        boolean inToken = false;
+        for (int i = 0; i < length; i++) {
+            boolean space = raw.charAt(i) == ' ';
+            if (!space && !inToken)
+                count++;
+            inToken = !space;
+        }
+
+        if (count == 0)
+            return CommandLine.EMPTY;
+
+        int[] bounds = new int[count * 2];
+        int current = 0;
+        inToken = false;
+        for (int i = 0; i < length; i++) {
+            boolean space = raw.charAt(i) == ' ';
+            if (!space && !inToken) {
+                bounds[current * 2] = i;
+            } else if (space && inToken) {
+                bounds[current++ * 2 + 1] = i;
+            }
+            inToken = !space;
+        }
+        if (inToken)
+            bounds[current * 2 + 1] = length;
+
+        return new CommandLine(raw, bounds, new String[count], 0, count, "", Flags.NONE, true);
+    }
+
+    /**
+     * Returns the amount of tokens in this command line.
+     * @return The amount of tokens in this command line.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks if the command line contains no tokens.
+     * @return {@code true} if so.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the flags that were parsed out of the line.
+     * @return The flags. An empty string if there are no flags.
+     */
+    public String getFlags() {
+        return this.flags;
+    }
+
+    /**
+     * Returns the bitmask of the flags.
+     * @return The bitmask of the flags. See {@link Flags}.
+     */
+    public long getFlagMask() {
+        return this.flagMask;
+    }
+
+    /**
+     * Returns the backing character sequence.
+     * @return The backing character sequence or {@code null} if the line is backed by tokens.
+     */
+    public CharSequence getSource() {
+        return this.source;
+    }
+
+    /**
+     * Returns the start offset of the token inside the source.
+     * @param index The index of the token.
+     * @return The start offset or {@code -1} if the line is backed by tokens.
+     */
+    public int getStart(int index) {
+        this.checkIndex(index);
+        if (this.bounds == null)
+            return -1;
+        return this.bounds[(this.offset + index) * 2];
+    }
+
+    /**
+     * Returns the end offset of the token inside the source.
+     * @param index The index of the token.
+     * @return The end offset (exclusive) or {@code -1} if the line is backed by tokens.
+     */
+    public int getEnd(int index) {
+        this.checkIndex(index);
+        if (this.bounds == null)
+            return -1;
+        return this.bounds[(this.offset + index) * 2 + 1];
+    }
+
+    /**
+     * Returns the token at the given index.
+     * @param index The index of the token.
+     * @return The token.
+     * @throws IndexOutOfBoundsException If the index is invalid.
+     */
+    public String get(int index) {
+        this.checkIndex(index);
+
+        int real = this.offset + index;
+        String token = this.tokens[real];
+        if (token == null) {
+            // Concurrent materialization is harmless as strings are immutable.
+            token = this.source.subSequence(this.bounds[real * 2], this.bounds[real * 2 + 1]).toString();
+            this.tokens[real] = token;
+        }
+        return token;
+    }
+
+    /**
+     * Returns all tokens starting from the given token.
+     * @param start The first token of the new view (inclusive).
+     * @return A view on the tokens.
+     */
+    public CommandLine from(int start) {
+        return this.sub(start, this.size);
+    }
+
+    /**
+     * Returns a view on the tokens between the given indexes.
+     * @param start The first token (inclusive).
+     * @param stop  The last token (exclusive).
+     * @return A view on the tokens.
+     */
+    public CommandLine sub(int start, int stop) {
+        if (start < 0 || stop > this.size || start > stop)
+            throw new IndexOutOfBoundsException("Start: " + start + ", Stop: " + stop + ", Size: " + this.size);
+
+        if (start == 0 && stop == this.size)
+            return this;
+
+        return new CommandLine(
+                this.source, this.bounds, this.tokens, this.offset + start, stop - start, this.flags, this.flagMask, this.verbatim
+        );
+    }
+
+    /**
+     * Returns a copy of this line with the given flags.
+     * @param flags The new flags.
+     * @return A command line sharing the tokens with this line.
+     */
+    public CommandLine withFlags(String flags) {
+        return this.withFlags(flags, Flags.mask(flags));
+    }
+
+    /**
+     * Returns a copy of this line with the given flags.
+     * @param flags     The new flags.
+     * @param flagMask  The bitmask of the new flags.
+     * @return A command line sharing the tokens with this line.
+     */
+    public CommandLine withFlags(String flags, long flagMask) {
+        return new CommandLine(this.source, this.bounds, this.tokens, this.offset, this.size, flags, flagMask, this.verbatim);
+    }
+
+    /**
+     * Joins the tokens using a space.
+     * @return The joined string.
+     */
+    public String join() {
+        return this.join(0, this.size);
+    }
+
+    /**
+     * <p>Joins the tokens between the given indexes using a space.</p>
+     * <p>
+     *     If the tokens are separated by exactly one space inside the source, the substring of the source is
+     *     returned without joining the tokens.
+     * </p>
+     *
+     * @param start The first token (inclusive).
+     * @param stop  The last token (exclusive).
+     * @return The joined string.
+     */
+    public String join(int start, int stop) {
+        if (start < 0 || stop > this.size || start > stop)
+            throw new IndexOutOfBoundsException("Start: " + start + ", Stop: " + stop + ", Size: " + this.size);
+
+        if (start == stop)
+            return "";
+
+        if (stop - start == 1)
+            return this.get(start);
+
+        if (this.isContiguous(start, stop)) {
+            return this.source.subSequence(
+                    this.bounds[(this.offset + start) * 2], this.bounds[(this.offset + stop - 1) * 2 + 1]
+            ).toString();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = start; i < stop; i++) {
+            if (i != start)
+                sb.append(' ');
+            sb.append(this.get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks if the tokens are separated by exactly one space inside the source.
+     * @param start The first token (inclusive).
+     * @param stop  The last token (exclusive).
+     * @return {@code true} if the substring of the source equals the joined tokens.
+     */
+    private boolean isContiguous(int start, int stop) {
+        if (this.source == null || !this.verbatim)
+            return false;
+
+        for (int i = this.offset + start + 1; i < this.offset + stop; i++) {
+            int previousEnd = this.bounds[i * 2 - 1];
+            int currentStart = this.bounds[i * 2];
+            if (currentStart - previousEnd != 1 || this.source.charAt(previousEnd) != ' ')
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * <p>Copies the tokens into a new array.</p>
+     * <p>Only used to support APIs that need arrays.</p>
+     *
+     * @return A new array containing the tokens.
+     */
+    public String[] toArray() {
+        String[] result = new String[this.size];
+        for (int i = 0; i < this.size; i++)
+            result[i] = this.get(i);
+        return result;
+    }
+
+    /**
+     * Makes sure the index is valid.
+     * @param index The index to check.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+
+    @Override
+    public String toString() {
+        return "CommandLine" + Arrays.toString(this.toArray());
+    }
+}
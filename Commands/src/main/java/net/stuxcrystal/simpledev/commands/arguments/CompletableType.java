@@ -0,0 +1,29 @@
+package net.stuxcrystal.simpledev.commands.arguments;
+
+import net.stuxcrystal.simpledev.commands.CommandBackend;
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+
+import java.util.List;
+
+/**
+ * <p>An argument type that can complete the values of its arguments.</p>
+ *
+ * <p>
+ *     The completions may be computed outside of the main thread and are cached by their prefix. The
+ *     values returned for a prefix must therefore be exactly the values that start with the prefix
+ *     (ignoring the case).
+ * </p>
+ */
+public interface CompletableType extends ArgumentType {
+
+    /**
+     * Returns all values starting with the prefix.
+     * @param prefix     The part of the value that has already been typed. The case should be ignored.
+     * @param toClass    The class the value would be converted to.
+     * @param executor   The executor who requested the completions.
+     * @param backend    The backend that executed the command.
+     * @return The values starting with the prefix.
+     */
+    public List<String> complete(String prefix, Class<?> toClass, CommandExecutor executor, CommandBackend backend);
+
+}
@@ -0,0 +1,95 @@
+package net.stuxcrystal.simpledev.commands.arguments;
+
+/**
+ * <p>Utility methods for flag bitmasks.</p>
+ *
+ * <p>
+ *     Letters and digits are mapped onto their own bit of a {@code long}: {@code a-z} use the bits 0 to 25,
+ *     {@code A-Z} use the bits 26 to 51 and {@code 0-9} use the bits 52 to 61. All other characters share
+ *     the bit {@link #OTHER}. If this bit is set the flag string has to be checked to get an exact result.
+ * </p>
+ */
+public final class Flags {
+
+    /**
+     * The bit used for all characters that have no bit of their own.
+     */
+    public static final long OTHER = 1L << 63;
+
+    /**
+     * The mask without any flags.
+     */
+    public static final long NONE = 0L;
+
+    /**
+     * Utility class.
+     */
+    private Flags() {}
+
+    /**
+     * Returns the bit of the given flag.
+     * @param c The flag.
+     * @return The bit of the flag or {@link #OTHER} if the character has no bit of its own.
+     */
+    public static long bit(char c) {
+        if (c >= 'a' && c <= 'z')
+            return 1L << (c - 'a');
+        if (c >= 'A' && c <= 'Z')
+            return 1L << (c - 'A' + 26);
+        if (c >= '0' && c <= '9')
+            return 1L << (c - '0' + 52);
+        return OTHER;
+    }
+
+    /**
+     * Computes the mask of all flags in the sequence.
+     * @param flags The flags.
+     * @return The mask.
+     */
+    public static long mask(CharSequence flags) {
+        long mask = NONE;
+        for (int i = 0, length = flags.length(); i < length; i++)
+            mask |= Flags.bit(flags.charAt(i));
+        return mask;
+    }
+
+    /**
+     * Checks if the flag is set.
+     * @param mask  The mask of the flags.
+     * @param flags The flags. Only checked if the flag has no bit of its own.
+     * @param c     The flag to look for.
+     * @return {@code true} if the flag is set.
+     */
+    public static boolean contains(long mask, String flags, char c) {
+        long bit = Flags.bit(c);
+        if (bit != OTHER)
+            return (mask & bit) != 0;
+
+        // Only characters without a bit of their own need the string.
+        return (mask & OTHER) != 0 && flags.indexOf(c) != -1;
+    }
+
+    /**
+     * Checks if all given flags are supported.
+     * @param supportedMask The mask of the supported flags.
+     * @param supported     The supported flags. Only checked if a flag has no bit of its own.
+     * @param mask          The mask of the given flags.
+     * @param flags         The given flags. Only checked if a flag has no bit of its own.
+     * @return {@code true} if all flags are supported.
+     */
+    public static boolean containsAll(long supportedMask, String supported, long mask, String flags) {
+        if ((mask & ~supportedMask) != 0)
+            return false;
+
+        if ((mask & OTHER) == 0)
+            return true;
+
+        // Check the characters without a bit of their own.
+        for (int i = 0, length = flags.length(); i < length; i++) {
+            char c = flags.charAt(i);
+            if (Flags.bit(c) == OTHER && supported.indexOf(c) == -1)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package net.stuxcrystal.simpledev.commands.arguments;
+
+/**
+ * <p>Splits arguments without joining the command line into a single string first.</p>
+ *
+ * <p>
+ *     Splitters implementing this interface are used by {@link ArgumentList} instead of
+ *     {@link ArgumentSplitter#split(String)}.
+ * </p>
+ */
+public interface LineSplitter extends ArgumentSplitter {
+
+    /**
+     * <p>Splits the arguments.</p>
+     *
+     * <p>The flags are returned using {@link CommandLine#getFlags()} of the resulting line.</p>
+     *
+     * @param line The command line passed to the command.
+     * @return The actual arguments.
+     */
+    public CommandLine split(CommandLine line);
+
+}
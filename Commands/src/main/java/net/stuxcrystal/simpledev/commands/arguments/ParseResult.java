@@ -0,0 +1,134 @@
+package net.stuxcrystal.simpledev.commands.arguments;
+
+/**
+ * <p>The result of converting an argument without throwing an exception.</p>
+ *
+ * <p>
+ *     Failures do not carry a stack trace or a message. They are shared instances, so a malformed argument
+ *     does not allocate anything.
+ * </p>
+ */
+public final class ParseResult {
+
+    /**
+     * Why the argument could not be converted.
+     */
+    public static enum Reason {
+
+        /**
+         * There is no argument at the given index.
+         */
+        MISSING,
+
+        /**
+         * No argument type supports the requested class.
+         */
+        UNSUPPORTED_TYPE,
+
+        /**
+         * The argument does not have the format of the requested type.
+         */
+        MALFORMED,
+
+        /**
+         * The argument is a number that does not fit into the requested type.
+         */
+        OUT_OF_RANGE,
+
+        /**
+         * The argument is well-formed but does not name an existing value (e.g. an unknown player).
+         */
+        UNKNOWN_VALUE
+
+    }
+
+    /**
+     * The shared failures, indexed by the ordinal of their reason.
+     */
+    private static final ParseResult[] FAILURES;
+
+    static {
+        Reason[] reasons = Reason.values();
+        FAILURES = new ParseResult[reasons.length];
+        for (Reason reason : reasons)
+            FAILURES[reason.ordinal()] = new ParseResult(null, reason);
+    }
+
+    /**
+     * The converted value.
+     */
+    private final Object value;
+
+    /**
+     * The reason of the failure or {@code null} if the conversion succeeded.
+     */
+    private final Reason reason;
+
+    /**
+     * Creates a new result.
+     * @param value  The converted value.
+     * @param reason The reason of the failure or {@code null} if the conversion succeeded.
+     */
+    private ParseResult(Object value, Reason reason) {
+        this.value = value;
+        this.reason = reason;
+    }
+
+    /**
+     * Creates a successful result.
+     * @param value The converted value.
+     * @return The result.
+     */
+    public static ParseResult success(Object value) {
+        return new ParseResult(value, null);
+    }
+
+    /**
+     * Returns the failed result.
+     * @param reason Why the argument could not be converted.
+     * @return The result.
+     */
+    public static ParseResult failure(Reason reason) {
+        return ParseResult.FAILURES[reason.ordinal()];
+    }
+
+    /**
+     * Checks if the argument has been converted.
+     * @return {@code true} if the conversion succeeded.
+     */
+    public boolean isSuccess() {
+        return this.reason == null;
+    }
+
+    /**
+     * Returns the converted value.
+     * @return The value or {@code null} if the conversion failed.
+     */
+    public Object getValue() {
+        return this.value;
+    }
+
+    /**
+     * Returns the converted value or the given default value if the conversion failed.
+     * @param def The default value.
+     * @param <T> The type of the value.
+     * @return The converted value or the default value.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(T def) {
+        return this.reason == null ? (T) this.value : def;
+    }
+
+    /**
+     * Returns why the argument could not be converted.
+     * @return The reason or {@code null} if the conversion succeeded.
+     */
+    public Reason getReason() {
+        return this.reason;
+    }
+
+    @Override
+    public String toString() {
+        return this.reason == null ? "ParseResult[" + this.value + "]" : "ParseResult[" + this.reason + "]";
+    }
+}
@@ -0,0 +1,27 @@
+package net.stuxcrystal.simpledev.commands.arguments;
+
+import net.stuxcrystal.simpledev.commands.CommandBackend;
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+
+/**
+ * <p>An argument type that can convert its values without throwing exceptions.</p>
+ *
+ * <p>
+ *     Default values and optional arguments are converted using {@link #tryParse}, so malformed input does
+ *     not cost an exception. Types that do not implement this interface are converted using
+ *     {@link #convert} and their exceptions are caught.
+ * </p>
+ */
+public interface ParsingType extends ArgumentType {
+
+    /**
+     * Converts a value into the given type. Must neither throw an exception nor log malformed values.
+     * @param value      The argument passed as a string.
+     * @param toClass    The class the value should be converted to.
+     * @param executor   The executor who passed the argument.
+     * @param backend    The backend that executed the command.
+     * @return The converted value or the reason why it could not be converted.
+     */
+    public ParseResult tryParse(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend);
+
+}
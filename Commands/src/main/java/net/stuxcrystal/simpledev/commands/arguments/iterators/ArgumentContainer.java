@@ -1,5 +1,8 @@
 package net.stuxcrystal.simpledev.commands.arguments.iterators;
 
+import net.stuxcrystal.simpledev.commands.arguments.ParseResult;
+import net.stuxcrystal.simpledev.commands.arguments.types.PrimitiveType;
+
 import java.util.*;
 
 /**
@@ -58,11 +61,52 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @return The converted argument.
      */
     public <T> T get(int index, Class<T> cls, T def) {
+        return this.tryGet(index, cls).getValue(def);
+    }
+
+    /**
+     * <p>Converts the argument at the given index without throwing exceptions.</p>
+     *
+     * <p>
+     *     The index argument has some additional features: If the index is greater or equals 0 the default
+     *     Java&trade;-Indexing of Arrays. If the index is under zero, the index is counted from
+     *     the last item on.
+     * </p>
+     *
+     * @param index The index of the argument.
+     * @param cls   The class of the argument.
+     * @return The converted argument or the reason why it could not be converted.
+     */
+    public ParseResult tryGet(int index, Class<?> cls) {
+        Object result;
         try {
-            return this.get(index, cls);
-        } catch (NumberFormatException | IndexOutOfBoundsException nfe) {
-            return def;
+            result = this.get(index, cls);
+        } catch (IndexOutOfBoundsException e) {
+            return ParseResult.failure(ParseResult.Reason.MISSING);
+        } catch (NumberFormatException e) {
+            return ParseResult.failure(ParseResult.Reason.MALFORMED);
         }
+
+        if (result == null)
+            return ParseResult.failure(ParseResult.Reason.UNKNOWN_VALUE);
+        return ParseResult.success(result);
+    }
+
+    /**
+     * <p>Returns the raw argument if it can be parsed as a primitive directly.</p>
+     *
+     * <p>
+     *     This is the case if the primitive type is converted by the default {@link PrimitiveType}. The getters
+     *     for primitives then parse the argument without boxing it.
+     * </p>
+     *
+     * @param index The index of the argument.
+     * @param type  The primitive type.
+     * @return The raw argument or {@code null} if the argument has to be converted using {@link #get(int, Class)}.
+     * @throws ArrayIndexOutOfBoundsException If the index is invalid.
+     */
+    protected String getPrimitive(int index, Class<?> type) {
+        return null;
     }
 
     /**
@@ -79,6 +123,15 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
     }
 
 
+    /**
+     * Returns all arguments of this container as strings.
+     * @return All arguments as raw strings.
+     */
+    @Override
+    public List<String> copy() {
+        return this.getArguments(String.class);
+    }
+
     /**
      * Returns an iterable that returns the object in the given type.
      * @param cls The type of the values.
@@ -169,7 +222,10 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @throws ArrayIndexOutOfBoundsException If the index is invalid.
      */
     public int getInt(int index) {
-        return this.get(index, int.class);
+        String value = this.getPrimitive(index, int.class);
+        if (value == null)
+            return this.get(index, int.class);
+        return Integer.parseInt(value);
     }
 
     /**
@@ -208,7 +264,10 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @throws ArrayIndexOutOfBoundsException If the index is invalid.
      */
     public float getFloat(int index) {
-        return this.get(index, float.class);
+        String value = this.getPrimitive(index, float.class);
+        if (value == null)
+            return this.get(index, float.class);
+        return Float.parseFloat(value);
     }
 
     /**
@@ -247,7 +306,10 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @throws ArrayIndexOutOfBoundsException If the index is invalid.
      */
     public double getDouble(int index) {
-        return this.get(index, double.class);
+        String value = this.getPrimitive(index, double.class);
+        if (value == null)
+            return this.get(index, double.class);
+        return Double.parseDouble(value);
     }
 
     /**
@@ -286,7 +348,10 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @throws ArrayIndexOutOfBoundsException If the index is invalid.
      */
     public boolean getBoolean(int index) {
-        return this.get(index, boolean.class);
+        String value = this.getPrimitive(index, boolean.class);
+        if (value == null)
+            return this.get(index, boolean.class);
+        return Boolean.parseBoolean(value);
     }
 
     /**
@@ -325,7 +390,10 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @throws ArrayIndexOutOfBoundsException If the index is invalid.
      */
     public char getChar(int index) {
-        return this.get(index, char.class);
+        String value = this.getPrimitive(index, char.class);
+        if (value == null)
+            return this.get(index, char.class);
+        return value.charAt(0);
     }
 
     /**
@@ -364,7 +432,10 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @throws ArrayIndexOutOfBoundsException If the index is invalid.
      */
     public long getLong(int index) {
-        return this.get(index, long.class);
+        String value = this.getPrimitive(index, long.class);
+        if (value == null)
+            return this.get(index, long.class);
+        return Long.parseLong(value);
     }
 
     /**
@@ -403,7 +474,10 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @throws ArrayIndexOutOfBoundsException If the index is invalid.
      */
     public short getShort(int index) {
-        return this.get(index, short.class);
+        String value = this.getPrimitive(index, short.class);
+        if (value == null)
+            return this.get(index, short.class);
+        return Short.parseShort(value);
     }
 
     /**
@@ -442,7 +516,10 @@ public abstract class ArgumentContainer extends ArgumentIterable<String> {
      * @throws ArrayIndexOutOfBoundsException If the index is invalid.
      */
     public byte getByte(int index) {
-        return this.get(index, byte.class);
+        String value = this.getPrimitive(index, byte.class);
+        if (value == null)
+            return this.get(index, byte.class);
+        return Byte.parseByte(value);
     }
 
     /**
@@ -1,5 +1,7 @@
 package net.stuxcrystal.simpledev.commands.arguments.iterators;
 
+import net.stuxcrystal.simpledev.commands.arguments.ParseResult;
+
 /**
  * Returns the iterable at the given item.
  */
@@ -138,4 +140,20 @@ class SliceIterable extends ArgumentContainer {
             throw new IndexOutOfBoundsException(this.outOfBoundsMsg(index));
         return this.getParent().get(this.slice.start + rindex * this.slice.step, cls);
     }
+
+    @Override
+    public ParseResult tryGet(int index, Class<?> cls) {
+        int rindex = this.getRealIndex(index);
+        if (rindex == -1)
+            return ParseResult.failure(ParseResult.Reason.MISSING);
+        return this.getParent().tryGet(this.slice.start + rindex * this.slice.step, cls);
+    }
+
+    @Override
+    protected String getPrimitive(int index, Class<?> type) {
+        int rindex = this.getRealIndex(index);
+        if (rindex == -1)
+            throw new IndexOutOfBoundsException(this.outOfBoundsMsg(index));
+        return this.getParent().getPrimitive(this.slice.start + rindex * this.slice.step, type);
+    }
 }
@@ -1,11 +1,12 @@
 package net.stuxcrystal.simpledev.commands.arguments.splitter;
 
-import net.stuxcrystal.simpledev.commands.arguments.ArgumentSplitter;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
+import net.stuxcrystal.simpledev.commands.arguments.LineSplitter;
 
 /**
  * Completely disable splitting.
  */
-public class NoSplit implements ArgumentSplitter {
+public class NoSplit implements LineSplitter {
 
     /**
      * Doesn't split the arguments.
@@ -18,4 +19,17 @@ public class NoSplit implements ArgumentSplitter {
     public String[] split(String args) {
         return new String[]{"", args};
     }
+
+    /**
+     * Doesn't split the arguments.
+     *
+     * @param line The command line passed to the command.
+     * @return A command line with a single token containing the whole line.
+     */
+    @Override
+    public CommandLine split(CommandLine line) {
+        if (line.size() == 1)
+            return line.withFlags("");
+        return CommandLine.of(line.join());
+    }
 }
@@ -1,15 +1,20 @@
 package net.stuxcrystal.simpledev.commands.arguments.splitter;
 
-import net.stuxcrystal.simpledev.commands.arguments.ArgumentSplitter;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
+import net.stuxcrystal.simpledev.commands.arguments.LineSplitter;
 import org.apache.commons.lang.ArrayUtils;
 
 /**
  * Like the default splitting on bukkit.
  */
-public class SimpleSplit implements ArgumentSplitter {
+public class SimpleSplit implements LineSplitter {
 
     @Override
     public String[] split(String rawArgs) {
+        // An empty string does not contain any arguments.
+        if (rawArgs.isEmpty())
+            return new String[]{""};
+
         String[] args = rawArgs.split(" ");
         String[] arguments;
         String flags;
@@ -27,4 +32,32 @@ public class SimpleSplit implements ArgumentSplitter {
 
         return (String[]) ArrayUtils.add(arguments, 0, flags);
     }
+
+    /**
+     * <p>Splits the line at its spaces.</p>
+     * <p>
+     *     The tokens passed by the platform are already split at the spaces and will be reused as they are.
+     *     If the first token starts with a dash, it contains the flags.
+     * </p>
+     *
+     * @param line The command line passed to the command.
+     * @return The actual arguments.
+     */
+    @Override
+    public CommandLine split(CommandLine line) {
+        if (line.getSource() == null) {
+            for (int i = 0; i < line.size(); i++) {
+                // Tokens passed by the API may contain spaces.
+                if (line.get(i).indexOf(' ') != -1) {
+                    line = CommandLine.parse(line.join());
+                    break;
+                }
+            }
+        }
+
+        if (line.isEmpty() || !line.get(0).startsWith("-"))
+            return line.withFlags("");
+
+        return line.from(1).withFlags(line.get(0).substring(1));
+    }
 }
@@ -0,0 +1,306 @@
+package net.stuxcrystal.simpledev.commands.arguments.splitter;
+
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
+import net.stuxcrystal.simpledev.commands.arguments.Flags;
+import net.stuxcrystal.simpledev.commands.arguments.LineSplitter;
+
+import java.util.Arrays;
+
+/**
+ * Splits the arguments while maintaining quotes.<p />
+ *
+ * The splitter walks over the command line exactly once using a state table. It only records the start and end
+ * offset of each argument inside the raw string, the arguments themselves are created when they are requested.
+ * Only arguments containing escape sequences are created while splitting.<p />
+ *
+ * Special characters:
+ * <ul>
+ *     <li>{@code ' '} - Denotes a new argument.</li>
+ *     <li>
+ *         {@code '"'} or {@code "'"} - Quotes strings, no blank space starts a new argument.
+ *         (Automatically escapes the other quote character inside it.) Each quoted string is an argument of
+ *         its own, even if it is empty.
+ *     </li>
+ *     <li>{@code '\'} - Escapes the next character, it will be added without executing its special function.</li>
+ *     <li>{@code '-'} - Denotes a flag if a new argument is started. (Only works until the first actual argument is being parsed.)</li>
+ * </ul>
+ *
+ * {@code /&lt;command&gt; -fc0 -l -gf0 --c "ab c d e"ef\ g \"cc0} will be splitted to this:<br />
+ * Flags: {@code fc0lg-}<br />
+ * Arguments: {@code ['ab c d e', 'ef g', '"cc0']}
+ */
+public class SpanSplit implements LineSplitter {
+
+    // Character classes.
+    private static final int C_OTHER = 0;
+    private static final int C_SPACE = 1;
+    private static final int C_DOUBLE = 2;
+    private static final int C_SINGLE = 3;
+    private static final int C_ESCAPE = 4;
+    private static final int C_DASH = 5;
+
+    // States.
+    private static final int S_FLAG_GAP = 0;
+    private static final int S_GAP = 1;
+    private static final int S_FLAG = 2;
+    private static final int S_FLAG_ESCAPE = 3;
+    private static final int S_WORD = 4;
+    private static final int S_WORD_ESCAPE = 5;
+    private static final int S_DOUBLE = 6;
+    private static final int S_DOUBLE_ESCAPE = 7;
+    private static final int S_SINGLE = 8;
+    private static final int S_SINGLE_ESCAPE = 9;
+
+    // Actions. Executed in this order.
+    private static final int A_END = 1 << 8;
+    private static final int A_BEGIN = 1 << 9;
+    private static final int A_BEGIN_NEXT = 1 << 10;
+    private static final int A_ESCAPED = 1 << 11;
+    private static final int A_FLAG = 1 << 12;
+
+    /**
+     * Masks the next state out of a transition.
+     */
+    private static final int STATE_MASK = 0xFF;
+
+    /**
+     * The character class of each ASCII character. All other characters are {@link #C_OTHER}.
+     */
+    private static final byte[] CLASSES = new byte[128];
+
+    /**
+     * The transition table. Indexed by {@code state * 6 + class}.<p />
+     *
+     * Each entry contains the next state in the lower bits and the actions to execute in the upper bits.
+     */
+    private static final int[] TRANSITIONS = new int[10 * 6];
+
+    static {
+        CLASSES[' '] = C_SPACE;
+        CLASSES['"'] = C_DOUBLE;
+        CLASSES['\''] = C_SINGLE;
+        CLASSES['\\'] = C_ESCAPE;
+        CLASSES['-'] = C_DASH;
+
+        // Between arguments, flags allowed.
+        transition(S_FLAG_GAP, C_OTHER, S_WORD | A_BEGIN);
+        transition(S_FLAG_GAP, C_SPACE, S_FLAG_GAP);
+        transition(S_FLAG_GAP, C_DOUBLE, S_DOUBLE | A_BEGIN_NEXT);
+        transition(S_FLAG_GAP, C_SINGLE, S_SINGLE | A_BEGIN_NEXT);
+        transition(S_FLAG_GAP, C_ESCAPE, S_WORD_ESCAPE | A_BEGIN | A_ESCAPED);
+        transition(S_FLAG_GAP, C_DASH, S_FLAG);
+
+        // Between arguments.
+        transition(S_GAP, C_OTHER, S_WORD | A_BEGIN);
+        transition(S_GAP, C_SPACE, S_GAP);
+        transition(S_GAP, C_DOUBLE, S_DOUBLE | A_BEGIN_NEXT);
+        transition(S_GAP, C_SINGLE, S_SINGLE | A_BEGIN_NEXT);
+        transition(S_GAP, C_ESCAPE, S_WORD_ESCAPE | A_BEGIN | A_ESCAPED);
+        transition(S_GAP, C_DASH, S_WORD | A_BEGIN);
+
+        // Inside a flag-argument.
+        transition(S_FLAG, C_OTHER, S_FLAG | A_FLAG);
+        transition(S_FLAG, C_SPACE, S_FLAG_GAP);
+        transition(S_FLAG, C_DOUBLE, S_FLAG | A_FLAG);
+        transition(S_FLAG, C_SINGLE, S_FLAG | A_FLAG);
+        transition(S_FLAG, C_ESCAPE, S_FLAG_ESCAPE);
+        transition(S_FLAG, C_DASH, S_FLAG | A_FLAG);
+        all(S_FLAG_ESCAPE, S_FLAG | A_FLAG);
+
+        // Inside an unquoted argument.
+        transition(S_WORD, C_OTHER, S_WORD);
+        transition(S_WORD, C_SPACE, S_GAP | A_END);
+        transition(S_WORD, C_DOUBLE, S_DOUBLE | A_END | A_BEGIN_NEXT);
+        transition(S_WORD, C_SINGLE, S_SINGLE | A_END | A_BEGIN_NEXT);
+        transition(S_WORD, C_ESCAPE, S_WORD_ESCAPE | A_ESCAPED);
+        transition(S_WORD, C_DASH, S_WORD);
+        all(S_WORD_ESCAPE, S_WORD);
+
+        // Inside a quoted argument.
+        quoted(S_DOUBLE, S_DOUBLE_ESCAPE, C_DOUBLE);
+        quoted(S_SINGLE, S_SINGLE_ESCAPE, C_SINGLE);
+    }
+
+    /**
+     * Adds a transition to the table.
+     * @param state      The current state.
+     * @param cls        The class of the character.
+     * @param transition The next state and the actions.
+     */
+    private static void transition(int state, int cls, int transition) {
+        TRANSITIONS[state * 6 + cls] = transition;
+    }
+
+    /**
+     * Adds the same transition for all character classes.
+     * @param state      The current state.
+     * @param transition The next state and the actions.
+     */
+    private static void all(int state, int transition) {
+        for (int cls = 0; cls < 6; cls++)
+            transition(state, cls, transition);
+    }
+
+    /**
+     * Adds the transitions of a quoted argument.
+     * @param state   The state inside the quotes.
+     * @param escape  The state after an escape character inside the quotes.
+     * @param closing The class of the closing quote character.
+     */
+    private static void quoted(int state, int escape, int closing) {
+        all(state, state);
+        transition(state, closing, S_GAP | A_END);
+        transition(state, C_ESCAPE, escape | A_ESCAPED);
+        all(escape, state);
+    }
+
+    @Override
+    public String[] split(String args) {
+        CommandLine line = this.tokenize(args);
+
+        String[] result = new String[line.size() + 1];
+        result[0] = line.getFlags();
+        for (int i = 0; i < line.size(); i++)
+            result[i + 1] = line.get(i);
+        return result;
+    }
+
+    /**
+     * <p>Splits the line.</p>
+     * <p>Lines with more than one token are joined first as spaces inside quotes have to be preserved.</p>
+     *
+     * @param line The command line passed to the command.
+     * @return The actual arguments.
+     */
+    @Override
+    public CommandLine split(CommandLine line) {
+        if (line.isEmpty())
+            return line.withFlags("", Flags.NONE);
+
+        return this.tokenize(line.join());
+    }
+
+    /**
+     * Splits a raw command line.
+     * @param raw The raw command line.
+     * @return The actual arguments.
+     */
+    public CommandLine tokenize(String raw) {
+        int length = raw.length();
+
+        int[] bounds = new int[16];
+        String[] materialized = null;
+        int count = 0;
+
+        char[] flagChars = null;
+        int flagCount = 0;
+        long flagMask = Flags.NONE;
+
+        int state = S_FLAG_GAP;
+        int start = 0;
+        boolean escaped = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = raw.charAt(i);
+            int transition = TRANSITIONS[state * 6 + (c < 128 ? CLASSES[c] : C_OTHER)];
+            state = transition & STATE_MASK;
+
+            // Fast path: Nothing to do for this character.
+            if (transition == state)
+                continue;
+
+            if ((transition & A_END) != 0) {
+                if (count * 2 == bounds.length) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                    if (materialized != null)
+                        materialized = Arrays.copyOf(materialized, bounds.length / 2);
+                }
+
+                bounds[count * 2] = start;
+                bounds[count * 2 + 1] = i;
+                if (escaped) {
+                    if (materialized == null)
+                        materialized = new String[bounds.length / 2];
+                    materialized[count] = SpanSplit.unescape(raw, start, i);
+                }
+                count++;
+            }
+
+            if ((transition & (A_BEGIN | A_BEGIN_NEXT)) != 0) {
+                start = (transition & A_BEGIN) != 0 ? i : i + 1;
+                escaped = false;
+            }
+
+            if ((transition & A_ESCAPED) != 0)
+                escaped = true;
+
+            if ((transition & A_FLAG) != 0) {
+                long bit = Flags.bit(c);
+                if ((flagMask & bit) == 0 || (bit == Flags.OTHER && !SpanSplit.contains(flagChars, flagCount, c))) {
+                    if (flagChars == null)
+                        flagChars = new char[length];
+                    flagChars[flagCount++] = c;
+                    flagMask |= bit;
+                }
+            }
+        }
+
+        // Add the last argument if the line didn't end between two arguments.
+        if (state != S_FLAG_GAP && state != S_GAP && state != S_FLAG && state != S_FLAG_ESCAPE) {
+            if (count * 2 == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length + 2);
+                if (materialized != null)
+                    materialized = Arrays.copyOf(materialized, bounds.length / 2);
+            }
+
+            bounds[count * 2] = start;
+            bounds[count * 2 + 1] = length;
+            if (escaped) {
+                if (materialized == null)
+                    materialized = new String[bounds.length / 2];
+                materialized[count] = SpanSplit.unescape(raw, start, length);
+            }
+            count++;
+        }
+
+        String flags = flagCount == 0 ? "" : new String(flagChars, 0, flagCount);
+        String[] tokens = materialized == null ? new String[count] : Arrays.copyOf(materialized, count);
+        return CommandLine.of(raw, bounds, tokens, count, flags, flagMask, materialized == null);
+    }
+
+    /**
+     * Checks if the character has already been recorded.
+     * @param chars The recorded characters.
+     * @param count The amount of recorded characters.
+     * @param c     The character to search.
+     * @return {@code true} if the character has been found.
+     */
+    private static boolean contains(char[] chars, int count, char c) {
+        for (int i = 0; i < count; i++)
+            if (chars[i] == c)
+                return true;
+        return false;
+    }
+
+    /**
+     * Removes the escape characters of an argument.<p />
+     *
+     * A trailing escape character is kept.
+     *
+     * @param raw   The raw command line.
+     * @param start The start of the argument (inclusive).
+     * @param end   The end of the argument (exclusive).
+     * @return The argument without escape characters.
+     */
+    private static String unescape(String raw, int start, int end) {
+        char[] result = new char[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' && i + 1 < end)
+                c = raw.charAt(++i);
+            result[length++] = c;
+        }
+        return new String(result, 0, length);
+    }
+}
@@ -2,12 +2,17 @@ package net.stuxcrystal.simpledev.commands.arguments.types;
 
 import net.stuxcrystal.simpledev.commands.CommandBackend;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
-import net.stuxcrystal.simpledev.commands.arguments.ArgumentType;
+import net.stuxcrystal.simpledev.commands.arguments.CompletableType;
+import net.stuxcrystal.simpledev.commands.arguments.ParseResult;
+import net.stuxcrystal.simpledev.commands.arguments.ParsingType;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Parsing the string and makes it to a CommandExecutor.
  */
-public class CommandExecutorType implements ArgumentType {
+public class CommandExecutorType implements CompletableType, ParsingType {
 
     @Override
     public boolean isTypeSupported(Class<?> cls) {
@@ -18,4 +23,23 @@ public class CommandExecutorType implements ArgumentType {
     public Object convert(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
         return backend.getExecutor(value);
     }
+
+    @Override
+    public ParseResult tryParse(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
+        CommandExecutor<?> result = backend.getExecutor(value);
+        if (result == null)
+            return ParseResult.failure(ParseResult.Reason.UNKNOWN_VALUE);
+        return ParseResult.success(result);
+    }
+
+    @Override
+    public List<String> complete(String prefix, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
+        List<String> result = new ArrayList<>();
+        for (CommandExecutor<?> player : backend.getPlayers()) {
+            String name = player.getName();
+            if (name.regionMatches(true, 0, prefix, 0, prefix.length()))
+                result.add(name);
+        }
+        return result;
+    }
 }
@@ -2,13 +2,18 @@ package net.stuxcrystal.simpledev.commands.arguments.types;
 
 import net.stuxcrystal.simpledev.commands.CommandBackend;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
-import net.stuxcrystal.simpledev.commands.arguments.ArgumentType;
+import net.stuxcrystal.simpledev.commands.arguments.CompletableType;
+import net.stuxcrystal.simpledev.commands.arguments.ParseResult;
+import net.stuxcrystal.simpledev.commands.arguments.ParsingType;
 import net.stuxcrystal.simpledev.commands.utils.ReflectionUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Implementation for enumerations.
  */
-public class EnumType implements ArgumentType {
+public class EnumType implements CompletableType, ParsingType {
 
     @Override
     public boolean isTypeSupported(Class<?> cls) {
@@ -17,20 +22,40 @@ public class EnumType implements ArgumentType {
 
     @Override
     public Object convert(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
+        ParseResult result = this.tryParse(value, toClass, executor, backend);
+        if (!result.isSuccess())
+            throw new NumberFormatException("Unknown enum value");
+        return result.getValue();
+    }
+
+    @Override
+    public ParseResult tryParse(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
         Enum[] enumValues = (Enum[])toClass.getEnumConstants();
 
         // Try exact name matching.
         for (Enum eval : enumValues) {
             if (eval.name().equals(value))
-                return eval;
+                return ParseResult.success(eval);
         }
 
         // Match without any regards to case.
         for (Enum eval : enumValues) {
             if (eval.name().equalsIgnoreCase(value))
-                return eval;
+                return ParseResult.success(eval);
         }
 
-        throw new NumberFormatException("Unknown enum value");
+        return ParseResult.failure(ParseResult.Reason.UNKNOWN_VALUE);
+    }
+
+    @Override
+    public List<String> complete(String prefix, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
+        Enum[] enumValues = (Enum[])ReflectionUtils.toClass(toClass).getEnumConstants();
+
+        List<String> result = new ArrayList<>();
+        for (Enum eval : enumValues) {
+            if (eval.name().regionMatches(true, 0, prefix, 0, prefix.length()))
+                result.add(eval.name());
+        }
+        return result;
     }
 }
@@ -2,7 +2,8 @@ package net.stuxcrystal.simpledev.commands.arguments.types;
 
 import net.stuxcrystal.simpledev.commands.CommandBackend;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
-import net.stuxcrystal.simpledev.commands.arguments.ArgumentType;
+import net.stuxcrystal.simpledev.commands.arguments.ParseResult;
+import net.stuxcrystal.simpledev.commands.arguments.ParsingType;
 import net.stuxcrystal.simpledev.commands.utils.ReflectionUtils;
 
 import java.util.logging.Level;
@@ -10,7 +11,7 @@ import java.util.logging.Level;
 /**
  * Primiive Argument type.
  */
-public class PrimitiveType implements ArgumentType {
+public class PrimitiveType implements ParsingType {
 
 
     /**
@@ -46,10 +47,14 @@ public class PrimitiveType implements ArgumentType {
     public static Class<?> wrap(Class<?> before) {
         if (!before.isPrimitive()) return before;
 
-        for (Class<?> clz : WRAPPER_TYPES) {
-            if (ReflectionUtils.getFieldQuiet(clz, null, "TYPE").equals(before))
-                return clz;
-        }
+        if (before == int.class) return Integer.class;
+        if (before == long.class) return Long.class;
+        if (before == double.class) return Double.class;
+        if (before == boolean.class) return Boolean.class;
+        if (before == float.class) return Float.class;
+        if (before == char.class) return Character.class;
+        if (before == short.class) return Short.class;
+        if (before == byte.class) return Byte.class;
 
         return before;
     }
@@ -62,36 +67,152 @@ public class PrimitiveType implements ArgumentType {
 
     @Override
     public Object convert(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
-        try {
-            if (!(toClass.isPrimitive() || isWrapper(toClass)))
-                throw new InternalError("Invalid type.");
+        ParseResult result = this.tryParse(value, toClass, executor, backend);
+        if (!result.isSuccess())
+            backend.getLogger().log(Level.FINE, "Failed to convert value (" + result.getReason() + "): " + value);
+        return result.getValue();
+    }
+
+    @Override
+    public ParseResult tryParse(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
+        Class<?> wrapper = wrap(toClass);
+
+        if (wrapper == Boolean.class)
+            return ParseResult.success(Boolean.valueOf(value));
+
+        if (value.isEmpty())
+            return ParseResult.failure(ParseResult.Reason.MALFORMED);
+
+        if (wrapper == Integer.class)
+            return parseIntegral(value, wrapper, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        else if (wrapper == Long.class)
+            return parseIntegral(value, wrapper, Long.MIN_VALUE, Long.MAX_VALUE);
+        else if (wrapper == Double.class || wrapper == Float.class)
+            return parseFloating(value, wrapper);
+        else if (wrapper == Character.class)
+            return ParseResult.success(value.charAt(0));
+        else if (wrapper == Short.class)
+            return parseIntegral(value, wrapper, Short.MIN_VALUE, Short.MAX_VALUE);
+        else if (wrapper == Byte.class)
+            return parseIntegral(value, wrapper, Byte.MIN_VALUE, Byte.MAX_VALUE);
+
+        return ParseResult.failure(ParseResult.Reason.UNSUPPORTED_TYPE);
+    }
+
+    /**
+     * Parses an integral number like {@link Long#parseLong(String)} does, without throwing exceptions.
+     * @param value   The non-empty value.
+     * @param wrapper The wrapper type of the number.
+     * @param min     The smallest allowed value.
+     * @param max     The greatest allowed value.
+     * @return The boxed number.
+     */
+    private static ParseResult parseIntegral(String value, Class<?> wrapper, long min, long max) {
+        int i = 0;
+        boolean negative = false;
+
+        // The number is accumulated negatively, as the negative range is larger.
+        long limit = -max;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            if (value.length() == 1)
+                return ParseResult.failure(ParseResult.Reason.MALFORMED);
+
+            if (first == '-') {
+                negative = true;
+                limit = min;
+            }
+            i++;
+        }
+
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < value.length(); i++) {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0)
+                return ParseResult.failure(ParseResult.Reason.MALFORMED);
+            if (result < multmin)
+                return ParseResult.failure(ParseResult.Reason.OUT_OF_RANGE);
+            result *= 10;
+            if (result < limit + digit)
+                return ParseResult.failure(ParseResult.Reason.OUT_OF_RANGE);
+            result -= digit;
+        }
+
+        long parsed = negative ? result : -result;
+        if (wrapper == Integer.class)
+            return ParseResult.success((int) parsed);
+        else if (wrapper == Long.class)
+            return ParseResult.success(parsed);
+        else if (wrapper == Short.class)
+            return ParseResult.success((short) parsed);
+        else
+            return ParseResult.success((byte) parsed);
+    }
+
+    /**
+     * <p>Parses a floating point number without throwing exceptions for malformed values.</p>
+     *
+     * <p>
+     *     Plain decimal numbers are validated before they are parsed. Other values that may still be valid
+     *     Java literals (e.g. hexadecimal numbers) are handed to the JDK.
+     * </p>
+     *
+     * @param value   The non-empty value.
+     * @param wrapper The wrapper type of the number.
+     * @return The boxed number.
+     */
+    private static ParseResult parseFloating(String value, Class<?> wrapper) {
+        if (!isDecimal(value)) {
+            // Only numbers starting like a literal may still be valid.
+            char first = value.charAt(0);
+            if (first != '+' && first != '-' && first != '.' && first != 'N' && first != 'I'
+                    && Character.digit(first, 10) < 0)
+                return ParseResult.failure(ParseResult.Reason.MALFORMED);
 
-            Class<?> wrapper = wrap(toClass);
             try {
-                if (wrapper.equals(Boolean.class))
-                    return Boolean.valueOf(value);
-                else if (wrapper.equals(Character.class))
-                    return value.charAt(0);
-                else if (wrapper.equals(Integer.class))
-                    return Integer.valueOf(value);
-                else if (wrapper.equals(Long.class))
-                    return Long.valueOf(value);
-                else if (wrapper.equals(Short.class))
-                    return Short.valueOf(value);
-                else if (wrapper.equals(Byte.class))
-                    return Byte.valueOf(value);
-                else if (wrapper.equals(Double.class))
-                    return Double.valueOf(value);
-                else if (wrapper.equals(Float.class))
-                    return Float.valueOf(value);
-                else
-                    throw new InternalError("Failed to parse number-value.");
+                return ParseResult.success(wrapper == Double.class ? Double.valueOf(value) : Float.valueOf(value));
             } catch (NumberFormatException e) {
-                throw new InternalError("Failed to parse string...", e);
+                return ParseResult.failure(ParseResult.Reason.MALFORMED);
             }
-        } catch (InternalError e) {
-            backend.getLogger().log(Level.WARNING, "Failed to convert value: " + value, e);
-            return null;
         }
+
+        return ParseResult.success(wrapper == Double.class ? Double.valueOf(value) : Float.valueOf(value));
+    }
+
+    /**
+     * Checks if the value is a plain decimal number ({@code [+-]digits[.digits][(e|E)[+-]digits]}).
+     * @param value The value.
+     * @return {@code true} if the value is a plain decimal number.
+     */
+    private static boolean isDecimal(String value) {
+        int i = 0, length = value.length();
+        if (value.charAt(i) == '+' || value.charAt(i) == '-')
+            i++;
+
+        // The mantissa needs at least one digit.
+        int digits = 0;
+        for (; i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9'; i++)
+            digits++;
+        if (i < length && value.charAt(i) == '.') {
+            for (i++; i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9'; i++)
+                digits++;
+        }
+        if (digits == 0)
+            return false;
+
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-'))
+                i++;
+
+            int exponent = i;
+            while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9')
+                i++;
+            if (i == exponent)
+                return false;
+        }
+
+        return i == length;
     }
 }
@@ -2,12 +2,13 @@ package net.stuxcrystal.simpledev.commands.arguments.types;
 
 import net.stuxcrystal.simpledev.commands.CommandBackend;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
-import net.stuxcrystal.simpledev.commands.arguments.ArgumentType;
+import net.stuxcrystal.simpledev.commands.arguments.ParseResult;
+import net.stuxcrystal.simpledev.commands.arguments.ParsingType;
 
 /**
  * Represents a type for strings.
  */
-public class StringType implements ArgumentType {
+public class StringType implements ParsingType {
 
     @Override
     public boolean isTypeSupported(Class<?> cls) {
@@ -18,4 +19,9 @@ public class StringType implements ArgumentType {
     public String convert(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
         return value;
     }
+
+    @Override
+    public ParseResult tryParse(String value, Class<?> toClass, CommandExecutor executor, CommandBackend backend) {
+        return ParseResult.success(value);
+    }
 }
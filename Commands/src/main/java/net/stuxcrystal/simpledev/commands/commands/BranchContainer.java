@@ -0,0 +1,32 @@
+package net.stuxcrystal.simpledev.commands.commands;
+
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+
+/**
+ * <p>A command that forwards its arguments to the commands of another CommandHandler.</p>
+ *
+ * <p>
+ *     If the branch is routable, the CommandHandler resolves the sub-command directly while
+ *     walking over the tokens of the command line and never calls the execute-methods of this
+ *     container.
+ * </p>
+ */
+public interface BranchContainer extends CommandContainer {
+
+    /**
+     * Returns the handler that contains the sub-commands.
+     * @return The handler that contains the sub-commands.
+     */
+    public CommandHandler getSubCommandHandler();
+
+    /**
+     * <p>Checks if the dispatcher can route directly into the sub-handler.</p>
+     * <p>
+     *     This is only allowed if the container itself doesn't do anything except forwarding the
+     *     arguments to the sub-handler.
+     * </p>
+     * @return {@code true} if the dispatcher can skip this container.
+     */
+    public boolean isRoutable();
+
+}
@@ -0,0 +1,348 @@
+package net.stuxcrystal.simpledev.commands.commands;
+
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.arguments.Flags;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>The compiled, immutable metadata of a command container.</p>
+ *
+ * <p>
+ *     The descriptor is created once when the command is registered. The dispatcher only reads
+ *     the fields of the descriptor and never asks the container itself, so containers are free to
+ *     compute their metadata lazily (e.g. from annotations).
+ * </p>
+ */
+public final class CommandDescriptor {
+
+    /**
+     * Players may execute the command.
+     */
+    public static final int SENDER_PLAYER = 1;
+
+    /**
+     * The console may execute the command.
+     */
+    public static final int SENDER_CONSOLE = 1 << 1;
+
+    /**
+     * The container that has been compiled.
+     */
+    private final CommandContainer container;
+
+    /**
+     * The interned name of the command.
+     */
+    private final String name;
+
+    /**
+     * The interned aliases of the command.
+     */
+    private final String[] aliases;
+
+    /**
+     * The interned permission. An empty string if no permission is needed.
+     */
+    private final String permission;
+
+    /**
+     * The supported flags.
+     */
+    private final String flags;
+
+    /**
+     * The bitmask of the supported flags.
+     */
+    private final long flagMask;
+
+    /**
+     * Are all flags allowed?
+     */
+    private final boolean anyFlag;
+
+    /**
+     * The minimal amount of arguments or {@code -1}.
+     */
+    private final int minimalArgumentCount;
+
+    /**
+     * The maximal amount of arguments or {@code -1}.
+     */
+    private final int maximalArgumentCount;
+
+    /**
+     * The senders that may execute the command.
+     */
+    private final int senders;
+
+    /**
+     * Is this an operator command?
+     */
+    private final boolean operatorCommand;
+
+    /**
+     * Is this an asynchronous command?
+     */
+    private final boolean asyncCommand;
+
+    /**
+     * Should the arguments be parsed?
+     */
+    private final boolean parseArguments;
+
+    /**
+     * Can the dispatcher route directly into the sub-handler?
+     */
+    private final boolean routable;
+
+    /**
+     * Compiles the metadata of the container.
+     * @param container The container to compile.
+     */
+    public CommandDescriptor(CommandContainer container) {
+        this.container = container;
+        this.name = CommandDescriptor.intern(container.getName());
+        this.aliases = CommandDescriptor.compileAliases(container.getAliases());
+        this.permission = CommandDescriptor.intern(container.getPermission());
+
+        String flags = container.getSupportedFlags();
+        this.flags = flags == null ? "" : flags;
+        this.flagMask = Flags.mask(this.flags);
+        this.anyFlag = this.flags.isEmpty();
+
+        this.minimalArgumentCount = container.getMinimalArgumentCount();
+        this.maximalArgumentCount = container.getMaximalArgumentCount();
+
+        int senders = 0;
+        if (container.allowPlayers()) senders |= SENDER_PLAYER;
+        if (container.allowConsole()) senders |= SENDER_CONSOLE;
+        this.senders = senders;
+
+        this.operatorCommand = container.isOperatorCommand();
+        this.asyncCommand = container.isAsyncCommand();
+        this.parseArguments = container.parseArguments();
+        this.routable = container instanceof BranchContainer && ((BranchContainer) container).isRoutable();
+    }
+
+    /**
+     * Interns the string.
+     * @param value The string to intern.
+     * @return The interned string. An empty string if the value is {@code null}.
+     */
+    private static String intern(String value) {
+        if (value == null)
+            return "";
+        return value.intern();
+    }
+
+    /**
+     * Copies the aliases into an array.
+     * @param aliases The aliases of the container.
+     * @return The interned aliases without {@code null}-values.
+     */
+    private static String[] compileAliases(List<String> aliases) {
+        if (aliases == null || aliases.isEmpty())
+            return new String[0];
+
+        List<String> result = new ArrayList<>(aliases.size());
+        for (String alias : aliases) {
+            if (alias != null)
+                result.add(alias.intern());
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    /**
+     * Returns the sender bit of the executor.
+     * @param executor The executor.
+     * @return {@link #SENDER_PLAYER} or {@link #SENDER_CONSOLE}.
+     */
+    public static int getSenderType(CommandExecutor executor) {
+        return executor.isPlayer() ? SENDER_PLAYER : SENDER_CONSOLE;
+    }
+
+    /**
+     * Returns the compiled container.
+     * @return The container.
+     */
+    public CommandContainer getContainer() {
+        return this.container;
+    }
+
+    /**
+     * Returns the interned name of the command.
+     * @return The name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * <p>Returns the interned aliases of the command.</p>
+     * <p>The array must not be modified.</p>
+     * @return The aliases.
+     */
+    public String[] getAliases() {
+        return this.aliases;
+    }
+
+    /**
+     * Returns the permission of the command.
+     * @return The permission or an empty string.
+     */
+    public String getPermission() {
+        return this.permission;
+    }
+
+    /**
+     * Checks if the command requires a permission.
+     * @return {@code true} if so.
+     */
+    public boolean hasPermission() {
+        return !this.permission.isEmpty();
+    }
+
+    /**
+     * Returns the supported flags.
+     * @return The supported flags.
+     */
+    public String getSupportedFlags() {
+        return this.flags;
+    }
+
+    /**
+     * Returns the bitmask of the supported flags.
+     * @return The bitmask of the supported flags.
+     */
+    public long getFlagMask() {
+        return this.flagMask;
+    }
+
+    /**
+     * Checks if the flags are supported by this command.
+     * @param mask  The bitmask of the flags.
+     * @param flags The flags.
+     * @return {@code true} if all flags are supported.
+     */
+    public boolean supportsFlags(long mask, String flags) {
+        return this.anyFlag || Flags.containsAll(this.flagMask, this.flags, mask, flags);
+    }
+
+    /**
+     * Returns the minimal amount of arguments.
+     * @return The minimal amount of arguments or {@code -1}.
+     */
+    public int getMinimalArgumentCount() {
+        return this.minimalArgumentCount;
+    }
+
+    /**
+     * Returns the maximal amount of arguments.
+     * @return The maximal amount of arguments or {@code -1}.
+     */
+    public int getMaximalArgumentCount() {
+        return this.maximalArgumentCount;
+    }
+
+    /**
+     * Returns the senders that may execute this command.
+     * @return A combination of {@link #SENDER_PLAYER} and {@link #SENDER_CONSOLE}.
+     */
+    public int getSenders() {
+        return this.senders;
+    }
+
+    /**
+     * Checks if the sender type may execute this command.
+     * @param sender {@link #SENDER_PLAYER} or {@link #SENDER_CONSOLE}.
+     * @return {@code true} if so.
+     */
+    public boolean allowsSender(int sender) {
+        return (this.senders & sender) != 0;
+    }
+
+    /**
+     * Checks if the command is only available to some executors.
+     * @return {@code false} if every executor can execute this command.
+     */
+    public boolean isRestricted() {
+        return this.senders != (SENDER_PLAYER | SENDER_CONSOLE) || this.operatorCommand || this.hasPermission();
+    }
+
+    /**
+     * Checks if the executor can execute the command.
+     * @param executor The executor that executes the command.
+     * @param sender   The sender type of the executor. See {@link #getSenderType(CommandExecutor)}.
+     * @return {@code true} if the executor can execute the command.
+     */
+    public boolean canExecute(CommandExecutor executor, int sender) {
+        return this.canExecute(executor, sender, executor.getCommandHandler().isPermissionsSupported(executor));
+    }
+
+    /**
+     * Checks if the executor can execute the command.
+     * @param executor    The executor that executes the command.
+     * @param sender      The sender type of the executor. See {@link #getSenderType(CommandExecutor)}.
+     * @param permissions Does the executor support permissions?
+     *                    See {@link net.stuxcrystal.simpledev.commands.CommandHandler#isPermissionsSupported(CommandExecutor)}.
+     * @return {@code true} if the executor can execute the command.
+     */
+    public boolean canExecute(CommandExecutor executor, int sender, boolean permissions) {
+        // Check sender type.
+        if (!this.allowsSender(sender))
+            return false;
+
+        // Check permissions.
+        if (permissions) {
+            if (this.hasPermission() && !executor.hasPermission(this.permission)) {
+                return false;
+            }
+        } else {
+            // Check op only
+            if (this.operatorCommand && !executor.isOp()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if only operators may use the command if no permission system has been installed.
+     * @return {@code true} if so.
+     */
+    public boolean isOperatorCommand() {
+        return this.operatorCommand;
+    }
+
+    /**
+     * Checks if the command is executed asynchronously.
+     * @return {@code true} if so.
+     */
+    public boolean isAsyncCommand() {
+        return this.asyncCommand;
+    }
+
+    /**
+     * Checks if the arguments should be parsed.
+     * @return {@code true} if so.
+     */
+    public boolean parseArguments() {
+        return this.parseArguments;
+    }
+
+    /**
+     * Checks if the dispatcher can route directly into the sub-handler of the container.
+     * @return {@code true} if the container is a routable {@link BranchContainer}.
+     */
+    public boolean isRoutable() {
+        return this.routable;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandDescriptor[" + this.name + "]";
+    }
+}
@@ -1,15 +1,17 @@
 package net.stuxcrystal.simpledev.commands.commands;
 
+import net.stuxcrystal.simpledev.commands.CommandBackend;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
 import net.stuxcrystal.simpledev.commands.CommandHandler;
 import net.stuxcrystal.simpledev.commands.arguments.ArgumentList;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
 import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.AnnotationCommandLoader;
 import net.stuxcrystal.simpledev.commands.commands.contrib.raw.CommandContainerLoader;
 import net.stuxcrystal.simpledev.commands.translations.TranslationManager;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The command manager that contains all commands.
@@ -17,14 +19,26 @@ import java.util.List;
 public class CommandManager {
 
     /**
-     * The list of all supported command.
+     * <p>Counts the changes of the commands of all managers.</p>
+     * <p>Used by caches that depend on the commands of several managers (e.g. routes through sub-commands).</p>
      */
-    private List<CommandContainer> commands = new ArrayList<>();
+    private static final AtomicLong CHANGES = new AtomicLong();
+
+    /**
+     * <p>The current snapshot of all registered commands.</p>
+     * <p>Readers never lock, writers replace the whole snapshot while holding {@link #lock}.</p>
+     */
+    private volatile CommandRegistry registry = CommandRegistry.EMPTY;
+
+    /**
+     * Serializes the writers of the registry.
+     */
+    private final Object lock = new Object();
 
     /**
      * The list of loaders.
      */
-    private List<CommandLoader> loaders = new ArrayList<>(Arrays.asList(
+    private final List<CommandLoader> loaders = new CopyOnWriteArrayList<>(Arrays.asList(
             // Implementation for old @Command classes.
             new AnnotationCommandLoader(),
 
@@ -33,48 +47,140 @@ public class CommandManager {
     ));
 
     /**
-     * Executes this specific command.
+     * <p>Executes this specific command.</p>
+     * <p>The command must have been resolved using {@link #resolve(CommandExecutor, String)}.</p>
+     * @param command    The command to execute.
+     * @param executor   The executor that executes the command
+     * @param args       The arguments.
+     */
+    public void execute(CommandContainer command, CommandExecutor executor, String[] args) {
+        this.execute(this.describe(command), executor, CommandLine.of(args));
+    }
+
+    /**
+     * <p>Executes this specific command.</p>
+     * <p>The command must have been resolved using {@link #resolve(CommandExecutor, String)}.</p>
      * @param command    The command to execute.
      * @param executor   The executor that executes the command
      * @param args       The arguments.
      */
-    private void execute(CommandContainer command, CommandExecutor executor, String[] args) {
-        if (command.parseArguments())
-            this.executeParsed(command, executor, args);
-        else
-            this.call(new RawCommandExecutionTask(command, executor, args));
+    public void execute(CommandContainer command, CommandExecutor executor, CommandLine args) {
+        this.execute(this.describe(command), executor, args);
+    }
+
+    /**
+     * <p>Executes this specific command.</p>
+     * <p>The command must have been resolved using {@link #find(CommandExecutor, String)}.</p>
+     * @param command    The compiled command to execute.
+     * @param executor   The executor that executes the command
+     * @param args       The arguments.
+     */
+    public void execute(CommandDescriptor command, CommandExecutor executor, CommandLine args) {
+        CommandExecutionTask task = this.prepare(command, executor, args);
+        if (task != null)
+            this.call(command, task);
     }
 
     /**
-     * Executes the command and parses its arguments.
+     * <p>Executes this specific command using arguments that have already been split.</p>
+     * <p>
+     *     The arguments must have been split by {@link ArgumentList#split} using the splitter of the executor.
+     *     Commands that do not parse their arguments receive the split tokens.
+     * </p>
+     * @param command    The compiled command to execute.
+     * @param executor   The executor that executes the command
+     * @param split      The split arguments.
+     */
+    public void executeSplit(CommandDescriptor command, CommandExecutor executor, CommandLine split) {
+        CommandExecutionTask task = this.prepareSplit(command, executor, split);
+        if (task != null)
+            this.call(command, task);
+    }
+
+    /**
+     * <p>Checks the arguments of the command and creates the task that executes it.</p>
+     * <p>The task must be run in the thread the command requires. See {@link #callAll(CommandBackend, List, List)}.</p>
+     * @param command    The compiled command to execute.
+     * @param executor   The executor that executes the command
+     * @param args       The arguments.
+     * @return The task or {@code null} if the arguments are invalid. The executor has been notified.
+     */
+    public CommandExecutionTask prepare(CommandDescriptor command, CommandExecutor executor, CommandLine args) {
+        if (!command.parseArguments())
+            return new RawCommandExecutionTask(command.getContainer(), executor, args.toArray());
+        return this.prepare(command, executor, new ArgumentList(executor, executor.getCommandHandler(), args));
+    }
+
+    /**
+     * <p>Checks the arguments of the command and creates the task that executes it.</p>
+     * <p>See {@link #executeSplit(CommandDescriptor, CommandExecutor, CommandLine)} for the split arguments.</p>
+     * @param command    The compiled command to execute.
+     * @param executor   The executor that executes the command
+     * @param split      The split arguments.
+     * @return The task or {@code null} if the arguments are invalid. The executor has been notified.
+     */
+    public CommandExecutionTask prepareSplit(CommandDescriptor command, CommandExecutor executor, CommandLine split) {
+        if (!command.parseArguments())
+            return new RawCommandExecutionTask(command.getContainer(), executor, split.toArray());
+        return this.prepare(command, executor, ArgumentList.ofSplit(executor, executor.getCommandHandler(), split));
+    }
+
+    /**
+     * Checks the parsed arguments and creates the task that executes the command.
      * @param command   The command to execute.
      * @param executor  The executor.
-     * @param args      The arguments.
+     * @param parser    The parsed arguments.
+     * @return The task or {@code null} if the arguments are invalid.
      */
-    private void executeParsed(CommandContainer command, CommandExecutor executor, String[] args) {
+    private CommandExecutionTask prepare(CommandDescriptor command, CommandExecutor executor, ArgumentList parser) {
         TranslationManager mgr = executor.getCommandHandler().getTranslationManager();
 
-        // Check argument data.
-        ArgumentList parser = new ArgumentList(executor, executor.getCommandHandler(), args);
-
         // Check if only these flags are in the flag list
-        if (!command.getSupportedFlags().isEmpty() &&
-                !parser.getFlags().matches("[" + command.getSupportedFlags() + "]*")) {
+        if (!command.supportsFlags(parser.getFlagMask(), parser.getFlags())) {
             executor.sendMessage(mgr.translate(executor, "cmd.check.flag"));
-            return;
+            return null;
         }
 
-        if (command.getMinimalArgumentCount() != -1 && parser.size() < command.getMinimalArgumentCount()) {
+        if (!this.checkArgumentCount(command, executor, parser.size()))
+            return null;
+
+        return new ParsedCommandExecutionTask(command.getContainer(), executor, parser);
+    }
+
+    /**
+     * Checks the amount of arguments passed to the command.
+     * @param command   The command to check.
+     * @param executor  The executor that receives the error message.
+     * @param size      The amount of arguments.
+     * @return {@code true} if the amount of arguments is valid.
+     */
+    public boolean checkArgumentCount(CommandContainer command, CommandExecutor executor, int size) {
+        return this.checkArgumentCount(this.describe(command), executor, size);
+    }
+
+    /**
+     * Checks the amount of arguments passed to the command.
+     * @param command   The compiled command to check.
+     * @param executor  The executor that receives the error message.
+     * @param size      The amount of arguments.
+     * @return {@code true} if the amount of arguments is valid.
+     */
+    public boolean checkArgumentCount(CommandDescriptor command, CommandExecutor executor, int size) {
+        TranslationManager mgr = executor.getCommandHandler().getTranslationManager();
+
+        int min = command.getMinimalArgumentCount();
+        if (min != -1 && size < min) {
             executor.sendMessage(mgr.translate(executor, "cmd.check.args.min"));
-            return;
+            return false;
         }
 
-        if (command.getMaximalArgumentCount() != -1 && parser.size() < command.getMaximalArgumentCount()) {
+        int max = command.getMaximalArgumentCount();
+        if (max != -1 && size > max) {
             executor.sendMessage(mgr.translate(executor, "cmd.check.args.max"));
-            return;
+            return false;
         }
 
-        this.call(new ParsedCommandExecutionTask(command, executor, parser));
+        return true;
     }
 
     /**
@@ -82,10 +188,11 @@ public class CommandManager {
      * <p>
      *     Makes sure the task is actually run in the correct thread.
      * </p>
-     * @param task The task to execute.
+     * @param command The compiled command.
+     * @param task    The task to execute.
      */
-    private void call(CommandExecutionTask task) {
-        if (task.container.isAsyncCommand()) {
+    private void call(CommandDescriptor command, CommandExecutionTask task) {
+        if (command.isAsyncCommand()) {
             task.executor.getBackend().scheduleAsync(task);
         } else {
             // Make sure the task is executed synchronously.
@@ -98,106 +205,260 @@ public class CommandManager {
     }
 
     /**
-     * Checks if the executor can execute the specified command.
-     * @param command  The container to use.
-     * @param executor The executor that executes the command
-     * @return {@code true} if the container can execute the command
+     * <p>Executes prepared tasks using at most one scheduler hop for each group.</p>
+     * <p>
+     *     The synchronous tasks are run at once if this is the main thread. The tasks of each group are run in
+     *     the given order. A task that fails does not prevent the remaining tasks of its group from running.
+     * </p>
+     * @param backend The backend that schedules the groups.
+     * @param sync    The tasks of commands that must run in the main thread.
+     * @param async   The tasks of asynchronous commands.
      */
-    private boolean canExecute(CommandContainer command, CommandExecutor executor) {
-        // Check sender type.
-        if (executor.isPlayer()) {
-            if (!command.allowPlayers()) {
-                return false;
-            }
+    public void callAll(CommandBackend backend, List<? extends CommandExecutionTask> sync, List<? extends CommandExecutionTask> async) {
+        if (!async.isEmpty())
+            backend.scheduleAsync(new TaskBatch(backend, async));
+
+        if (sync.isEmpty())
+            return;
+
+        TaskBatch batch = new TaskBatch(backend, sync);
+        if (!backend.inMainThread()) {
+            backend.scheduleSync(batch);
         } else {
-            if (!command.allowConsole()) {
-                return false;
-            }
+            batch.run();
         }
+    }
 
-        // Check permissions.
-        if (executor.getCommandHandler().isPermissionsSupported(executor)) {
-            if (!command.getPermission().isEmpty() && !executor.hasPermission(command.getPermission())) {
-                return false;
-            }
-        } else {
-            // Check op only
-            if (command.isOperatorCommand() && !executor.isOp()) {
-                return false;
-            }
+    /**
+     * <p>Returns the compiled metadata of the container.</p>
+     * <p>Containers that have not been registered in this manager are compiled on the fly.</p>
+     * @param command The container.
+     * @return The descriptor of the container.
+     */
+    public CommandDescriptor describe(CommandContainer command) {
+        CommandDescriptor descriptor = this.registry.getTable().getDescriptor(command);
+        if (descriptor == null)
+            descriptor = new CommandDescriptor(command);
+        return descriptor;
+    }
+
+    /**
+     * Returns the first command the executor can execute.
+     * @param commands    The candidates.
+     * @param executor    The executor that executes the command.
+     * @param sender      The sender type of the executor.
+     * @param permissions Does the executor support permissions?
+     * @return The first allowed command or {@code null}.
+     */
+    private CommandDescriptor firstAllowed(CommandDescriptor[] commands, CommandExecutor executor, int sender, boolean permissions) {
+        for (CommandDescriptor command : commands) {
+            if (command.canExecute(executor, sender, permissions))
+                return command;
         }
+        return null;
+    }
 
-        return true;
+    /**
+     * <p>Resolves the command with the given name.</p>
+     * <p>
+     *     Exact names are preferred over names ignoring the case, which are preferred over exact aliases
+     *     and aliases ignoring the case. Only the matched commands are checked against the executor.
+     * </p>
+     *
+     * @param executor   The executor that executes the command
+     * @param name       The name of the command to execute.
+     * @return The command or {@code null} if no command was found.
+     */
+    public CommandContainer resolve(CommandExecutor executor, String name) {
+        CommandDescriptor command = this.find(executor, name);
+        if (command == null)
+            return null;
+        return command.getContainer();
     }
 
     /**
-     * Executes the command with the given name.
+     * <p>Resolves the compiled command with the given name.</p>
+     * <p>See {@link #resolve(CommandExecutor, String)} for the order the commands are matched in.</p>
      *
      * @param executor   The executor that executes the command
      * @param name       The name of the command to execute.
-     * @param args       The arguments of the command.
-     * @return {@code true} if the command was executed.
+     * @return The compiled command or {@code null} if no command was found.
      */
-    public boolean execute(CommandExecutor executor, String name, String[] args) {
-        // Filter out commands that the executor cannot execute!
-        List<CommandContainer> allowedCommands = new ArrayList<>(this.commands.size());
-        for (CommandContainer command : commands) {
-            if (!this.canExecute(command, executor))
-                continue;
-            allowedCommands.add(command);
-        }
+    public CommandDescriptor find(CommandExecutor executor, String name) {
+        CommandTable table = this.registry.getTable();
+        int sender = CommandDescriptor.getSenderType(executor);
+        boolean permissions = executor.getCommandHandler().isPermissionsSupported(executor);
+        CommandDescriptor command;
 
         // Prefer Exact Matches first.
-        for (CommandContainer command : allowedCommands) {
-            if (command.getName().equals(name)) {
-                this.execute(command, executor, args);
-                return true;
-            }
-        }
+        if ((command = this.firstAllowed(table.getByName(name), executor, sender, permissions)) != null)
+            return command;
 
         // Then ignore the case.
-        for (CommandContainer command : allowedCommands) {
-            if (command.getName().equalsIgnoreCase(name)) {
-                this.execute(command, executor, args);
-                return true;
-            }
-        }
+        String folded = CommandTable.fold(name);
+        if ((command = this.firstAllowed(table.getByFoldedName(folded), executor, sender, permissions)) != null)
+            return command;
 
         // Exact matches to aliases.
-        for (CommandContainer command : allowedCommands) {
-            for (String alias : command.getAliases()) {
-                if (alias.equals(name)) {
-                    this.execute(command, executor, args);
-                    return true;
-                }
-            }
-        }
+        if ((command = this.firstAllowed(table.getByAlias(name), executor, sender, permissions)) != null)
+            return command;
 
         // Match aliases without caring for the case.
-        for (CommandContainer command : allowedCommands) {
-            for (String alias : command.getAliases()) {
-                if (alias.equalsIgnoreCase(name)) {
-                    this.execute(command, executor, args);
-                    return true;
-                }
-            }
-        }
+        return this.firstAllowed(table.getByFoldedAlias(folded), executor, sender, permissions);
+    }
+
+    /**
+     * <p>Returns the command that is matched first if the executor may execute every command.</p>
+     * <p>
+     *     If {@link #find(CommandExecutor, String)} returns the same command, the result does not depend on
+     *     the executor as long as the executor may execute it.
+     * </p>
+     *
+     * @param name       The name of the command.
+     * @return The first candidate or {@code null} if no command has the name.
+     */
+    public CommandDescriptor first(String name) {
+        CommandTable table = this.registry.getTable();
+        CommandDescriptor[] commands;
+
+        if ((commands = table.getByName(name)).length > 0)
+            return commands[0];
+
+        String folded = CommandTable.fold(name);
+        if ((commands = table.getByFoldedName(folded)).length > 0)
+            return commands[0];
+
+        if ((commands = table.getByAlias(name)).length > 0)
+            return commands[0];
+
+        commands = table.getByFoldedAlias(folded);
+        return commands.length > 0 ? commands[0] : null;
+    }
+
+    /**
+     * <p>Returns the names and aliases of the commands starting with the prefix.</p>
+     * <p>Only commands the executor can execute are returned. The case of the prefix is ignored.</p>
+     *
+     * @param executor   The executor that requests the completions.
+     * @param prefix     The prefix.
+     * @return An unmodifiable list of names.
+     */
+    public List<String> complete(CommandExecutor executor, String prefix) {
+        return this.registry.getTrie().complete(executor, prefix);
+    }
+
+    /**
+     * <p>Returns the names and aliases similar to the mistyped name.</p>
+     * <p>Only commands the executor can execute are returned. The case of the name is ignored.</p>
+     *
+     * @param executor    The executor that mistyped the name.
+     * @param name        The mistyped name.
+     * @param maxDistance The maximal edit distance.
+     * @param limit       The maximal amount of names.
+     * @return An unmodifiable list of names, the most similar names first.
+     */
+    public List<String> suggest(CommandExecutor executor, String name, int maxDistance, int limit) {
+        return this.registry.getSuggestionTree().suggest(executor, name, maxDistance, limit);
+    }
+
+    /**
+     * Executes the command with the given name.
+     *
+     * @param executor   The executor that executes the command
+     * @param name       The name of the command to execute.
+     * @param args       The arguments of the command.
+     * @return {@code true} if the command was executed.
+     */
+    public boolean execute(CommandExecutor executor, String name, String[] args) {
+        CommandDescriptor command = this.find(executor, name);
+        if (command == null)
+            return false;
 
-        return false;
+        this.execute(command, executor, CommandLine.of(args));
+        return true;
     }
 
     /**
-     * Registers all commands the command-loader can find insite the function.
+     * <p>Registers all commands the command-loader can find insite the function.</p>
+     * <p>All commands of the object are published at once.</p>
      * @param registrar The handler that registers the commands.
      * @param obj       The object that contains the commands.
+     * @return The containers that have been registered.
+     */
+    public List<CommandContainer> registerCommands(CommandHandler registrar, Object obj) {
+        return this.replaceCommands(registrar, Collections.<CommandContainer>emptyList(), obj);
+    }
+
+    /**
+     * <p>Replaces the given commands with the commands the command-loaders can find inside the object.</p>
+     * <p>Dispatching threads either see all old commands or all new commands.</p>
+     * @param registrar The handler that registers the commands.
+     * @param old       The containers to remove.
+     * @param obj       The object that contains the new commands.
+     * @return The containers that have been registered.
      */
-    public void registerCommands(CommandHandler registrar, Object obj) {
+    public List<CommandContainer> replaceCommands(CommandHandler registrar, Collection<? extends CommandContainer> old, Object obj) {
+        List<CommandContainer> containers = new ArrayList<>();
         for (CommandLoader loader : loaders) {
-            List<CommandContainer> containers = loader.register(registrar, obj);
-            if (containers == null)
-                continue;
-            this.commands.addAll(containers);
+            List<CommandContainer> found = loader.register(registrar, obj);
+            if (found != null)
+                containers.addAll(found);
         }
+
+        this.replace(old, containers);
+        return containers;
+    }
+
+    /**
+     * Registers the containers at once.
+     * @param containers The containers to register.
+     */
+    public void register(Collection<? extends CommandContainer> containers) {
+        this.replace(Collections.<CommandContainer>emptyList(), containers);
+    }
+
+    /**
+     * Unregisters the containers at once.
+     * @param containers The containers to unregister.
+     */
+    public void unregister(Collection<? extends CommandContainer> containers) {
+        this.replace(containers, Collections.<CommandContainer>emptyList());
+    }
+
+    /**
+     * <p>Atomically replaces the commands.</p>
+     * <p>The old commands are removed and the new commands are appended to the registered commands.</p>
+     * @param old        The containers to remove.
+     * @param containers The containers to register.
+     */
+    public void replace(Collection<? extends CommandContainer> old, Collection<? extends CommandContainer> containers) {
+        // Compile the metadata before taking the lock.
+        List<CommandDescriptor> descriptors = new ArrayList<>(containers.size());
+        for (CommandContainer container : containers)
+            descriptors.add(new CommandDescriptor(container));
+
+        synchronized (this.lock) {
+            this.registry = this.registry.with(old, descriptors);
+            CommandManager.CHANGES.incrementAndGet();
+        }
+    }
+
+    /**
+     * <p>Returns the amount of changes to the commands of all command managers.</p>
+     * <p>Read the value before resolving a command to detect whether any manager changed in the meantime.</p>
+     *
+     * @return The amount of changes.
+     */
+    public static long getChangeCount() {
+        return CommandManager.CHANGES.get();
+    }
+
+    /**
+     * Returns the current snapshot of the registered commands.
+     * @return The current snapshot.
+     */
+    public CommandRegistry getRegistry() {
+        return this.registry;
     }
 
     /**
@@ -216,7 +477,11 @@ public class CommandManager {
         this.loaders.remove(loader);
     }
 
+    /**
+     * Returns the registered commands.
+     * @return An unmodifiable snapshot of the registered commands.
+     */
     public List<CommandContainer> getCommands() {
-        return this.commands;
+        return this.registry.getCommands();
     }
 }
@@ -0,0 +1,155 @@
+package net.stuxcrystal.simpledev.commands.commands;
+
+import net.stuxcrystal.simpledev.commands.completion.CompletionTrie;
+import net.stuxcrystal.simpledev.commands.completion.SuggestionTree;
+
+import java.util.*;
+
+/**
+ * <p>An immutable snapshot of the commands registered in a {@link CommandManager}.</p>
+ *
+ * <p>
+ *     Changing the commands creates a new snapshot with a higher version. Dispatching threads read the
+ *     current snapshot once and keep working on it, even if another thread publishes a new one in
+ *     the meantime.
+ * </p>
+ */
+public final class CommandRegistry {
+
+    /**
+     * The registry without any commands.
+     */
+    public static final CommandRegistry EMPTY = new CommandRegistry(
+            0, Collections.<CommandDescriptor>emptyList(), SuggestionTree.EMPTY
+    );
+
+    /**
+     * The version of this snapshot.
+     */
+    private final long version;
+
+    /**
+     * The compiled commands in the order they were registered.
+     */
+    private final List<CommandDescriptor> descriptors;
+
+    /**
+     * The containers in the order they were registered.
+     */
+    private final List<CommandContainer> commands;
+
+    /**
+     * The index over the names and aliases.
+     */
+    private final CommandTable table;
+
+    /**
+     * The prefix trie for completions. Built when it is needed first.
+     */
+    private volatile CompletionTrie trie = null;
+
+    /**
+     * The BK-tree for suggestions. Derived from the tree of the previous snapshot.
+     */
+    private final SuggestionTree suggestions;
+
+    /**
+     * Creates a new snapshot.
+     * @param version     The version of the snapshot.
+     * @param descriptors The compiled commands. Must not be modified afterwards.
+     * @param suggestions The BK-tree for suggestions.
+     */
+    private CommandRegistry(long version, List<CommandDescriptor> descriptors, SuggestionTree suggestions) {
+        this.version = version;
+        this.suggestions = suggestions;
+        this.descriptors = Collections.unmodifiableList(descriptors);
+
+        List<CommandContainer> commands = new ArrayList<>(descriptors.size());
+        for (CommandDescriptor descriptor : descriptors)
+            commands.add(descriptor.getContainer());
+        this.commands = Collections.unmodifiableList(commands);
+
+        this.table = new CommandTable(descriptors);
+    }
+
+    /**
+     * <p>Creates a new snapshot.</p>
+     * <p>The removed commands are removed first, the added commands are appended afterwards.</p>
+     *
+     * @param removed The containers to remove.
+     * @param added   The commands to add.
+     * @return The new snapshot.
+     */
+    public CommandRegistry with(Collection<? extends CommandContainer> removed, Collection<CommandDescriptor> added) {
+        Set<CommandContainer> remove = Collections.newSetFromMap(new IdentityHashMap<CommandContainer, Boolean>());
+        remove.addAll(removed);
+
+        List<CommandDescriptor> result = new ArrayList<>(this.descriptors.size() + added.size());
+        List<CommandDescriptor> dropped = new ArrayList<>();
+        for (CommandDescriptor descriptor : this.descriptors) {
+            if (remove.contains(descriptor.getContainer()))
+                dropped.add(descriptor);
+            else
+                result.add(descriptor);
+        }
+        result.addAll(added);
+
+        // Update the tree before the snapshot is published, so dispatching threads never build it.
+        SuggestionTree suggestions = this.suggestions.with(dropped, added);
+
+        return new CommandRegistry(this.version + 1, result, suggestions);
+    }
+
+    /**
+     * Returns the version of this snapshot.
+     * @return The version. Increases with every change.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the compiled commands.
+     * @return An unmodifiable list of the compiled commands.
+     */
+    public List<CommandDescriptor> getDescriptors() {
+        return this.descriptors;
+    }
+
+    /**
+     * Returns the registered containers.
+     * @return An unmodifiable list of the containers.
+     */
+    public List<CommandContainer> getCommands() {
+        return this.commands;
+    }
+
+    /**
+     * Returns the index over the names and aliases.
+     * @return The index.
+     */
+    public CommandTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * <p>Returns the prefix trie over the names and aliases.</p>
+     * <p>The trie is built when it is requested the first time.</p>
+     * @return The trie.
+     */
+    public CompletionTrie getTrie() {
+        CompletionTrie trie = this.trie;
+        if (trie == null)
+            this.trie = trie = new CompletionTrie(this.descriptors);
+        return trie;
+    }
+
+    /**
+     * <p>Returns the BK-tree over the names and aliases.</p>
+     * <p>The tree is updated incrementally whenever a new snapshot is created.</p>
+     * @return The tree.
+     */
+    public SuggestionTree getSuggestionTree() {
+        return this.suggestions;
+    }
+}
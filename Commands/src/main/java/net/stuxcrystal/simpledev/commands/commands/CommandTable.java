@@ -0,0 +1,179 @@
+package net.stuxcrystal.simpledev.commands.commands;
+
+import java.util.*;
+
+/**
+ * <p>Hash-index over the names and aliases of a set of compiled commands.</p>
+ *
+ * <p>
+ *     The table contains four indexes: exact names, names ignoring the case, exact aliases and
+ *     aliases ignoring the case. Each key maps to the commands in the order they were registered.
+ * </p>
+ *
+ * <p>The table is immutable. Registering new commands creates a new table.</p>
+ */
+public class CommandTable {
+
+    /**
+     * A table without any commands.
+     */
+    public static final CommandTable EMPTY = new CommandTable(Collections.<CommandDescriptor>emptyList());
+
+    /**
+     * Returned if no command has been found.
+     */
+    private static final CommandDescriptor[] NONE = new CommandDescriptor[0];
+
+    /**
+     * Maps the exact names to their commands.
+     */
+    private final Map<String, CommandDescriptor[]> names;
+
+    /**
+     * Maps the lower-cased names to their commands.
+     */
+    private final Map<String, CommandDescriptor[]> foldedNames;
+
+    /**
+     * Maps the exact aliases to their commands.
+     */
+    private final Map<String, CommandDescriptor[]> aliases;
+
+    /**
+     * Maps the lower-cased aliases to their commands.
+     */
+    private final Map<String, CommandDescriptor[]> foldedAliases;
+
+    /**
+     * Maps the containers to their descriptors.
+     */
+    private final Map<CommandContainer, CommandDescriptor> descriptors;
+
+    /**
+     * Builds a new table.
+     * @param commands The compiled commands in the order they were registered.
+     */
+    public CommandTable(Collection<CommandDescriptor> commands) {
+        Map<String, List<CommandDescriptor>> names = new HashMap<>();
+        Map<String, List<CommandDescriptor>> foldedNames = new HashMap<>();
+        Map<String, List<CommandDescriptor>> aliases = new HashMap<>();
+        Map<String, List<CommandDescriptor>> foldedAliases = new HashMap<>();
+        Map<CommandContainer, CommandDescriptor> descriptors = new IdentityHashMap<>();
+
+        for (CommandDescriptor command : commands) {
+            descriptors.put(command.getContainer(), command);
+
+            String name = command.getName();
+            CommandTable.put(names, name, command);
+            CommandTable.put(foldedNames, CommandTable.fold(name), command);
+
+            for (String alias : command.getAliases()) {
+                CommandTable.put(aliases, alias, command);
+                CommandTable.put(foldedAliases, CommandTable.fold(alias), command);
+            }
+        }
+
+        this.names = CommandTable.compile(names);
+        this.foldedNames = CommandTable.compile(foldedNames);
+        this.aliases = CommandTable.compile(aliases);
+        this.foldedAliases = CommandTable.compile(foldedAliases);
+        this.descriptors = descriptors;
+    }
+
+    /**
+     * Returns the key used by the case-insensitive indexes.
+     * @param name The name to fold.
+     * @return The folded name.
+     */
+    public static String fold(String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Adds the command to the list of commands for the given key.
+     * @param map     The index to add the command to.
+     * @param key     The key.
+     * @param command The command to add.
+     */
+    private static void put(Map<String, List<CommandDescriptor>> map, String key, CommandDescriptor command) {
+        List<CommandDescriptor> list = map.get(key);
+        if (list == null)
+            map.put(key, list = new ArrayList<>(1));
+
+        // Don't add the same command twice (e.g. name and alias only differing in case).
+        if (!list.contains(command))
+            list.add(command);
+    }
+
+    /**
+     * Converts the lists into arrays.
+     * @param map The map to compile.
+     * @return A map with arrays instead of lists.
+     */
+    private static Map<String, CommandDescriptor[]> compile(Map<String, List<CommandDescriptor>> map) {
+        Map<String, CommandDescriptor[]> result = new HashMap<>(map.size() * 2);
+        for (Map.Entry<String, List<CommandDescriptor>> entry : map.entrySet()) {
+            List<CommandDescriptor> list = entry.getValue();
+            result.put(entry.getKey(), list.toArray(new CommandDescriptor[list.size()]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entry of the index or an empty array.
+     * @param map The index.
+     * @param key The key.
+     * @return The commands registered for this key.
+     */
+    private static CommandDescriptor[] get(Map<String, CommandDescriptor[]> map, String key) {
+        CommandDescriptor[] result = map.get(key);
+        if (result == null)
+            return NONE;
+        return result;
+    }
+
+    /**
+     * Returns all commands with exactly this name.
+     * @param name The name of the command.
+     * @return The commands with this name.
+     */
+    public CommandDescriptor[] getByName(String name) {
+        return CommandTable.get(this.names, name);
+    }
+
+    /**
+     * Returns all commands with this name ignoring the case.
+     * @param folded The name already passed through {@link #fold(String)}.
+     * @return The commands with this name.
+     */
+    public CommandDescriptor[] getByFoldedName(String folded) {
+        return CommandTable.get(this.foldedNames, folded);
+    }
+
+    /**
+     * Returns all commands with exactly this alias.
+     * @param alias The alias of the command.
+     * @return The commands with this alias.
+     */
+    public CommandDescriptor[] getByAlias(String alias) {
+        return CommandTable.get(this.aliases, alias);
+    }
+
+    /**
+     * Returns all commands with this alias ignoring the case.
+     * @param folded The alias already passed through {@link #fold(String)}.
+     * @return The commands with this alias.
+     */
+    public CommandDescriptor[] getByFoldedAlias(String folded) {
+        return CommandTable.get(this.foldedAliases, folded);
+    }
+
+    /**
+     * Returns the descriptor of a registered container.
+     * @param container The container.
+     * @return The descriptor or {@code null} if the container is not part of this table.
+     */
+    public CommandDescriptor getDescriptor(CommandContainer container) {
+        return this.descriptors.get(container);
+    }
+}
@@ -0,0 +1,44 @@
+package net.stuxcrystal.simpledev.commands.commands;
+
+import net.stuxcrystal.simpledev.commands.CommandBackend;
+
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Runs several command tasks in a single scheduler hop.
+ */
+final class TaskBatch implements Runnable {
+
+    /**
+     * The backend that logs failed tasks.
+     */
+    private final CommandBackend backend;
+
+    /**
+     * The tasks in the order they are run.
+     */
+    private final List<? extends CommandExecutionTask> tasks;
+
+    /**
+     * Creates a new batch.
+     * @param backend The backend that logs failed tasks.
+     * @param tasks   The tasks in the order they are run.
+     */
+    TaskBatch(CommandBackend backend, List<? extends CommandExecutionTask> tasks) {
+        this.backend = backend;
+        this.tasks = tasks;
+    }
+
+    @Override
+    public void run() {
+        for (CommandExecutionTask task : this.tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Do not skip the remaining commands of the batch.
+                this.backend.getLogger().log(Level.WARNING, "Failed to execute command.", e);
+            }
+        }
+    }
+}
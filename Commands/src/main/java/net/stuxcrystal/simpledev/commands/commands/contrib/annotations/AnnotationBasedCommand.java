@@ -6,11 +6,14 @@ import net.stuxcrystal.simpledev.commands.arguments.ArgumentList;
 import net.stuxcrystal.simpledev.commands.commands.CommandContainer;
 import net.stuxcrystal.simpledev.commands.exceptions.DoNotExecuteException;
 import net.stuxcrystal.simpledev.commands.exceptions.ExceptionHandler;
+import net.stuxcrystal.simpledev.commands.invocation.Invocation;
+import net.stuxcrystal.simpledev.commands.invocation.InvocationBackend;
 import net.stuxcrystal.simpledev.commands.translations.TranslationManager;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 
@@ -39,6 +42,16 @@ public abstract class AnnotationBasedCommand implements CommandContainer {
      */
     private final MethodInvoker invoker;
 
+    /**
+     * The bound method.
+     */
+    private final Invocation invocation;
+
+    /**
+     * The aliases of the command.
+     */
+    private final List<String> aliases;
+
     /**
      * Creates a new annotation based command.
      * @param command  The command metadata.
@@ -47,10 +60,23 @@ public abstract class AnnotationBasedCommand implements CommandContainer {
      * @param invoker  The invoker for the action.
      */
     public AnnotationBasedCommand(Command command, Method method, Object instance, MethodInvoker invoker) {
+        this(command, InvocationBackend.REFLECTION.bind(method), instance, invoker);
+    }
+
+    /**
+     * Creates a new annotation based command.
+     * @param command    The command metadata.
+     * @param invocation The bound method to execute.
+     * @param instance   The instance of the command metadata.
+     * @param invoker    The invoker for the action.
+     */
+    public AnnotationBasedCommand(Command command, Invocation invocation, Object instance, MethodInvoker invoker) {
         this.command = command;
-        this.method = method;
+        this.method = invocation.getMethod();
+        this.invocation = invocation;
         this.instance = instance;
         this.invoker = invoker;
+        this.aliases = Collections.unmodifiableList(Arrays.asList(command.aliases()));
     }
 
     @Override
@@ -62,7 +88,7 @@ public abstract class AnnotationBasedCommand implements CommandContainer {
 
     @Override
     public List<String> getAliases() {
-        return Arrays.asList(command.aliases());
+        return this.aliases;
     }
 
     @Override
@@ -134,7 +160,7 @@ public abstract class AnnotationBasedCommand implements CommandContainer {
         TranslationManager manager = handler.getTranslationManager();
 
         try {
-            this.invoker.invoke(this.method, this.instance, sender, arguments);
+            this.invoker.invoke(this.invocation, this.instance, sender, arguments);
         } catch (IllegalAccessException | IllegalArgumentException e) {
             sender.sendMessage(manager.translate(sender, "cmd.call.fail"));
             sender.getBackend().getLogger().log(Level.WARNING, "Failed to execute command.", e);
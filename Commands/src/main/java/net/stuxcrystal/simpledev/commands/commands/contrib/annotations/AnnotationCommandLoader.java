@@ -3,9 +3,12 @@ package net.stuxcrystal.simpledev.commands.commands.contrib.annotations;
 import net.stuxcrystal.simpledev.commands.CommandHandler;
 import net.stuxcrystal.simpledev.commands.commands.CommandContainer;
 import net.stuxcrystal.simpledev.commands.commands.CommandLoader;
+import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.autoparse.BindingPlan;
 import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.autoparse.InjectionInvoker;
 import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.simple.BranchAnnotationCommand;
 import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.simple.LeafAnnotationCommand;
+import net.stuxcrystal.simpledev.commands.invocation.GeneratedIndex;
+import net.stuxcrystal.simpledev.commands.invocation.Invocation;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -22,7 +25,7 @@ public class AnnotationCommandLoader implements CommandLoader {
      * @param cls The class to construct.
      * @return A new object.
      */
-    private Object newInstance(Class<?> cls) {
+    static Object newInstance(Class<?> cls) {
         try {
             return cls.newInstance();
         } catch (InstantiationException | IllegalAccessException e) {
@@ -46,6 +49,14 @@ public class AnnotationCommandLoader implements CommandLoader {
 
         List<CommandContainer> commands = new ArrayList<>();
 
+        // Use the index generated at compile time if it exists.
+        Invocation[] invocations = GeneratedIndex.getCommands(container.getClass());
+        if (invocations != null) {
+            for (Invocation invocation : invocations)
+                this.register(registrar, container, invocation, commands);
+            return commands;
+        }
+
         for (Method method : container.getClass().getDeclaredMethods()) {
 
             // The method has to be accessible.
@@ -56,38 +67,42 @@ public class AnnotationCommandLoader implements CommandLoader {
             // The method have to be annotated by Command.
             if (!method.isAnnotationPresent(Command.class)) continue;
 
-            // Determine the correct method invoker.
-            MethodInvoker mi;
-            if (InjectionInvoker.isInjectionCommand(method))
-                mi = InjectionInvoker.INJECTIONS;
-            else
-                mi = MethodInvoker.DEFAULT;
-
-            // Support for subcommands.
-            if (method.isAnnotationPresent(SubCommand.class)) {
-                CommandHandler subhandler;
-                SubCommand command = method.getAnnotation(SubCommand.class);
-
-                // Create a sub-handler.
-                subhandler = registrar.createChildHandler();
-
-                // Populate the command handler.
-                Class<?>[] classes = command.value();
-                Object current;
-                for (Class<?> cls : classes) {
-                    current = newInstance(cls);
-                    if (current != null)
-                        subhandler.registerCommands(newInstance(cls));
-                }
-
-                // Register the command.
-                commands.add(new BranchAnnotationCommand(method.getAnnotation(Command.class), method, container, command, subhandler, mi));
-            } else {
-                // Just register the command.
-                commands.add(new LeafAnnotationCommand(method.getAnnotation(Command.class), method, container, mi));
-            }
+            // Bind the method using the backend of the handler.
+            this.register(registrar, container, registrar.getInvocationBackend().bind(method), commands);
         }
 
         return commands;
     }
+
+    /**
+     * Creates the command of a bound method.
+     * @param registrar  The handler that registers the command.
+     * @param container  The instance of the command listener.
+     * @param invocation The bound method.
+     * @param commands   The list the command is added to.
+     */
+    private void register(CommandHandler registrar, Object container, Invocation invocation, List<CommandContainer> commands) {
+        Method method = invocation.getMethod();
+
+        // Determine the correct method invoker.
+        MethodInvoker mi;
+        if (InjectionInvoker.isInjectionCommand(method))
+            mi = new InjectionInvoker(BindingPlan.compile(method, registrar));
+        else
+            mi = MethodInvoker.DEFAULT;
+
+        // Support for subcommands.
+        if (method.isAnnotationPresent(SubCommand.class)) {
+            SubCommand command = method.getAnnotation(SubCommand.class);
+
+            // The sub-handler is built when it is needed first.
+            LazyHandler subhandler = new LazyHandler(registrar, command.value());
+
+            // Register the command.
+            commands.add(new BranchAnnotationCommand(method.getAnnotation(Command.class), invocation, container, command, subhandler, mi));
+        } else {
+            // Just register the command.
+            commands.add(new LeafAnnotationCommand(method.getAnnotation(Command.class), invocation, container, mi));
+        }
+    }
 }
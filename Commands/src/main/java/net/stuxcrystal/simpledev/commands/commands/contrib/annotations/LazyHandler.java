@@ -0,0 +1,84 @@
+package net.stuxcrystal.simpledev.commands.commands.contrib.annotations;
+
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+
+/**
+ * <p>Builds the command handler of a {@link SubCommand} the first time it is needed.</p>
+ *
+ * <p>
+ *     The classes of the sub-command are instantiated and registered when the branch is dispatched into
+ *     for the first time. Use {@link CommandHandler#warmUp()} to build all handlers when the plugin is enabled.
+ * </p>
+ */
+public class LazyHandler {
+
+    /**
+     * The handler that creates the child handler.
+     */
+    private final CommandHandler parent;
+
+    /**
+     * The classes containing the sub-commands.
+     */
+    private final Class<?>[] classes;
+
+    /**
+     * The handler or {@code null} if it has not been built yet.
+     */
+    private volatile CommandHandler handler;
+
+    /**
+     * Creates a new lazy handler.
+     * @param parent  The handler that creates the child handler.
+     * @param classes The classes containing the sub-commands.
+     */
+    public LazyHandler(CommandHandler parent, Class<?>[] classes) {
+        this.parent = parent;
+        this.classes = classes.clone();
+        this.handler = null;
+    }
+
+    /**
+     * Wraps a handler that has already been built.
+     * @param handler The handler.
+     */
+    public LazyHandler(CommandHandler handler) {
+        this.parent = null;
+        this.classes = null;
+        this.handler = handler;
+    }
+
+    /**
+     * Returns the handler and builds it if it has not been built yet.
+     * @return The handler.
+     */
+    public CommandHandler get() {
+        CommandHandler handler = this.handler;
+        if (handler != null)
+            return handler;
+
+        synchronized (this) {
+            if (this.handler == null) {
+                handler = this.parent.createChildHandler();
+
+                // Populate the command handler.
+                for (Class<?> cls : this.classes) {
+                    Object current = AnnotationCommandLoader.newInstance(cls);
+                    if (current != null)
+                        handler.registerCommands(current);
+                }
+
+                this.handler = handler;
+            }
+            return this.handler;
+        }
+    }
+
+    /**
+     * Checks if the handler has been built.
+     * @return {@code true} if the handler has been built.
+     */
+    public boolean isBuilt() {
+        return this.handler != null;
+    }
+}
@@ -2,6 +2,7 @@ package net.stuxcrystal.simpledev.commands.commands.contrib.annotations;
 
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
 import net.stuxcrystal.simpledev.commands.arguments.ArgumentList;
+import net.stuxcrystal.simpledev.commands.invocation.Invocation;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -40,6 +41,22 @@ public abstract class MethodInvoker {
                 throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
             method.invoke(instance, executor, list);
         }
+
+        /**
+         * Just invoke the bound method.
+         * @param invocation The bound method that should be invoked.
+         * @param instance   The instance of the method
+         * @param executor   The executor that executes the function.
+         * @param list       The argument list that should be used.
+         * @throws IllegalAccessException     If we failed to access the command.
+         * @throws IllegalArgumentException   If the wrong arguments were passed.
+         * @throws InvocationTargetException  If the invoker throwed an exception.
+         */
+        @Override
+        public void invoke(Invocation invocation, Object instance, CommandExecutor executor, ArgumentList list)
+                throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+            invocation.invoke(instance, executor, list);
+        }
     }
 
     /**
@@ -55,4 +72,22 @@ public abstract class MethodInvoker {
     public abstract void invoke(Method method, Object instance, CommandExecutor executor, ArgumentList list)
             throws IllegalAccessException, IllegalArgumentException, InvocationTargetException;
 
+    /**
+     * Invokes a bound method.<p />
+     *
+     * Invokers that do not override this method call the method using reflection.
+     *
+     * @param invocation The bound method that should be invoked.
+     * @param instance   The instance of the method
+     * @param executor   The executor that executes the function.
+     * @param list       The argument list that should be used.
+     * @throws IllegalAccessException     If we failed to access the command.
+     * @throws IllegalArgumentException   If the wrong arguments were passed.
+     * @throws InvocationTargetException  If the invoker throwed an exception.
+     */
+    public void invoke(Invocation invocation, Object instance, CommandExecutor executor, ArgumentList list)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        this.invoke(invocation.getMethod(), instance, executor, list);
+    }
+
 }
@@ -0,0 +1,399 @@
+package net.stuxcrystal.simpledev.commands.commands.contrib.annotations.autoparse;
+
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+import net.stuxcrystal.simpledev.commands.arguments.ArgumentHandler;
+import net.stuxcrystal.simpledev.commands.arguments.ArgumentList;
+import net.stuxcrystal.simpledev.commands.arguments.ParseResult;
+import net.stuxcrystal.simpledev.commands.arguments.iterators.ArgumentContainer;
+import net.stuxcrystal.simpledev.commands.arguments.types.PrimitiveType;
+import net.stuxcrystal.simpledev.commands.utils.HandleWrapper;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * <p>Describes how the parameters of an injection command are filled.</p>
+ *
+ * <p>
+ *     The annotations of the parameters are read once when the command is registered. Each parameter
+ *     gets a binding that extracts its value, so invoking the command only has to fill the parameter array.
+ * </p>
+ */
+public final class BindingPlan {
+
+    /**
+     * Marks arguments without a default value.
+     */
+    private static final String REQUIRED = "§";
+
+    /**
+     * Extracts the value of a parameter.
+     */
+    private static abstract class Binding {
+
+        /**
+         * Returns the value of the parameter.
+         * @param executor The executor of the command.
+         * @param list     The arguments of the command.
+         * @return The value of the parameter.
+         */
+        abstract Object bind(CommandExecutor executor, ArgumentList list);
+    }
+
+    /**
+     * Binds the executor.
+     */
+    private static final class ExecutorBinding extends Binding {
+
+        @Override
+        Object bind(CommandExecutor executor, ArgumentList list) {
+            return executor;
+        }
+    }
+
+    /**
+     * Binds the backend.
+     */
+    private static final class BackendBinding extends Binding {
+
+        @Override
+        Object bind(CommandExecutor executor, ArgumentList list) {
+            return executor.getBackend();
+        }
+    }
+
+    /**
+     * Binds a flag.
+     */
+    private static final class FlagBinding extends Binding {
+
+        /**
+         * The flag.
+         */
+        private final char flag;
+
+        /**
+         * Creates a new binding.
+         * @param flag The flag.
+         */
+        private FlagBinding(char flag) {
+            this.flag = flag;
+        }
+
+        @Override
+        Object bind(CommandExecutor executor, ArgumentList list) {
+            return list.hasFlag(this.flag);
+        }
+    }
+
+    /**
+     * Binds a single argument.
+     */
+    private static final class ArgumentBinding extends Binding {
+
+        /**
+         * The index of the argument.
+         */
+        private final int index;
+
+        /**
+         * The type of the argument.
+         */
+        private final Class<?> type;
+
+        /**
+         * The default value or {@code null} if the argument is required.
+         */
+        private final String defaultValue;
+
+        /**
+         * Has the default value been converted when the command was registered?
+         */
+        private final boolean converted;
+
+        /**
+         * The converted default value.
+         */
+        private final Object convertedValue;
+
+        /**
+         * Creates a new binding.
+         * @param index        The index of the argument.
+         * @param type         The type of the argument.
+         * @param defaultValue The default value or {@code null} if the argument is required.
+         * @param registrar    The handler that registers the command.
+         */
+        private ArgumentBinding(int index, Class<?> type, String defaultValue, CommandHandler registrar) {
+            this.index = index;
+            this.type = type;
+            this.defaultValue = defaultValue;
+
+            // Strings, primitives and enums do not depend on the executor. Convert them now.
+            Class<?> wrapped = type.isPrimitive() ? PrimitiveType.wrap(type) : type;
+            boolean converted = false;
+            Object convertedValue = null;
+            if (defaultValue != null && registrar != null && BindingPlan.isConstant(wrapped)) {
+                ParseResult result = registrar.getArgumentHandler().tryConvert(
+                        defaultValue, wrapped, null, registrar.getServerBackend()
+                );
+
+                // Otherwise convert the value on invocation, so the error is reported to the executor.
+                if (result.isSuccess()) {
+                    convertedValue = result.getValue();
+                    converted = true;
+                }
+            }
+            this.converted = converted;
+            this.convertedValue = convertedValue;
+        }
+
+        /**
+         * Returns the default value.
+         * @param executor The executor of the command.
+         * @return The converted default value.
+         */
+        private Object getDefault(CommandExecutor executor) {
+            if (this.converted)
+                return this.convertedValue;
+
+            ArgumentHandler handler = executor.getCommandHandler().getArgumentHandler();
+            return handler.convertType(this.defaultValue, this.type, executor, executor.getBackend());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object bind(CommandExecutor executor, ArgumentList list) {
+            if (this.defaultValue == null)
+                return list.get(this.index, this.type);
+
+            // The default value is only needed if the argument is missing or invalid.
+            ParseResult result = list.tryGet(this.index, this.type);
+            if (result.isSuccess())
+                return result.getValue();
+            return this.getDefault(executor);
+        }
+    }
+
+    /**
+     * Binds a slice of the arguments.
+     */
+    private static final class SliceBinding extends Binding {
+
+        /**
+         * The first index.
+         */
+        private final int start;
+
+        /**
+         * The last index or {@code null} if the slice ends at the last argument.
+         */
+        private final Integer stop;
+
+        /**
+         * The step.
+         */
+        private final int step;
+
+        /**
+         * The component type of the array or {@code null} if the container is bound.
+         */
+        private final Class<?> componentType;
+
+        /**
+         * Creates a new binding.
+         * @param start         The first index.
+         * @param stop          The last index or {@code null}.
+         * @param step          The step.
+         * @param componentType The component type of the array or {@code null}.
+         */
+        private SliceBinding(int start, Integer stop, int step, Class<?> componentType) {
+            this.start = start;
+            this.stop = stop;
+            this.step = step;
+            this.componentType = componentType;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object bind(CommandExecutor executor, ArgumentList list) {
+            ArgumentContainer container = list.slice(this.start, this.stop, this.step);
+            if (this.componentType == null)
+                return container;
+            return container.as(this.componentType).toArray();
+        }
+    }
+
+    /**
+     * Replaces the bound wrappers by one of their components.
+     */
+    private static final class ComponentBinding extends Binding {
+
+        /**
+         * The binding that returns the wrapper.
+         */
+        private final Binding parent;
+
+        /**
+         * The interface of the component.
+         */
+        private final Class<?> component;
+
+        /**
+         * Are arrays of wrappers bound?
+         */
+        private final boolean array;
+
+        /**
+         * Creates a new binding.
+         * @param parent    The binding that returns the wrapper.
+         * @param component The interface of the component.
+         * @param array     Are arrays of wrappers bound?
+         */
+        private ComponentBinding(Binding parent, Class<?> component, boolean array) {
+            this.parent = parent;
+            this.component = component;
+            this.array = array;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object bind(CommandExecutor executor, ArgumentList list) {
+            Object value = this.parent.bind(executor, list);
+
+            if (this.array) {
+                if (value == null || !value.getClass().isArray()
+                        || !HandleWrapper.class.isAssignableFrom(value.getClass().getComponentType()))
+                    return value;
+
+                int length = Array.getLength(value);
+                Object result = Array.newInstance(this.component, length);
+                for (int index = 0; index < length; index++)
+                    Array.set(result, index, ((HandleWrapper) Array.get(value, index)).getComponent(this.component));
+                return result;
+            }
+
+            if (!(value instanceof HandleWrapper))
+                return value;
+            return ((HandleWrapper) value).getComponent(this.component);
+        }
+    }
+
+    /**
+     * The bindings of the parameters.
+     */
+    private final Binding[] bindings;
+
+    /**
+     * Creates a new plan.
+     * @param bindings The bindings of the parameters.
+     */
+    private BindingPlan(Binding[] bindings) {
+        this.bindings = bindings;
+    }
+
+    /**
+     * Checks if values of the type can be converted without an executor.
+     * @param type The wrapped type.
+     * @return {@code true} if the value can be converted when the command is registered.
+     */
+    private static boolean isConstant(Class<?> type) {
+        return type.equals(String.class) || Arrays.asList(PrimitiveType.WRAPPER_TYPES).contains(type) || type.isEnum();
+    }
+
+    /**
+     * Compiles the binding plan of the method.
+     * @param method    The method.
+     * @param registrar The handler that registers the command. Used to convert the default values.
+     *                  May be {@code null}; the default values are then converted on invocation.
+     * @return The plan.
+     * @throws IllegalArgumentException If a parameter is not annotated.
+     */
+    public static BindingPlan compile(Method method, CommandHandler registrar) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        Class<?>[] types = method.getParameterTypes();
+        Binding[] bindings = new Binding[types.length];
+
+        for (int i = 0; i < types.length; i++) {
+            Class<?> paramType = types[i];
+            Binding binding = null;
+            boolean component = false;
+
+            // The last annotation wins.
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Argument) {
+                    binding = BindingPlan.compileArgument((Argument) annotation, paramType, registrar);
+                } else if (annotation instanceof Backend) {
+                    binding = new BackendBinding();
+                } else if (annotation instanceof Executor) {
+                    binding = new ExecutorBinding();
+                } else if (annotation instanceof Flag) {
+                    binding = new FlagBinding(((Flag) annotation).value());
+                } else if (annotation instanceof Component) {
+                    component = true;
+                }
+            }
+
+            if (binding == null)
+                throw new IllegalArgumentException("Undescribed parameter found: " + i + " in " + method);
+
+            if (component) {
+                if (paramType.isArray())
+                    binding = new ComponentBinding(binding, paramType.getComponentType(), true);
+                else
+                    binding = new ComponentBinding(binding, paramType, false);
+            }
+
+            bindings[i] = binding;
+        }
+
+        return new BindingPlan(bindings);
+    }
+
+    /**
+     * Compiles the binding of an argument.
+     * @param argument  The annotation.
+     * @param paramType The type of the parameter.
+     * @param registrar The handler that registers the command.
+     * @return The binding.
+     */
+    private static Binding compileArgument(Argument argument, Class<?> paramType, CommandHandler registrar) {
+        // Get the desired argument type.
+        Class<?> type = argument.type();
+        if (type.equals(void.class))
+            type = paramType;
+
+        // This is an array, we will enter array parsing mode.
+        if (type.isArray() || type.equals(ArgumentContainer.class)) {
+            Integer stop = argument.stop();
+            if (stop == Integer.MAX_VALUE)
+                stop = null;
+            return new SliceBinding(argument.value(), stop, argument.step(), type.isArray() ? type.getComponentType() : null);
+        }
+
+        String defaultValue = argument.defaultValue();
+        if (BindingPlan.REQUIRED.equals(defaultValue))
+            defaultValue = null;
+        return new ArgumentBinding(argument.value(), type, defaultValue, registrar);
+    }
+
+    /**
+     * Fills the parameters of the method.
+     * @param executor The executor of the command.
+     * @param list     The arguments of the command.
+     * @return The values of the parameters.
+     * @throws IllegalArgumentException If a parameter could not be filled.
+     */
+    public Object[] bind(CommandExecutor executor, ArgumentList list) {
+        Object[] values = new Object[this.bindings.length];
+        for (int i = 0; i < values.length; i++) {
+            Object value = this.bindings[i].bind(executor, list);
+            if (value == null)
+                throw new IllegalArgumentException("Undescribed parameter found: " + i);
+            values[i] = value;
+        }
+        return values;
+    }
+}
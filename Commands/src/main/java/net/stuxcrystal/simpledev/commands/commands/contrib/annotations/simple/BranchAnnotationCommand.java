@@ -3,7 +3,10 @@ package net.stuxcrystal.simpledev.commands.commands.contrib.annotations.simple;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
 import net.stuxcrystal.simpledev.commands.CommandHandler;
 import net.stuxcrystal.simpledev.commands.arguments.ArgumentList;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
+import net.stuxcrystal.simpledev.commands.commands.BranchContainer;
 import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.*;
+import net.stuxcrystal.simpledev.commands.invocation.Invocation;
 import net.stuxcrystal.simpledev.commands.translations.TranslationManager;
 
 import java.lang.reflect.Method;
@@ -11,7 +14,7 @@ import java.lang.reflect.Method;
 /**
  * A command with subcommands.
  */
-public class BranchAnnotationCommand extends AnnotationBasedCommand {
+public class BranchAnnotationCommand extends AnnotationBasedCommand implements BranchContainer {
 
     /**
      * The subcommand metadata
@@ -21,7 +24,7 @@ public class BranchAnnotationCommand extends AnnotationBasedCommand {
     /**
      * The command-handler that contains the sub-command.
      */
-    private final CommandHandler cHandler;
+    private final LazyHandler cHandler;
 
     /**
      * Creates a new annotation based command.
@@ -35,6 +38,34 @@ public class BranchAnnotationCommand extends AnnotationBasedCommand {
     public BranchAnnotationCommand(Command command, Method method, Object instance, SubCommand subcommand, CommandHandler cHandler, MethodInvoker invoker) {
         super(command, method, instance, invoker);
         this.subcommand = subcommand;
+        this.cHandler = new LazyHandler(cHandler);
+    }
+
+    /**
+     * Creates a new annotation based command.
+     * @param command    The command metadata.
+     * @param invocation The bound method to execute.
+     * @param instance   The instance of the command metadata.
+     * @param subcommand The subcommand metadata.
+     * @param cHandler   The command handler.
+     * @param invoker    The way how the method will be invoked.
+     */
+    public BranchAnnotationCommand(Command command, Invocation invocation, Object instance, SubCommand subcommand, CommandHandler cHandler, MethodInvoker invoker) {
+        this(command, invocation, instance, subcommand, new LazyHandler(cHandler), invoker);
+    }
+
+    /**
+     * Creates a new annotation based command whose sub-command handler is built when it is needed first.
+     * @param command    The command metadata.
+     * @param invocation The bound method to execute.
+     * @param instance   The instance of the command metadata.
+     * @param subcommand The subcommand metadata.
+     * @param cHandler   The lazily built command handler.
+     * @param invoker    The way how the method will be invoked.
+     */
+    public BranchAnnotationCommand(Command command, Invocation invocation, Object instance, SubCommand subcommand, LazyHandler cHandler, MethodInvoker invoker) {
+        super(command, invocation, instance, invoker);
+        this.subcommand = subcommand;
         this.cHandler = cHandler;
     }
 
@@ -47,6 +78,20 @@ public class BranchAnnotationCommand extends AnnotationBasedCommand {
         return false;
     }
 
+    @Override
+    public CommandHandler getSubCommandHandler() {
+        return this.cHandler.get();
+    }
+
+    /**
+     * The command is routable if the method itself is never called and no flags are parsed.
+     * @return {@code true} if the dispatcher can route directly into the sub-handler.
+     */
+    @Override
+    public boolean isRoutable() {
+        return this.subcommand.time() == CallTime.NEVER && this.getSupportedFlags().isEmpty();
+    }
+
     @Override
     public void execute(CommandExecutor executor, ArgumentList parser) {
         CommandHandler handler = executor.getCommandHandler();
@@ -61,24 +106,20 @@ public class BranchAnnotationCommand extends AnnotationBasedCommand {
 
         // Parse the command list.
         SubCommand command = this.subcommand;
+        CommandLine line = parser.getCommandLine();
         String name;
-        String[] args;
 
         // Parse the command.
-        if (parser.size() == 0) {
+        if (line.isEmpty()) {
             // An empty name represents a call without an argument
             name = CommandHandler.FALLBACK_COMMAND_NAME;
-            args = new String[0];
-        } else if (parser.size() == 1) {
-            name = parser.getString(0);
-            args = new String[0];
         } else {
-            name = parser.getString(0);
-            args = (String[])parser.from(1).copy().toArray();
+            name = line.get(0);
+            line = line.from(1);
         }
 
         // Executes the subcommand.
-        if (!this.cHandler.execute(executor, name, args)) {
+        if (!this.getSubCommandHandler().execute(executor, name, line)) {
             boolean notFound = true;
             if (command.time() == CallTime.FALLBACK) {
                 notFound = !_execute(executor, parser);
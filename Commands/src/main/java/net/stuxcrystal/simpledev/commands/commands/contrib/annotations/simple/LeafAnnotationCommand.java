@@ -5,6 +5,7 @@ import net.stuxcrystal.simpledev.commands.arguments.ArgumentList;
 import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.AnnotationBasedCommand;
 import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.Command;
 import net.stuxcrystal.simpledev.commands.commands.contrib.annotations.MethodInvoker;
+import net.stuxcrystal.simpledev.commands.invocation.Invocation;
 
 import java.lang.reflect.Method;
 
@@ -25,6 +26,18 @@ public class LeafAnnotationCommand extends AnnotationBasedCommand {
         super(command, method, instance, invoker);
     }
 
+    /**
+     * Creates a new annotation based command.
+     *
+     * @param command    The command metadata.
+     * @param invocation The bound method to execute.
+     * @param instance   The instance of the command metadata.
+     * @param invoker    The way how the method will be invoked.
+     */
+    public LeafAnnotationCommand(Command command, Invocation invocation, Object instance, MethodInvoker invoker) {
+        super(command, invocation, instance, invoker);
+    }
+
     /**
      * For the LeafAnnotationCommand
      * @param sender    The executor that has executed the command.
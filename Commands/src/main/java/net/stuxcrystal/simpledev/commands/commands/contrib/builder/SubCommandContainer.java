@@ -3,13 +3,14 @@ package net.stuxcrystal.simpledev.commands.commands.contrib.builder;
 import net.stuxcrystal.simpledev.commands.CommandExecutor;
 import net.stuxcrystal.simpledev.commands.CommandHandler;
 import net.stuxcrystal.simpledev.commands.arguments.ArgumentList;
+import net.stuxcrystal.simpledev.commands.commands.BranchContainer;
 
 import java.util.List;
 
 /**
  * Container that contains a sub-command.
  */
-public class SubCommandContainer extends SimpleCommandContainer {
+public class SubCommandContainer extends SimpleCommandContainer implements BranchContainer {
 
     private final CommandHandler subhandler;
 
@@ -18,9 +19,23 @@ public class SubCommandContainer extends SimpleCommandContainer {
         this.subhandler = subhandler;
     }
 
+    @Override
+    public CommandHandler getSubCommandHandler() {
+        return this.subhandler;
+    }
+
+    /**
+     * The container is routable if it doesn't parse any flags.
+     * @return {@code true} if the dispatcher can route directly into the sub-handler.
+     */
+    @Override
+    public boolean isRoutable() {
+        return this.getSupportedFlags().isEmpty();
+    }
+
     @Override
     public void execute(CommandExecutor executor, ArgumentList parser) {
         // Use the execute method created for this use
-        this.subhandler.execute(executor, (String[])parser.copy().toArray());
+        this.subhandler.execute(executor, parser.getCommandLine());
     }
 }
@@ -0,0 +1,180 @@
+package net.stuxcrystal.simpledev.commands.completion;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Caches completions by their type and prefix.</p>
+ *
+ * <p>
+ *     Entries expire after a fixed time. If the cache is full the entry that has not been used for the
+ *     longest time is removed.
+ * </p>
+ *
+ * <p>
+ *     As the completions of a prefix contain all completions of longer prefixes, a request for a prefix that has
+ *     not been cached is answered by filtering the completions of the longest cached shorter prefix.
+ * </p>
+ */
+public class CompletionCache {
+
+    /**
+     * The key of an entry.
+     */
+    private static final class Key {
+
+        /**
+         * The type that is completed.
+         */
+        private final Object type;
+
+        /**
+         * The lower-cased prefix.
+         */
+        private final String prefix;
+
+        /**
+         * Creates a new key.
+         * @param type   The type that is completed.
+         * @param prefix The lower-cased prefix.
+         */
+        private Key(Object type, String prefix) {
+            this.type = type;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return this.type.equals(key.type) && this.prefix.equals(key.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.type.hashCode() + this.prefix.hashCode();
+        }
+    }
+
+    /**
+     * A cached value.
+     */
+    private static final class CachedCompletions {
+
+        /**
+         * The completions.
+         */
+        private final List<String> values;
+
+        /**
+         * The time the entry expires in nanoseconds.
+         */
+        private final long expires;
+
+        /**
+         * Creates a new entry.
+         * @param values  The completions.
+         * @param expires The time the entry expires.
+         */
+        private CachedCompletions(List<String> values, long expires) {
+            this.values = values;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * The entries, ordered by their last access.
+     */
+    private final LinkedHashMap<Key, CachedCompletions> entries;
+
+    /**
+     * The time to live in nanoseconds.
+     */
+    private final long ttl;
+
+    /**
+     * Creates a new cache.
+     * @param size The maximal amount of entries.
+     * @param ttl  The time an entry stays valid.
+     * @param unit The unit of the time.
+     */
+    public CompletionCache(final int size, long ttl, TimeUnit unit) {
+        this.ttl = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<Key, CachedCompletions>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedCompletions> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    /**
+     * Folds the prefix, so the case is ignored.
+     * @param prefix The prefix.
+     * @return The folded prefix.
+     */
+    private static String fold(String prefix) {
+        return prefix.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * <p>Returns the cached completions.</p>
+     * <p>If the prefix has not been cached, the completions of a shorter prefix are filtered.</p>
+     *
+     * @param type   The type that is completed.
+     * @param prefix The prefix.
+     * @return The completions or {@code null} if there is no valid entry.
+     */
+    public synchronized List<String> get(Object type, String prefix) {
+        String folded = CompletionCache.fold(prefix);
+        long now = System.nanoTime();
+
+        for (int length = folded.length(); length >= 0; length--) {
+            Key key = new Key(type, folded.substring(0, length));
+            CachedCompletions entry = this.entries.get(key);
+            if (entry == null)
+                continue;
+
+            if (entry.expires - now < 0) {
+                this.entries.remove(key);
+                continue;
+            }
+
+            if (length == folded.length())
+                return entry.values;
+
+            // Narrow down the completions of the shorter prefix.
+            List<String> result = new ArrayList<>();
+            for (String value : entry.values) {
+                if (value.regionMatches(true, 0, prefix, 0, prefix.length()))
+                    result.add(value);
+            }
+            result = Collections.unmodifiableList(result);
+            this.entries.put(new Key(type, folded), new CachedCompletions(result, entry.expires));
+            return result;
+        }
+
+        return null;
+    }
+
+    /**
+     * Stores the completions.
+     * @param type   The type that is completed.
+     * @param prefix The prefix.
+     * @param values The completions.
+     * @return The stored, unmodifiable completions.
+     */
+    public synchronized List<String> put(Object type, String prefix, List<String> values) {
+        List<String> result = Collections.unmodifiableList(new ArrayList<>(values));
+        this.entries.put(new Key(type, CompletionCache.fold(prefix)), new CachedCompletions(result, System.nanoTime() + this.ttl));
+        return result;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+}
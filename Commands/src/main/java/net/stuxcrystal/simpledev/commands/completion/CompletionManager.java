@@ -0,0 +1,123 @@
+package net.stuxcrystal.simpledev.commands.completion;
+
+import net.stuxcrystal.simpledev.commands.arguments.CompletableType;
+import net.stuxcrystal.simpledev.commands.commands.CommandContainer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Stores the completion providers of the arguments of the commands.</p>
+ *
+ * <p>
+ *     The providers are stored in an immutable map that is replaced when a provider is registered,
+ *     so looking up a provider never locks.
+ * </p>
+ */
+public class CompletionManager {
+
+    /**
+     * Use this position to register a provider for all arguments without a provider of their own.
+     */
+    public static final int ANY_POSITION = -1;
+
+    /**
+     * Maps the commands to the providers of their arguments.<p />
+     *
+     * The last entry of each array is the provider for {@link #ANY_POSITION}.
+     */
+    private volatile Map<CommandContainer, CompletionProvider[]> providers = Collections.emptyMap();
+
+    /**
+     * Caches the completions of the argument types.
+     */
+    private final CompletionCache cache = new CompletionCache(512, 5, TimeUnit.SECONDS);
+
+    /**
+     * Registers a completion provider for an argument.
+     * @param command  The command.
+     * @param position The index of the argument or {@link #ANY_POSITION}.
+     * @param provider The provider.
+     */
+    public synchronized void registerProvider(CommandContainer command, int position, CompletionProvider provider) {
+        if (position < ANY_POSITION)
+            throw new IllegalArgumentException("Invalid argument position: " + position);
+
+        CompletionProvider[] current = this.providers.get(command);
+        if (current == null)
+            current = new CompletionProvider[1];
+
+        CompletionProvider[] result;
+        if (position == ANY_POSITION) {
+            result = current.clone();
+            result[result.length - 1] = provider;
+        } else {
+            // Keep the fallback provider at the last index.
+            result = Arrays.copyOf(current, Math.max(current.length, position + 2));
+            result[result.length - 1] = current[current.length - 1];
+            if (result.length != current.length)
+                result[current.length - 1] = null;
+            result[position] = provider;
+        }
+
+        Map<CommandContainer, CompletionProvider[]> providers = new IdentityHashMap<>(this.providers);
+        providers.put(command, result);
+        this.providers = providers;
+    }
+
+    /**
+     * Registers a provider that completes the argument using the {@link CompletableType} of its class.
+     * @param command  The command.
+     * @param position The index of the argument or {@link #ANY_POSITION}.
+     * @param type     The class of the argument.
+     */
+    public void registerType(CommandContainer command, int position, Class<?> type) {
+        this.registerProvider(command, position, new TypeCompletionProvider(type, this.cache, 100, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Removes all completion providers of the command.
+     * @param command The command.
+     */
+    public synchronized void unregisterProviders(CommandContainer command) {
+        if (!this.providers.containsKey(command))
+            return;
+
+        Map<CommandContainer, CompletionProvider[]> providers = new IdentityHashMap<>(this.providers);
+        providers.remove(command);
+        this.providers = providers;
+    }
+
+    /**
+     * Returns the cache used by the providers of the argument types.
+     * @return The cache.
+     */
+    public CompletionCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Returns the provider for the argument.
+     * @param command  The command.
+     * @param position The index of the argument.
+     * @return The provider or {@code null} if there is no provider for the argument.
+     */
+    public CompletionProvider getProvider(CommandContainer command, int position) {
+        CompletionProvider[] providers = this.providers.get(command);
+        if (providers != null) {
+            if (position < providers.length - 1 && providers[position] != null)
+                return providers[position];
+            if (providers[providers.length - 1] != null)
+                return providers[providers.length - 1];
+        }
+
+        // Commands can complete their own arguments.
+        if (command instanceof CompletionProvider)
+            return (CompletionProvider) command;
+
+        return null;
+    }
+}
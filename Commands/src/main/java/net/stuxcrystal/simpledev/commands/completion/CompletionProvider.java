@@ -0,0 +1,28 @@
+package net.stuxcrystal.simpledev.commands.completion;
+
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
+
+import java.util.List;
+
+/**
+ * <p>Provides completions for an argument of a command.</p>
+ *
+ * <p>
+ *     Command containers implementing this interface are used as the provider for all of their
+ *     arguments that have no provider of their own.
+ * </p>
+ */
+public interface CompletionProvider {
+
+    /**
+     * Returns the completions for the argument.
+     *
+     * @param executor  The executor that requests the completions.
+     * @param arguments The arguments before the argument that is being completed.
+     * @param prefix    The part of the argument that has already been typed.
+     * @return The completions. Must not be {@code null}.
+     */
+    public List<String> complete(CommandExecutor executor, CommandLine arguments, String prefix);
+
+}
@@ -0,0 +1,280 @@
+package net.stuxcrystal.simpledev.commands.completion;
+
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.commands.CommandDescriptor;
+
+import java.util.*;
+
+/**
+ * <p>Prefix trie over the names and aliases of a set of compiled commands.</p>
+ *
+ * <p>
+ *     The keys are compared ignoring their case. All keys are stored in a single sorted array, each node of the
+ *     trie only knows the range of keys starting with its prefix. Looking up a prefix only walks over the
+ *     characters of the prefix.
+ * </p>
+ *
+ * <p>
+ *     The completions of a prefix are computed once and cached inside its node. Only prefixes matching commands
+ *     that are not available to every executor are filtered for each request.
+ * </p>
+ */
+public final class CompletionTrie {
+
+    /**
+     * A trie without any commands.
+     */
+    public static final CompletionTrie EMPTY = new CompletionTrie(Collections.<CommandDescriptor>emptyList());
+
+    /**
+     * A node inside the trie.
+     */
+    private static final class Node {
+
+        /**
+         * The characters of the children, sorted.
+         */
+        private final char[] labels;
+
+        /**
+         * The children of the node.
+         */
+        private final Node[] children;
+
+        /**
+         * The first key starting with the prefix of this node (inclusive).
+         */
+        private final int from;
+
+        /**
+         * The last key starting with the prefix of this node (exclusive).
+         */
+        private final int to;
+
+        /**
+         * The cached completions for this prefix.
+         */
+        private volatile List<String> completions = null;
+
+        /**
+         * Creates a new node.
+         * @param labels   The characters of the children.
+         * @param children The children.
+         * @param from     The first key (inclusive).
+         * @param to       The last key (exclusive).
+         */
+        private Node(char[] labels, Node[] children, int from, int to) {
+            this.labels = labels;
+            this.children = children;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Returns the child for the character.
+         * @param c The folded character.
+         * @return The child or {@code null}.
+         */
+        private Node getChild(char c) {
+            int index = Arrays.binarySearch(this.labels, c);
+            if (index < 0)
+                return null;
+            return this.children[index];
+        }
+    }
+
+    /**
+     * The folded keys, sorted.
+     */
+    private final String[] keys;
+
+    /**
+     * The name or alias as it has been registered.
+     */
+    private final String[] names;
+
+    /**
+     * The command of each key.
+     */
+    private final CommandDescriptor[] commands;
+
+    /**
+     * The amount of restricted commands before each key.
+     */
+    private final int[] restricted;
+
+    /**
+     * The root of the trie.
+     */
+    private final Node root;
+
+    /**
+     * Builds a new trie.
+     * @param commands The compiled commands.
+     */
+    public CompletionTrie(Collection<CommandDescriptor> commands) {
+        List<Object[]> entries = new ArrayList<>();
+        for (CommandDescriptor command : commands) {
+            CompletionTrie.add(entries, command.getName(), command);
+            for (String alias : command.getAliases())
+                CompletionTrie.add(entries, alias, command);
+        }
+
+        // Sort by the folded key first, then by the actual name so equal names are next to each other.
+        Collections.sort(entries, new Comparator<Object[]>() {
+            @Override
+            public int compare(Object[] o1, Object[] o2) {
+                int result = ((String) o1[0]).compareTo((String) o2[0]);
+                if (result != 0)
+                    return result;
+                return ((String) o1[1]).compareTo((String) o2[1]);
+            }
+        });
+
+        int size = entries.size();
+        this.keys = new String[size];
+        this.names = new String[size];
+        this.commands = new CommandDescriptor[size];
+        this.restricted = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            Object[] entry = entries.get(i);
+            this.keys[i] = (String) entry[0];
+            this.names[i] = (String) entry[1];
+            this.commands[i] = (CommandDescriptor) entry[2];
+            this.restricted[i + 1] = this.restricted[i] + (this.commands[i].isRestricted() ? 1 : 0);
+        }
+
+        this.root = this.build(0, size, 0);
+    }
+
+    /**
+     * Adds a name to the entries.
+     * @param entries The entries.
+     * @param name    The name or alias.
+     * @param command The command.
+     */
+    private static void add(List<Object[]> entries, String name, CommandDescriptor command) {
+        // The fallback command can't be typed.
+        if (name.trim().isEmpty())
+            return;
+
+        entries.add(new Object[]{CompletionTrie.fold(name), name, command});
+    }
+
+    /**
+     * Folds the character the same way the keys are folded.
+     * @param c The character.
+     * @return The folded character.
+     */
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Folds the key.
+     * @param key The key.
+     * @return The folded key.
+     */
+    private static String fold(String key) {
+        char[] result = new char[key.length()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = CompletionTrie.fold(key.charAt(i));
+        return new String(result);
+    }
+
+    /**
+     * Builds the node for the given range of keys.
+     * @param from  The first key (inclusive).
+     * @param to    The last key (exclusive).
+     * @param depth The length of the prefix.
+     * @return The node.
+     */
+    private Node build(int from, int to, int depth) {
+        // Keys ending at this node come first.
+        int start = from;
+        while (start < to && this.keys[start].length() == depth)
+            start++;
+
+        // Count the children.
+        int count = 0;
+        for (int i = start; i < to; i++) {
+            if (i == start || this.keys[i].charAt(depth) != this.keys[i - 1].charAt(depth))
+                count++;
+        }
+
+        char[] labels = new char[count];
+        Node[] children = new Node[count];
+        int current = 0;
+        int childStart = start;
+        for (int i = start + 1; i <= to; i++) {
+            if (i == to || this.keys[i].charAt(depth) != this.keys[childStart].charAt(depth)) {
+                labels[current] = this.keys[childStart].charAt(depth);
+                children[current++] = this.build(childStart, i, depth + 1);
+                childStart = i;
+            }
+        }
+
+        return new Node(labels, children, from, to);
+    }
+
+    /**
+     * Returns the node of the prefix.
+     * @param prefix The prefix.
+     * @return The node or {@code null} if no key starts with this prefix.
+     */
+    private Node find(String prefix) {
+        Node node = this.root;
+        for (int i = 0, length = prefix.length(); i < length && node != null; i++)
+            node = node.getChild(CompletionTrie.fold(prefix.charAt(i)));
+        return node;
+    }
+
+    /**
+     * <p>Returns all names and aliases starting with the prefix that the executor can use.</p>
+     * <p>The case of the prefix is ignored.</p>
+     *
+     * @param executor The executor that requests the completions.
+     * @param prefix   The prefix.
+     * @return An unmodifiable list of names.
+     */
+    public List<String> complete(CommandExecutor executor, String prefix) {
+        Node node = this.find(prefix);
+        if (node == null)
+            return Collections.emptyList();
+
+        // Fast path: The completions don't depend on the executor.
+        if (this.restricted[node.to] == this.restricted[node.from]) {
+            List<String> completions = node.completions;
+            if (completions == null)
+                node.completions = completions = this.collect(node, null, 0);
+            return completions;
+        }
+
+        return this.collect(node, executor, CommandDescriptor.getSenderType(executor));
+    }
+
+    /**
+     * Collects the names of the node.
+     * @param node     The node.
+     * @param executor The executor or {@code null} if the commands should not be checked.
+     * @param sender   The sender type of the executor.
+     * @return An unmodifiable list of names.
+     */
+    private List<String> collect(Node node, CommandExecutor executor, int sender) {
+        boolean permissions = executor != null && executor.getCommandHandler().isPermissionsSupported(executor);
+
+        List<String> result = new ArrayList<>(node.to - node.from);
+        String last = null;
+        for (int i = node.from; i < node.to; i++) {
+            if (executor != null && !this.commands[i].canExecute(executor, sender, permissions))
+                continue;
+
+            // Equal names are next to each other.
+            if (this.names[i].equals(last))
+                continue;
+
+            result.add(last = this.names[i]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,417 @@
+package net.stuxcrystal.simpledev.commands.completion;
+
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.commands.CommandDescriptor;
+import net.stuxcrystal.simpledev.commands.commands.CommandTable;
+
+import java.util.*;
+
+/**
+ * <p>BK-tree over the names and aliases of a set of compiled commands.</p>
+ *
+ * <p>
+ *     Finds the names that are similar to a mistyped name. The names are compared ignoring their case using the
+ *     edit distance. Only the subtrees that can contain names within the requested distance are searched, and
+ *     every search visits a bounded amount of nodes, so a miss never scans all commands.
+ * </p>
+ *
+ * <p>
+ *     The tree is immutable. Adding commands copies the nodes on the path to the new names only, so the tree of a
+ *     new snapshot shares most of its nodes with the tree it has been created from. Removed names leave empty
+ *     nodes behind that the search skips. The tree is rebuilt once there are more empty nodes than names.
+ * </p>
+ */
+public final class SuggestionTree {
+
+    /**
+     * A tree without any commands.
+     */
+    public static final SuggestionTree EMPTY = new SuggestionTree(null, 0, 0);
+
+    /**
+     * Longer names are neither indexed nor searched.
+     */
+    public static final int MAX_LENGTH = 64;
+
+    /**
+     * The maximal amount of nodes a single search visits.
+     */
+    private static final int MAX_VISITS = 512;
+
+    /**
+     * A node inside the tree.
+     */
+    private static final class Node {
+
+        /**
+         * The folded name.
+         */
+        private final String key;
+
+        /**
+         * The names and aliases as they have been registered. Empty if all of them have been removed.
+         */
+        private final String[] names;
+
+        /**
+         * The command of each name.
+         */
+        private final CommandDescriptor[] commands;
+
+        /**
+         * The distances to the children, sorted.
+         */
+        private final int[] distances;
+
+        /**
+         * The children in the order of their distances.
+         */
+        private final Node[] children;
+
+        /**
+         * Creates a new node.
+         * @param key       The folded name.
+         * @param names     The names as they have been registered.
+         * @param commands  The command of each name.
+         * @param distances The distances to the children.
+         * @param children  The children.
+         */
+        private Node(String key, String[] names, CommandDescriptor[] commands, int[] distances, Node[] children) {
+            this.key = key;
+            this.names = names;
+            this.commands = commands;
+            this.distances = distances;
+            this.children = children;
+        }
+
+        /**
+         * Returns a copy of this node with other names.
+         * @param names    The names.
+         * @param commands The command of each name.
+         * @return The new node.
+         */
+        private Node withNames(String[] names, CommandDescriptor[] commands) {
+            return new Node(this.key, names, commands, this.distances, this.children);
+        }
+    }
+
+    /**
+     * Changes a tree by copying the nodes on the changed paths.
+     */
+    private static final class Builder {
+
+        /**
+         * The root or {@code null} if the tree is empty.
+         */
+        private Node root;
+
+        /**
+         * The amount of indexed names.
+         */
+        private int names;
+
+        /**
+         * The amount of nodes without names.
+         */
+        private int empty;
+
+        /**
+         * Creates a new builder.
+         * @param tree The tree to change.
+         */
+        private Builder(SuggestionTree tree) {
+            this.root = tree.root;
+            this.names = tree.names;
+            this.empty = tree.empty;
+        }
+
+        /**
+         * Inserts the names and aliases of the commands.
+         * @param commands The commands.
+         */
+        private void insert(Collection<CommandDescriptor> commands) {
+            for (CommandDescriptor command : commands) {
+                this.root = this.insert(this.root, command.getName(), command);
+                for (String alias : command.getAliases())
+                    this.root = this.insert(this.root, alias, command);
+            }
+        }
+
+        /**
+         * Removes the names and aliases of the commands.
+         * @param commands The commands.
+         */
+        private void remove(Collection<CommandDescriptor> commands) {
+            for (CommandDescriptor command : commands) {
+                this.root = this.remove(this.root, command.getName(), command);
+                for (String alias : command.getAliases())
+                    this.root = this.remove(this.root, alias, command);
+            }
+        }
+
+        /**
+         * Inserts a name copying the nodes on its path.
+         * @param node    The root of the subtree or {@code null}.
+         * @param name    The name or alias.
+         * @param command The command.
+         * @return The new root of the subtree.
+         */
+        private Node insert(Node node, String name, CommandDescriptor command) {
+            // The fallback command can't be typed.
+            if (name.trim().isEmpty() || name.length() > SuggestionTree.MAX_LENGTH)
+                return node;
+
+            String key = CommandTable.fold(name);
+            if (node == null) {
+                this.names++;
+                return new Node(key, new String[]{name}, new CommandDescriptor[]{command}, new int[0], new Node[0]);
+            }
+
+            int distance = SuggestionTree.distance(key, node.key);
+            if (distance == 0) {
+                if (node.names.length == 0)
+                    this.empty--;
+                this.names++;
+
+                String[] names = Arrays.copyOf(node.names, node.names.length + 1);
+                CommandDescriptor[] commands = Arrays.copyOf(node.commands, node.commands.length + 1);
+                names[node.names.length] = name;
+                commands[node.commands.length] = command;
+                return node.withNames(names, commands);
+            }
+
+            int index = Arrays.binarySearch(node.distances, distance);
+            if (index >= 0) {
+                Node[] children = node.children.clone();
+                children[index] = this.insert(children[index], name, command);
+                return new Node(node.key, node.names, node.commands, node.distances, children);
+            }
+
+            // Add a new edge.
+            index = -index - 1;
+            int[] distances = new int[node.distances.length + 1];
+            Node[] children = new Node[node.children.length + 1];
+            System.arraycopy(node.distances, 0, distances, 0, index);
+            System.arraycopy(node.children, 0, children, 0, index);
+            distances[index] = distance;
+            children[index] = this.insert(null, name, command);
+            System.arraycopy(node.distances, index, distances, index + 1, node.distances.length - index);
+            System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+            return new Node(node.key, node.names, node.commands, distances, children);
+        }
+
+        /**
+         * Removes a name copying the nodes on its path. The node of the name stays in the tree.
+         * @param node    The root of the subtree or {@code null}.
+         * @param name    The name or alias.
+         * @param command The command.
+         * @return The new root of the subtree.
+         */
+        private Node remove(Node node, String name, CommandDescriptor command) {
+            if (node == null || name.trim().isEmpty() || name.length() > SuggestionTree.MAX_LENGTH)
+                return node;
+
+            int distance = SuggestionTree.distance(CommandTable.fold(name), node.key);
+            if (distance == 0) {
+                for (int i = 0; i < node.names.length; i++) {
+                    if (node.commands[i] != command || !node.names[i].equals(name))
+                        continue;
+
+                    this.names--;
+                    if (node.names.length == 1)
+                        this.empty++;
+
+                    String[] names = new String[node.names.length - 1];
+                    CommandDescriptor[] commands = new CommandDescriptor[names.length];
+                    System.arraycopy(node.names, 0, names, 0, i);
+                    System.arraycopy(node.names, i + 1, names, i, names.length - i);
+                    System.arraycopy(node.commands, 0, commands, 0, i);
+                    System.arraycopy(node.commands, i + 1, commands, i, commands.length - i);
+                    return node.withNames(names, commands);
+                }
+                return node;
+            }
+
+            int index = Arrays.binarySearch(node.distances, distance);
+            if (index < 0)
+                return node;
+
+            Node child = this.remove(node.children[index], name, command);
+            if (child == node.children[index])
+                return node;
+
+            Node[] children = node.children.clone();
+            children[index] = child;
+            return new Node(node.key, node.names, node.commands, node.distances, children);
+        }
+
+        /**
+         * Creates the tree.
+         * @return The tree.
+         */
+        private SuggestionTree build() {
+            if (this.empty <= this.names)
+                return new SuggestionTree(this.root, this.names, this.empty);
+
+            // Too many empty nodes slow down the search: Insert the remaining names into a new tree.
+            Builder rebuilt = new Builder(SuggestionTree.EMPTY);
+            Deque<Node> pending = new ArrayDeque<>();
+            if (this.root != null)
+                pending.push(this.root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                for (int i = 0; i < node.names.length; i++)
+                    rebuilt.root = rebuilt.insert(rebuilt.root, node.names[i], node.commands[i]);
+                for (Node child : node.children)
+                    pending.push(child);
+            }
+            return new SuggestionTree(rebuilt.root, rebuilt.names, rebuilt.empty);
+        }
+    }
+
+    /**
+     * The root of the tree.
+     */
+    private final Node root;
+
+    /**
+     * The amount of indexed names.
+     */
+    private final int names;
+
+    /**
+     * The amount of nodes without names.
+     */
+    private final int empty;
+
+    /**
+     * Creates a new tree.
+     * @param root  The root or {@code null} if the tree is empty.
+     * @param names The amount of indexed names.
+     * @param empty The amount of nodes without names.
+     */
+    private SuggestionTree(Node root, int names, int empty) {
+        this.root = root;
+        this.names = names;
+        this.empty = empty;
+    }
+
+    /**
+     * Returns a tree that also contains the given commands.
+     * @param commands The commands to add.
+     * @return The new tree. This tree is not changed.
+     */
+    public SuggestionTree with(Collection<CommandDescriptor> commands) {
+        return this.with(Collections.<CommandDescriptor>emptyList(), commands);
+    }
+
+    /**
+     * Returns a tree without the removed commands that contains the added commands.
+     * @param removed The commands to remove.
+     * @param added   The commands to add.
+     * @return The new tree. This tree is not changed.
+     */
+    public SuggestionTree with(Collection<CommandDescriptor> removed, Collection<CommandDescriptor> added) {
+        if (removed.isEmpty() && added.isEmpty())
+            return this;
+
+        Builder builder = new Builder(this);
+        builder.remove(removed);
+        builder.insert(added);
+        return builder.build();
+    }
+
+    /**
+     * <p>Returns the names and aliases similar to the given name that the executor can use.</p>
+     * <p>
+     *     The names are sorted by their distance, then alphabetically. Names the search did not reach within its
+     *     bounded amount of visited nodes are missing.
+     * </p>
+     *
+     * @param executor    The executor that mistyped the name.
+     * @param name        The mistyped name.
+     * @param maxDistance The maximal edit distance.
+     * @param limit       The maximal amount of names.
+     * @return An unmodifiable list of names.
+     */
+    public List<String> suggest(CommandExecutor executor, String name, int maxDistance, int limit) {
+        if (this.root == null || maxDistance < 0 || limit <= 0 || name.length() > SuggestionTree.MAX_LENGTH)
+            return Collections.emptyList();
+
+        String query = CommandTable.fold(name);
+        int sender = CommandDescriptor.getSenderType(executor);
+        boolean permissions = executor.getCommandHandler().isPermissionsSupported(executor);
+
+        // The matches, grouped by their distance.
+        List<List<String>> matches = new ArrayList<>(maxDistance + 1);
+        for (int i = 0; i <= maxDistance; i++)
+            matches.add(new ArrayList<String>());
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(this.root);
+        for (int visits = 0; !pending.isEmpty() && visits < SuggestionTree.MAX_VISITS; visits++) {
+            Node node = pending.pop();
+            int distance = SuggestionTree.distance(query, node.key);
+
+            if (distance <= maxDistance) {
+                for (int i = 0; i < node.names.length; i++) {
+                    if (node.commands[i].canExecute(executor, sender, permissions)) {
+                        matches.get(distance).add(node.names[i]);
+                        break;
+                    }
+                }
+            }
+
+            // Only children within [distance - maxDistance, distance + maxDistance] can contain matches.
+            int index = Arrays.binarySearch(node.distances, distance - maxDistance);
+            for (index = index < 0 ? -index - 1 : index; index < node.distances.length; index++) {
+                if (node.distances[index] > distance + maxDistance)
+                    break;
+                pending.push(node.children[index]);
+            }
+        }
+
+        List<String> result = new ArrayList<>();
+        for (List<String> names : matches) {
+            Collections.sort(names);
+            for (String match : names) {
+                if (result.size() == limit)
+                    return Collections.unmodifiableList(result);
+                result.add(match);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Computes the edit distance between two names.
+     * @param a The first name.
+     * @param b The second name.
+     * @return The amount of insertions, deletions and substitutions needed to turn one name into the other.
+     */
+    public static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String tmp = a;
+            a = b;
+            b = tmp;
+        }
+
+        // Only keep a single row of the matrix.
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j < row.length; j++)
+            row[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j < row.length; j++) {
+                int above = row[j];
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, above + 1), diagonal + cost);
+                diagonal = above;
+            }
+        }
+        return row[b.length()];
+    }
+}
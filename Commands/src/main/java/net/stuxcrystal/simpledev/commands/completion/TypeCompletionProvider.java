@@ -0,0 +1,148 @@
+package net.stuxcrystal.simpledev.commands.completion;
+
+import net.stuxcrystal.simpledev.commands.CommandBackend;
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.arguments.CommandLine;
+import net.stuxcrystal.simpledev.commands.arguments.CompletableType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+
+/**
+ * <p>Completes arguments using the {@link CompletableType} of their class.</p>
+ *
+ * <p>
+ *     The completions are computed asynchronously using {@link CommandBackend#scheduleAsync(Runnable)} and
+ *     stored in a {@link CompletionCache}. If an executor requests new completions while the previous request
+ *     of the executor has not been started yet, the previous request is cancelled.
+ * </p>
+ *
+ * <p>
+ *     Requests from the main thread never wait for the completions. They return the cached completions or
+ *     nothing, the completions will be available on the next request. Other threads wait for a short time.
+ * </p>
+ */
+public class TypeCompletionProvider implements CompletionProvider {
+
+    /**
+     * Does nothing. Used to create completed futures.
+     */
+    private static final Runnable NOTHING = new Runnable() {
+        @Override
+        public void run() {}
+    };
+
+    /**
+     * The class of the argument.
+     */
+    private final Class<?> type;
+
+    /**
+     * The cache that stores the completions.
+     */
+    private final CompletionCache cache;
+
+    /**
+     * The time other threads wait for the completions in nanoseconds.
+     */
+    private final long timeout;
+
+    /**
+     * The requests that have not been finished yet. Mapped by the handle of the executor.
+     */
+    private final ConcurrentMap<Object, Future<List<String>>> running = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new provider.
+     * @param type    The class of the argument.
+     * @param cache   The cache that stores the completions.
+     * @param timeout The time threads other than the main thread wait for the completions.
+     * @param unit    The unit of the timeout.
+     */
+    public TypeCompletionProvider(Class<?> type, CompletionCache cache, long timeout, TimeUnit unit) {
+        this.type = type;
+        this.cache = cache;
+        this.timeout = unit.toNanos(timeout);
+    }
+
+    /**
+     * Creates a completed future.
+     * @param values The completions.
+     * @return A future that has already been completed.
+     */
+    private static Future<List<String>> completed(List<String> values) {
+        FutureTask<List<String>> future = new FutureTask<>(NOTHING, values);
+        future.run();
+        return future;
+    }
+
+    /**
+     * Computes the completions asynchronously.
+     * @param executor The executor that requests the completions.
+     * @param prefix   The prefix.
+     * @return A future that returns the completions.
+     */
+    public Future<List<String>> completeAsync(final CommandExecutor executor, final String prefix) {
+        List<String> cached = this.cache.get(this.type, prefix);
+        if (cached != null)
+            return TypeCompletionProvider.completed(cached);
+
+        final CompletableType completable = executor.getCommandHandler().getArgumentHandler().getCompletableType(this.type);
+        if (completable == null)
+            return TypeCompletionProvider.completed(Collections.<String>emptyList());
+
+        final CommandBackend backend = executor.getBackend();
+        final FutureTask<List<String>> task = new FutureTask<>(new Callable<List<String>>() {
+            @Override
+            public List<String> call() throws Exception {
+                List<String> values = completable.complete(prefix, TypeCompletionProvider.this.type, executor, backend);
+                return TypeCompletionProvider.this.cache.put(TypeCompletionProvider.this.type, prefix, values);
+            }
+        });
+
+        // Cancel the previous request of the executor if it has not been started yet.
+        final Object requester = executor.getHandle();
+        Future<List<String>> previous = this.running.put(requester, task);
+        if (previous != null)
+            previous.cancel(false);
+
+        backend.scheduleAsync(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    TypeCompletionProvider.this.running.remove(requester, task);
+                }
+            }
+        });
+
+        return task;
+    }
+
+    @Override
+    public List<String> complete(CommandExecutor executor, CommandLine arguments, String prefix) {
+        Future<List<String>> future = this.completeAsync(executor, prefix);
+
+        try {
+            if (future.isDone())
+                return future.get();
+
+            // Never block the main thread.
+            if (executor.getBackend().inMainThread() || this.timeout <= 0)
+                return Collections.emptyList();
+
+            return future.get(this.timeout, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            return Collections.emptyList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
+        } catch (ExecutionException e) {
+            executor.getBackend().getLogger().log(Level.WARNING, "Failed to complete argument.", e.getCause());
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package net.stuxcrystal.simpledev.commands.component;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <p>Links the methods of a component interface to the component methods implementing them.</p>
+ *
+ * <p>
+ *     A binding is created once per interface and wrapper class. Methods that cannot be linked unambiguously
+ *     are not contained in the binding and are resolved on each call.
+ * </p>
+ */
+public final class ComponentBinding {
+
+    /**
+     * The version of the component manager the binding has been created for.
+     */
+    private final int version;
+
+    /**
+     * The linked methods.
+     */
+    private final Map<Method, ComponentMethod> methods;
+
+    /**
+     * Creates a new binding.
+     * @param version The version of the component manager.
+     * @param methods The linked methods.
+     */
+    ComponentBinding(int version, Map<Method, ComponentMethod> methods) {
+        this.version = version;
+        this.methods = Collections.unmodifiableMap(methods);
+    }
+
+    /**
+     * Returns the version of the component manager the binding has been created for.
+     * @return The version.
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the component method implementing the interface method.
+     * @param method The interface method.
+     * @return The component method or {@code null} if the method has to be resolved on each call.
+     */
+    public ComponentMethod get(Method method) {
+        return this.methods.get(method);
+    }
+}
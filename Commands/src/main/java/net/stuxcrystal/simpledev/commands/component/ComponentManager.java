@@ -1,13 +1,20 @@
 package net.stuxcrystal.simpledev.commands.component;
 
 import net.stuxcrystal.simpledev.commands.CommandHandler;
+import net.stuxcrystal.simpledev.commands.arguments.types.PrimitiveType;
+import net.stuxcrystal.simpledev.commands.invocation.GeneratedIndex;
+import net.stuxcrystal.simpledev.commands.invocation.Invocation;
 import net.stuxcrystal.simpledev.commands.utils.HandleWrapper;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A manager for components.
@@ -15,14 +22,165 @@ import java.util.concurrent.FutureTask;
 public class ComponentManager {
 
     /**
-     * Contains all methods.
+     * A call of a component method.
      */
-    private LinkedHashMap<Method, ComponentMethod> methods = new LinkedHashMap<>();
+    private static final class CallSite {
+
+        /**
+         * The name of the method.
+         */
+        private final String name;
+
+        /**
+         * The class of the self argument.
+         */
+        private final Class<?> self;
+
+        /**
+         * The classes of the arguments. {@code null} for {@code null}-arguments.
+         */
+        private final Class<?>[] types;
+
+        /**
+         * The hash code.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new call site.
+         * @param name  The name of the method.
+         * @param self  The class of the self argument.
+         * @param types The classes of the arguments.
+         */
+        private CallSite(String name, Class<?> self, Class<?>[] types) {
+            this.name = name;
+            this.self = self;
+            this.types = types;
+            this.hash = 31 * (31 * name.hashCode() + self.hashCode()) + Arrays.hashCode(types);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CallSite)) return false;
+            CallSite site = (CallSite) o;
+            return this.self == site.self && this.name.equals(site.name) && Arrays.equals(this.types, site.types);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * <p>An immutable snapshot of the registered components.</p>
+     *
+     * <p>
+     *     Every registration publishes a new snapshot, so lookups never see a partially registered component.
+     *     The caches of a snapshot are only valid for its components and are dropped with it.
+     * </p>
+     */
+    private static final class Registry {
+
+        /**
+         * The registry without any components.
+         */
+        private static final Registry EMPTY = new Registry(
+                0, new LinkedHashMap<Method, ComponentMethod>(), new HashSet<Class<?>>()
+        );
+
+        /**
+         * Returned for names without components.
+         */
+        private static final ComponentMethod[] NONE = new ComponentMethod[0];
+
+        /**
+         * The version of the registry. Increases every time components are registered.
+         */
+        private final int version;
+
+        /**
+         * Contains all methods in the order they have been registered.
+         */
+        private final Map<Method, ComponentMethod> methods;
+
+        /**
+         * Actual registered classes.
+         */
+        private final Set<Class<?>> classes;
+
+        /**
+         * The methods grouped by their name.
+         */
+        private final Map<String, ComponentMethod[]> names;
+
+        /**
+         * The methods resolved for each call site.
+         */
+        private final ConcurrentMap<CallSite, ComponentMethod> resolved = new ConcurrentHashMap<>();
+
+        /**
+         * The bindings of the component interfaces. The key contains the interface and the wrapper class.
+         */
+        private final ConcurrentMap<List<Class<?>>, ComponentBinding> bindings = new ConcurrentHashMap<>();
+
+        /**
+         * Creates a new snapshot. The collections must not be modified afterwards.
+         * @param version The version of the registry.
+         * @param methods All methods.
+         * @param classes The registered classes.
+         */
+        private Registry(int version, LinkedHashMap<Method, ComponentMethod> methods, Set<Class<?>> classes) {
+            this.version = version;
+            this.methods = Collections.unmodifiableMap(methods);
+            this.classes = Collections.unmodifiableSet(classes);
+
+            // Build the dispatch tables.
+            Map<String, List<ComponentMethod>> grouped = new HashMap<>();
+            for (ComponentMethod method : methods.values()) {
+                List<ComponentMethod> group = grouped.get(method.getName());
+                if (group == null)
+                    grouped.put(method.getName(), group = new ArrayList<>());
+                group.add(method);
+            }
+
+            Map<String, ComponentMethod[]> names = new HashMap<>();
+            for (Map.Entry<String, List<ComponentMethod>> entry : grouped.entrySet())
+                names.put(entry.getKey(), entry.getValue().toArray(new ComponentMethod[entry.getValue().size()]));
+            this.names = names;
+        }
+
+        /**
+         * Returns the methods with the given name.
+         * @param name The name.
+         * @return The methods in the order they have been registered.
+         */
+        private ComponentMethod[] named(String name) {
+            ComponentMethod[] methods = this.names.get(name);
+            return methods == null ? Registry.NONE : methods;
+        }
+    }
+
+    /**
+     * The current snapshot of the registered components.
+     */
+    private volatile Registry registry = Registry.EMPTY;
+
+    /**
+     * Executes the synchronous calls of other threads in the main thread.
+     */
+    private final MainThreadPipeline pipeline;
 
     /**
-     * Actual registered classes.
+     * How long threads wait for a call by default in nanoseconds.
      */
-    private HashSet<Class<? extends ComponentContainer>> classes = new HashSet<>();
+    private static final long DEFAULT_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * How long threads wait for a call in nanoseconds. {@code 0} waits indefinitely.
+     */
+    private volatile long timeout = ComponentManager.DEFAULT_TIMEOUT;
 
     /**
      * The command handler this manager belongs to.
@@ -35,6 +193,30 @@ public class ComponentManager {
      */
     public ComponentManager(CommandHandler handler) {
         this.handler = handler;
+        this.pipeline = new MainThreadPipeline(handler);
+    }
+
+    /**
+     * <p>Registers the component and publishes the new snapshot.</p>
+     * <p>Registrations are serialized. Lookups are not blocked and use the previous snapshot meanwhile.</p>
+     *
+     * @param componentType The type of the component.
+     * @param component     The component instance itself.
+     * @param onlyIfAbsent  Skip the registration if the component has been registered before.
+     * @return {@code false} if the registration has been skipped.
+     */
+    private synchronized boolean register(Class<? extends ComponentContainer> componentType, ComponentContainer component, boolean onlyIfAbsent) {
+        Registry current = this.registry;
+        if (onlyIfAbsent && current.classes.contains(componentType))
+            return false;
+
+        LinkedHashMap<Method, ComponentMethod> methods = new LinkedHashMap<>(current.methods);
+        Set<Class<?>> classes = new HashSet<>(current.classes);
+        this.registerComponents(componentType, component, methods, classes);
+
+        // The most specific methods may have changed, so the new snapshot starts with empty caches.
+        this.registry = new Registry(current.version + 1, methods, classes);
+        return true;
     }
 
     /**
@@ -42,61 +224,154 @@ public class ComponentManager {
      *
      * @param componentType The type of the component.
      * @param component     The component instance itself.
+     * @param methods       The methods of the new snapshot.
+     * @param classes       The classes of the new snapshot.
      */
     @SuppressWarnings("unchecked")
-    private void registerComponents(Class<? extends ComponentContainer> componentType, ComponentContainer component) {
+    private void registerComponents(Class<? extends ComponentContainer> componentType, ComponentContainer component,
+                                    Map<Method, ComponentMethod> methods, Set<Class<?>> classes) {
         Class<?> supercls = componentType.getSuperclass();
         if (ComponentContainer.class.isAssignableFrom(supercls)) {
-            this.registerComponents((Class<? extends ComponentContainer>) supercls, component);
+            this.registerComponents((Class<? extends ComponentContainer>) supercls, component, methods, classes);
         }
 
-        for (Method method : componentType.getDeclaredMethods()) {
-            // This is a bridge method, the actual implementation will be handled later.
-            if (method.isBridge())
-                continue;
+        // Use the index generated at compile time if it exists.
+        Invocation[] invocations = GeneratedIndex.getComponents(componentType);
+        if (invocations != null) {
+            for (Invocation invocation : invocations)
+                this.registerMethod(invocation.getMethod(), component, invocation, methods);
+        } else {
+            for (Method method : componentType.getDeclaredMethods())
+                this.registerMethod(method, component, null, methods);
+        }
 
-            // Make sure we didn't already check the method.
-            if (this.methods.containsKey(method))
-                continue;
+        classes.add(componentType);
+    }
+
+    /**
+     * Returns the version of the registered components.
+     * @return The version. Increases every time components are registered.
+     */
+    public int getVersion() {
+        return this.registry.version;
+    }
 
-            // Make sure we can access the method.
-            if (!method.isAccessible())
-                method.setAccessible(true);
+    /**
+     * Returns the binding of the interface for the wrapper class.
+     * @param type    The component interface.
+     * @param wrapper The class of the wrapper.
+     * @return The binding.
+     */
+    public ComponentBinding getBinding(Class<?> type, Class<? extends HandleWrapper> wrapper) {
+        Registry registry = this.registry;
+        List<Class<?>> key = Arrays.<Class<?>>asList(type, wrapper);
+        ComponentBinding binding = registry.bindings.get(key);
+        if (binding == null) {
+            binding = this.bind(registry, type, wrapper);
+            ComponentBinding previous = registry.bindings.putIfAbsent(key, binding);
+            if (previous != null)
+                binding = previous;
+        }
+        return binding;
+    }
 
-            // Make sure the method is not abstract.
-            if (Modifier.isAbstract(method.getModifiers()))
-                continue;
+    /**
+     * Links the methods of the interface to the component methods.
+     * @param registry The registered components.
+     * @param type     The component interface.
+     * @param wrapper  The class of the wrapper.
+     * @return The binding.
+     */
+    private ComponentBinding bind(Registry registry, Class<?> type, Class<? extends HandleWrapper> wrapper) {
+        Map<Method, ComponentMethod> linked = new HashMap<>();
 
-            // Make sure we can actually call the method.
-            if (!Modifier.isStatic(method.getModifiers()) && component==null)
+        interface_iterator:
+        for (Method method : type.getMethods()) {
+            if (method.getDeclaringClass() == Object.class)
                 continue;
 
-            // Check if the method is actually a component class.
-            if (!method.isAnnotationPresent(Component.class))
+            Class<?>[] types = method.getParameterTypes();
+
+            // Only link methods that cannot be overloaded by the runtime types of the arguments.
+            ComponentMethod candidate = null;
+            for (ComponentMethod m : registry.named(method.getName())) {
+                if (!m.getSelfParameter().isAssignableFrom(wrapper))
+                    continue;
+                if (m.getParameters().length != types.length)
+                    continue;
+
+                if (candidate != null)
+                    continue interface_iterator;
+                candidate = m;
+            }
+
+            if (candidate == null)
                 continue;
 
-            // Get parameters.
-            Class<?>[] params = method.getParameterTypes();
-
-            // Empty function parameters are not supported.
-            if (params.length == 0)
-                throw new IllegalArgumentException(
-                        "Illegal method format of '" + method.getName() + "': " +
-                                "No parameters."
-                );
-
-            // The first argument must be the self argument.
-            if (!HandleWrapper.class.isAssignableFrom(params[0]))
-                throw new IllegalArgumentException(
-                        "Illegal method format of '" + method.getName() + "': " +
-                                "First parameter must be a subclass of HandlerWrapper"
-                );
-
-            // Add the method.
-            this.methods.put(method, new ComponentMethod(method, component, method.getAnnotation(Component.class)));
+            Class<?>[] params = candidate.getParameters();
+            for (int i = 0; i<params.length; i++) {
+                if (!PrimitiveType.wrap(params[i]).isAssignableFrom(PrimitiveType.wrap(types[i])))
+                    continue interface_iterator;
+            }
+
+            linked.put(method, candidate);
         }
 
-        this.classes.add(componentType);
+        return new ComponentBinding(registry.version, linked);
+    }
+
+    /**
+     * Registers the method if it is a component.
+     *
+     * @param method     The method.
+     * @param component  The component instance itself.
+     * @param invocation The bound method or {@code null} if the method has to be bound.
+     * @param methods    The methods of the new snapshot.
+     */
+    private void registerMethod(Method method, ComponentContainer component, Invocation invocation, Map<Method, ComponentMethod> methods) {
+        // This is a bridge method, the actual implementation will be handled later.
+        if (method.isBridge())
+            return;
+
+        // Make sure we didn't already check the method.
+        if (methods.containsKey(method))
+            return;
+
+        // Make sure the method is not abstract.
+        if (Modifier.isAbstract(method.getModifiers()))
+            return;
+
+        // Make sure we can actually call the method.
+        if (!Modifier.isStatic(method.getModifiers()) && component==null)
+            return;
+
+        // Check if the method is actually a component class.
+        if (!method.isAnnotationPresent(Component.class))
+            return;
+
+        // Get parameters.
+        Class<?>[] params = method.getParameterTypes();
+
+        // Empty function parameters are not supported.
+        if (params.length == 0)
+            throw new IllegalArgumentException(
+                    "Illegal method format of '" + method.getName() + "': " +
+                            "No parameters."
+            );
+
+        // The first argument must be the self argument.
+        if (!HandleWrapper.class.isAssignableFrom(params[0]))
+            throw new IllegalArgumentException(
+                    "Illegal method format of '" + method.getName() + "': " +
+                            "First parameter must be a subclass of HandlerWrapper"
+            );
+
+        // Add the method.
+        if (invocation == null)
+            invocation = this.handler.getInvocationBackend().bind(method);
+        methods.put(method, new ComponentMethod(
+                method, component, method.getAnnotation(Component.class), invocation
+        ));
     }
 
     /**
@@ -104,7 +379,7 @@ public class ComponentManager {
      * @param componentType Components.
      */
     public void registerComponents(Class<? extends ComponentContainer> componentType) {
-        this.registerComponents(componentType, null);
+        this.register(componentType, null, false);
     }
 
     /**
@@ -112,7 +387,25 @@ public class ComponentManager {
      * @param container The component.
      */
     public void registerComponents(ComponentContainer container) {
-        this.registerComponents(container.getClass(), container);
+        this.register(container.getClass(), container, false);
+    }
+
+    /**
+     * Registers only static extension methods if the class has not been registered before.
+     * @param componentType Components.
+     * @return {@code true} if the components have been registered by this call.
+     */
+    public boolean registerComponentsIfAbsent(Class<? extends ComponentContainer> componentType) {
+        return this.register(componentType, null, true);
+    }
+
+    /**
+     * Registers all extension methods of this container if its class has not been registered before.
+     * @param container The component.
+     * @return {@code true} if the components have been registered by this call.
+     */
+    public boolean registerComponentsIfAbsent(ComponentContainer container) {
+        return this.register(container.getClass(), container, true);
     }
 
     /**
@@ -121,7 +414,7 @@ public class ComponentManager {
      * @return {@code true} if the extension has been registered.
      */
     public boolean isRegistered(Class<? extends ComponentContainer> cls) {
-        return this.classes.contains(cls);
+        return this.registry.classes.contains(cls);
     }
 
     /**
@@ -135,19 +428,110 @@ public class ComponentManager {
      */
     @SuppressWarnings("unchecked")
     public <T> T call(String name, HandleWrapper self, Object[] params) throws Throwable {
+        // Proxies pass null if the method has no parameters.
+        if (params == null)
+            params = new Object[0];
+
+        return (T)this.call(this.resolve(name, self, params), self, params);
+    }
+
+    /**
+     * <p>Calls the extension function without waiting for the main thread.</p>
+     *
+     * <p>
+     *     Synchronous functions called from another thread are queued and executed with all other calls queued
+     *     until the main thread runs them. Asynchronous functions are scheduled as usual and all other
+     *     functions are called directly.
+     * </p>
+     *
+     * @param name      The name of the extension function.
+     * @param self      The object which is the context of the commands.
+     * @param params    The additional parameters.
+     * @param <T> The return type.
+     * @return The future result of the function.
+     */
+    public <T> Future<T> callAsync(String name, HandleWrapper self, Object... params) {
+        if (params == null)
+            params = new Object[0];
+
+        return this.submit(this.resolve(name, self, params), self, params);
+    }
+
+    /**
+     * <p>Waits for the result of a component call.</p>
+     *
+     * <p>
+     *     Use this method instead of {@link Future#get()}: The main thread executes the queued synchronous calls
+     *     while it waits and the call fails instead of blocking forever if it would deadlock or exceeds the
+     *     {@link #setTimeout(long, TimeUnit) timeout}.
+     * </p>
+     *
+     * @param future The future returned by {@link #callAsync(String, HandleWrapper, Object...)}.
+     * @param <T>    The return type.
+     * @return The function return.
+     * @throws Throwable The exception thrown by the function.
+     */
+    public <T> T await(Future<T> future) throws Throwable {
+        try {
+            return this.pipeline.await(future, this.timeout);
+        } catch (ExecutionException e) {
+            // Rethrow the old exception.
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * <p>Sets how long a thread waits for the result of a synchronous or awaited component call.</p>
+     * <p>Threads wait 30 seconds by default, so a deadlock that is not detected does not block forever.</p>
+     *
+     * @param timeout The timeout. {@code 0} waits indefinitely.
+     * @param unit    The unit of the timeout.
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("The timeout must not be negative.");
+        this.timeout = unit.toNanos(timeout);
+    }
+
+    /**
+     * Returns how long a thread waits for the result of a synchronous or awaited component call.
+     * @param unit The unit of the timeout.
+     * @return The timeout. {@code 0} if threads wait indefinitely.
+     */
+    public long getTimeout(TimeUnit unit) {
+        return unit.convert(this.timeout, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Finds the method called with the given parameters.
+     * @param name   The name of the extension function.
+     * @param self   The object which is the context of the commands.
+     * @param params The additional parameters.
+     * @return The most specific method.
+     */
+    private ComponentMethod resolve(String name, HandleWrapper self, Object[] params) {
         // Resolve the parameters.
         Class<?>[] types = new Class[params.length];
         for (int i = 0; i<types.length; i++)
-            types[i] = params.getClass();
+            types[i] = params[i] == null ? null : params[i].getClass();
+
+        // Use the method resolved for the same call before.
+        Registry registry = this.registry;
+        CallSite site = new CallSite(name, self.getClass(), types);
+        ComponentMethod method = registry.resolved.get(site);
+
+        if (method == null) {
+            // Find most specific method for handler wrapper.
+            method = this.getMethod(registry, true, name, self.getClass(), types);
 
-        // Find most specific method for handler wrapper.
-        ComponentMethod method = this.getMethod(true, name, self.getClass(), types);
+            // If none was found, throw IllegalArgumentException.
+            if (method == null)
+                throw new IllegalArgumentException("Unknown method.");
 
-        // If none was found, throw IllegalArgumentException.
-        if (method == null)
-            throw new IllegalArgumentException("Unknown method.");
+            registry.resolved.put(site, method);
+        }
 
-        return (T)this.call(method, self, params);
+        return method;
     }
 
     /**
@@ -159,7 +543,7 @@ public class ComponentManager {
      * @return {@code true} if so.
      */
     public boolean hasMethod(String name, Class<? extends HandleWrapper> wrapper, Class<?>... paramTypes) {
-        return this.getMethod(false, name, wrapper, paramTypes) != null;
+        return this.getMethod(this.registry, false, name, wrapper, paramTypes) != null;
     }
 
     /**
@@ -169,6 +553,7 @@ public class ComponentManager {
      *     Please note that this will drastically slow down method resolution.
      * </p>
      *
+     * @param registry      The registered components.
      * @param resolve       Just try to resolve the method.
      * @param name          The name of the extension function.
      * @param wrapper       The wrapper.
@@ -176,17 +561,13 @@ public class ComponentManager {
      * @return The actual method that should be called.
      */
     // TODO: Test it.
-    private ComponentMethod getMethod(boolean resolve, String name, Class<? extends HandleWrapper> wrapper, Class<?>... paramTypes) {
+    private ComponentMethod getMethod(Registry registry, boolean resolve, String name, Class<? extends HandleWrapper> wrapper, Class<?>... paramTypes) {
         // The result method.
         HashSet<ComponentMethod> result = new HashSet<>();
 
         // Get the resolving methods.
         component_iterator:
-        for (ComponentMethod m : this.methods.values()) {
-            // Check name.
-            if (!m.getName().equals(name))
-                continue;
-
+        for (ComponentMethod m : registry.named(name)) {
             // Check self parameter.
             if (!m.getSelfParameter().isAssignableFrom(wrapper))
                 continue;
@@ -196,10 +577,15 @@ public class ComponentManager {
             if (paramTypes.length != types.length)
                 continue;
 
-            // Check instances.
+            // Check instances. Null matches all objects, primitives match their wrappers.
             for (int i = 0; i<types.length; i++) {
-                if (!types[i].isAssignableFrom(paramTypes[i]))
+                if (paramTypes[i] == null) {
+                    if (types[i].isPrimitive())
+                        continue component_iterator;
+                } else if (!types[i].isAssignableFrom(paramTypes[i])
+                        && !PrimitiveType.wrap(types[i]).isAssignableFrom(paramTypes[i])) {
                     continue component_iterator;
+                }
             }
 
             // If we don't wanna find the method with the best suitable arguments,
@@ -305,35 +691,52 @@ public class ComponentManager {
      * @return The result of the call.
      */
     @SuppressWarnings({"rawtype", "unchecked"})
-    private Object call(ComponentMethod method, Object self, Object[] params) throws Throwable {
+    Object call(ComponentMethod method, Object self, Object[] params) throws Throwable {
         // If we don't care if we're in another thread, we will just call the method.
         if (method.component.syncstate() == SynchronizationState.IGNORE)
             return method.call(self, params);
 
-        ComponentExecutor executor = new ComponentExecutor(method, self, params);
+        // If the task is already running in the main thread, just call the method.
+        if (method.component.syncstate() == SynchronizationState.SYNCHRONOUS && this.handler.getServerBackend().inMainThread())
+            return method.call(self, params);
 
-        if (method.component.syncstate() == SynchronizationState.SYNCHRONOUS) {
-            // If the task is already running in the main thread, just call the method.
-            if (this.handler.getServerBackend().inMainThread())
-                return executor.call();
+        Future<Object> future = this.submit(method, self, params);
 
-            FutureTask future = new FutureTask(executor);
+        // Asynchronous methods return the future itself.
+        if (method.component.syncstate() == SynchronizationState.ASYNCHRONOUS)
+            return future;
 
-            // Call the method.
-            this.handler.getServerBackend().scheduleSync(future);
+        // Await the result.
+        return this.await(future);
+    }
 
-            // Await the result.
-            try {
-                return future.get();
-            } catch (ExecutionException e) {
-                // Rethrow the old exception.
-                throw e.getCause();
-            }
-        } else {
-            // Just execute the task asynchronously.
-            FutureTask future = new FutureTask(executor);
-            this.handler.getServerBackend().scheduleAsync(future);
-            return future;
+    /**
+     * Executes the component method according to its synchronization state.
+     * @param method The method to call.
+     * @param self   The object which is the context of the commands.
+     * @param params The parameters of the method.
+     * @param <T>    The return type.
+     * @return The future result of the method.
+     */
+    <T> Future<T> submit(ComponentMethod method, Object self, Object[] params) {
+        FutureTask<T> future = new FutureTask<>(new ComponentExecutor<T>(method, self, params));
+
+        switch (method.component.syncstate()) {
+            case SYNCHRONOUS:
+                if (!this.handler.getServerBackend().inMainThread())
+                    return this.pipeline.submit(future);
+                break;
+
+            case ASYNCHRONOUS:
+                this.handler.getServerBackend().scheduleAsync(future);
+                return future;
+
+            default:
+                break;
         }
+
+        // Call the method directly.
+        future.run();
+        return future;
     }
 }
@@ -1,5 +1,7 @@
 package net.stuxcrystal.simpledev.commands.component;
 
+import net.stuxcrystal.simpledev.commands.invocation.Invocation;
+import net.stuxcrystal.simpledev.commands.invocation.InvocationBackend;
 import org.apache.commons.lang.ArrayUtils;
 
 import java.lang.reflect.Method;
@@ -31,16 +33,39 @@ public class ComponentMethod {
      */
     Class<?>[] params;
 
+    /**
+     * The bound method.
+     */
+    private final Invocation invocation;
+
+    /**
+     * The instance the method is called on. {@code null} for static methods.
+     */
+    private final Object self;
+
     /**
      * Creates a new container for the component data.
      * @param method     The method.
      * @param container  The container.
      */
     public ComponentMethod(Method method, ComponentContainer container, Component component) {
+        this(method, container, component, InvocationBackend.REFLECTION.bind(method));
+    }
+
+    /**
+     * Creates a new container for the component data.
+     * @param method     The method.
+     * @param container  The container.
+     * @param component  The component metadata.
+     * @param invocation The bound method.
+     */
+    public ComponentMethod(Method method, ComponentContainer container, Component component, Invocation invocation) {
         this.method = method;
         this.container = container;
         this.component = component;
         this.params = (Class<?>[]) ArrayUtils.remove(this.method.getParameterTypes(), 0);
+        this.invocation = invocation;
+        this.self = Modifier.isStatic(method.getModifiers()) ? null : container;
     }
 
     /**
@@ -77,18 +102,10 @@ public class ComponentMethod {
      */
     @SuppressWarnings("unchecked")
     public <T> T call(Object selfArg, Object[] params) throws ReflectiveOperationException {
-        if (!this.method.isAccessible())
-            this.method.setAccessible(true);
-
-        Object self;
-        if (Modifier.isStatic(this.method.getModifiers()))
-            self = null;
-        else if (container != null)
-            self = container;
-        else
+        if (this.self == null && !Modifier.isStatic(this.method.getModifiers()))
             throw new ReflectiveOperationException("Failed to get component instance.");
 
-        return (T)this.method.invoke(self, ArrayUtils.add(params, 0, selfArg));
+        return (T)this.invocation.invokeWith(this.self, selfArg, params);
     }
 
 }
@@ -3,19 +3,89 @@ package net.stuxcrystal.simpledev.commands.component;
 import net.stuxcrystal.simpledev.commands.utils.HandleWrapper;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
- * Proxy for components.
+ * Proxy for components.<p />
+ *
+ * The implementations of the interfaces are created once per wrapper. Their methods are linked to the
+ * component methods using the {@link ComponentBinding} of the interface.
  */
 public class ComponentProxy implements InvocationHandler {
 
+    /**
+     * Implements a single interface.
+     */
+    private static final class BoundHandler implements InvocationHandler {
+
+        /**
+         * The wrapper that is passed as the self argument.
+         */
+        private final HandleWrapper handle;
+
+        /**
+         * The implemented interface.
+         */
+        private final Class<?> type;
+
+        /**
+         * The binding of the interface. Replaced if components are registered afterwards.
+         */
+        private volatile ComponentBinding binding = null;
+
+        /**
+         * Creates a new handler.
+         * @param handle The wrapper.
+         * @param type   The implemented interface.
+         */
+        private BoundHandler(HandleWrapper handle, Class<?> type) {
+            this.handle = handle;
+            this.type = type;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Methods of Object are not components.
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":   return proxy == args[0];
+                    case "hashCode": return System.identityHashCode(proxy);
+                    default:         return this.type.getName() + "@" + this.handle.getHandle();
+                }
+            }
+
+            ComponentManager manager = this.handle.getCommandHandler().getComponentManager();
+            ComponentBinding binding = this.binding;
+            if (binding == null || binding.getVersion() != manager.getVersion())
+                this.binding = binding = manager.getBinding(this.type, this.handle.getClass());
+
+            ComponentMethod target = binding.get(method);
+            try {
+                if (target == null)
+                    return manager.call(method.getName(), this.handle, args);
+                return manager.call(target, this.handle, args);
+            } catch (InvocationTargetException e) {
+                // Throw the exception of the component like a normal method would.
+                throw e.getCause();
+            }
+        }
+    }
+
     /**
      * The command handle for the component proxy.
      */
     private final HandleWrapper handle;
 
+    /**
+     * The implementations created so far.
+     */
+    private volatile Map<Class<?>, Object> instances = Collections.emptyMap();
+
     /**
      * Creates a new component proxy.
      * @param self The handle to implement.
@@ -38,7 +108,9 @@ public class ComponentProxy implements InvocationHandler {
     }
 
     /**
-     * Creates a new interface that implements the given extension methods.
+     * Returns the implementation of the given extension methods.<p />
+     *
+     * The implementation is only created on the first call.
      *
      * @param interfaceInstance The interface to implement.
      * @param <T>               The type of the interface.
@@ -46,7 +118,22 @@ public class ComponentProxy implements InvocationHandler {
      */
     @SuppressWarnings("unchecked")
     public <T> T createInstance(Class<T> interfaceInstance) {
-        return (T)Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class<?>[]{interfaceInstance}, this);
+        Map<Class<?>, Object> instances = this.instances;
+        Object instance = instances.get(interfaceInstance);
+        if (instance != null)
+            return (T) instance;
+
+        instance = Proxy.newProxyInstance(
+                interfaceInstance.getClassLoader(), new Class<?>[]{interfaceInstance},
+                new BoundHandler(this.handle, interfaceInstance)
+        );
+
+        // Another thread may have created an instance in the meantime. Both are equivalent.
+        instances = new IdentityHashMap<>(instances);
+        instances.put(interfaceInstance, instance);
+        this.instances = instances;
+
+        return (T) instance;
     }
 
 }
@@ -0,0 +1,173 @@
+package net.stuxcrystal.simpledev.commands.component;
+
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>Runs the synchronous component calls of worker threads in the main thread.</p>
+ *
+ * <p>
+ *     All calls submitted before the main thread picks up the pipeline are executed in a single scheduled task,
+ *     so a worker issuing several calls only needs a single hop into the main thread.
+ * </p>
+ */
+final class MainThreadPipeline implements Runnable {
+
+    /**
+     * How long a blocked thread waits before it checks for a deadlock again.
+     */
+    private static final long SLICE = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * The handler whose backend schedules the pipeline.
+     */
+    private final CommandHandler handler;
+
+    /**
+     * The calls waiting for the main thread.
+     */
+    private final Queue<FutureTask<?>> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Is the pipeline currently scheduled?
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * The main thread. {@code null} until the main thread has been seen for the first time.
+     */
+    private volatile Thread mainThread = null;
+
+    /**
+     * Creates a new pipeline.<p />
+     *
+     * Handlers are usually created while the plugin is enabled, so the main thread is captured right away and
+     * deadlocks are detected before the pipeline ever ran.
+     *
+     * @param handler The handler whose backend schedules the pipeline.
+     */
+    MainThreadPipeline(CommandHandler handler) {
+        this.handler = handler;
+        if (handler.getServerBackend().inMainThread())
+            this.mainThread = Thread.currentThread();
+    }
+
+    /**
+     * Queues a call for the main thread.
+     * @param task The call.
+     * @param <T>  The return type of the call.
+     * @return The call.
+     */
+    <T> FutureTask<T> submit(FutureTask<T> task) {
+        this.queue.add(task);
+
+        // Only schedule the pipeline if it is not waiting for the main thread already.
+        if (this.scheduled.compareAndSet(false, true))
+            this.handler.getServerBackend().scheduleSync(this);
+
+        return task;
+    }
+
+    /**
+     * Executes all queued calls. Has to be called from the main thread.
+     */
+    @Override
+    public void run() {
+        this.mainThread = Thread.currentThread();
+
+        // Calls submitted from now on need another hop.
+        this.scheduled.set(false);
+        this.drain();
+    }
+
+    /**
+     * Executes the queued calls in the current thread.
+     */
+    private void drain() {
+        FutureTask<?> task;
+        while ((task = this.queue.poll()) != null)
+            task.run();
+    }
+
+    /**
+     * <p>Waits for the result of a call.</p>
+     *
+     * <p>
+     *     If the main thread waits, it executes the queued calls in the meantime, as the call it is waiting for
+     *     may wait for the main thread itself. If a worker waits, it fails as soon as the main thread is blocked
+     *     by a lock the worker holds.
+     * </p>
+     *
+     * @param future  The call.
+     * @param timeout The timeout in nanoseconds. {@code 0} waits indefinitely.
+     * @param <T>     The return type of the call.
+     * @return The result of the call.
+     * @throws ExecutionException  If the call failed.
+     * @throws InterruptedException If the thread has been interrupted while waiting.
+     * @throws ComponentAccessException If the call deadlocked or timed out.
+     */
+    <T> T await(Future<T> future, long timeout) throws ExecutionException, InterruptedException {
+        boolean main = this.handler.getServerBackend().inMainThread();
+        long deadline = System.nanoTime() + timeout;
+        if (main && this.mainThread == null)
+            this.mainThread = Thread.currentThread();
+
+        while (true) {
+            if (main) {
+                this.drain();
+            } else if (this.isBlockingMainThread()) {
+                future.cancel(false);
+                throw new ComponentAccessException("Deadlock: The main thread is waiting for a lock held by this thread.");
+            }
+
+            long slice = MainThreadPipeline.SLICE;
+            if (timeout > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    future.cancel(false);
+                    throw new ComponentAccessException("The component call timed out.");
+                }
+                slice = Math.min(slice, remaining);
+            }
+
+            try {
+                return future.get(slice, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ignored) {
+                // Check again.
+            }
+        }
+    }
+
+    /**
+     * Checks if the main thread waits for a lock held by the current thread.
+     * @return {@code true} if waiting for the main thread would deadlock.
+     */
+    private boolean isBlockingMainThread() {
+        Thread main = this.mainThread;
+        if (main == null)
+            return false;
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long current = Thread.currentThread().getId();
+
+        // Follow the owners of the locks the main thread is waiting for.
+        long id = main.getId();
+        for (int depth = 0; depth < 64; depth++) {
+            ThreadInfo info = threads.getThreadInfo(id);
+            if (info == null || info.getLockOwnerId() == -1)
+                return false;
+
+            id = info.getLockOwnerId();
+            if (id == current)
+                return true;
+        }
+
+        return false;
+    }
+}
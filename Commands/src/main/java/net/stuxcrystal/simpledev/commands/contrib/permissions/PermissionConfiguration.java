@@ -0,0 +1,83 @@
+package net.stuxcrystal.simpledev.commands.contrib.permissions;
+
+import net.stuxcrystal.simpledev.configuration.parser.annotations.Configuration;
+import net.stuxcrystal.simpledev.configuration.parser.annotations.Value;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The definitions of the groups and users used by the {@link TriePermissionHandler}.<p />
+ *
+ * Permissions starting with {@code -} are negated, permissions ending with {@code .*} are wildcards.
+ */
+@Configuration(header={
+        "The permissions of the groups and users.",
+        "Prefix a node with '-' to negate it. End a node with '.*' to match all nodes below it."
+})
+public class PermissionConfiguration {
+
+    /**
+     * The definition of a group.
+     */
+    @Configuration
+    public static class Group {
+
+        /**
+         * The groups this group inherits from.
+         */
+        @Value(comment={"The groups this group inherits the permissions from."})
+        public List<String> inherits = new ArrayList<>();
+
+        /**
+         * The permissions of the group.
+         */
+        @Value(comment={"The permissions of this group."})
+        public List<String> permissions = new ArrayList<>();
+    }
+
+    /**
+     * The definition of a user.
+     */
+    @Configuration
+    public static class User {
+
+        /**
+         * The groups of the user.
+         */
+        @Value(comment={"The groups of the user."})
+        public List<String> groups = new ArrayList<>();
+
+        /**
+         * The permissions of the user.
+         */
+        @Value(comment={"The permissions of the user. They override the permissions of the groups."})
+        public List<String> permissions = new ArrayList<>();
+    }
+
+    /**
+     * The groups every player is member of.
+     */
+    @Value(name="default-groups", comment={"The groups every player is member of."})
+    public List<String> defaultGroups = new ArrayList<>();
+
+    /**
+     * The groups every operator is member of.
+     */
+    @Value(name="operator-groups", comment={"The groups every operator is member of."})
+    public List<String> operatorGroups = new ArrayList<>();
+
+    /**
+     * The groups by their name.
+     */
+    @Value(comment={"The groups."})
+    public Map<String, Group> groups = new LinkedHashMap<>();
+
+    /**
+     * The users by their name.
+     */
+    @Value(comment={"The users."})
+    public Map<String, User> users = new LinkedHashMap<>();
+}
@@ -0,0 +1,189 @@
+package net.stuxcrystal.simpledev.commands.contrib.permissions;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * <p>An immutable trie over permission nodes.</p>
+ *
+ * <p>
+ *     The trie is built character by character, so a lookup walks the node once and never splits it into
+ *     its segments. Nodes ending with {@code .*} are wildcards that apply to all nodes below them,
+ *     the node {@code *} applies to every node. A wildcard does not apply to the node it is defined on:
+ *     {@code a.b.*} matches {@code a.b.c} but not {@code a.b}. Other nodes ending with {@code *}
+ *     (e.g. {@code a.b*}) are rejected.
+ * </p>
+ *
+ * <p>
+ *     The most specific definition wins: An exact node overrides a wildcard and a deeper wildcard overrides
+ *     a shallower one.
+ * </p>
+ */
+public final class PermissionTrie {
+
+    /**
+     * A trie that does not define any node.
+     */
+    public static final PermissionTrie EMPTY = new PermissionTrie(new Node());
+
+    /**
+     * A node inside the trie.
+     */
+    private static final class Node {
+
+        /**
+         * The characters of the children, sorted.
+         */
+        private char[] keys = new char[0];
+
+        /**
+         * The children.
+         */
+        private Node[] children = new Node[0];
+
+        /**
+         * The value if the permission ends at this node. {@code null} if it is not defined.
+         */
+        private Boolean value = null;
+
+        /**
+         * The value of the wildcard at this node. {@code null} if it is not defined.
+         */
+        private Boolean wildcard = null;
+
+        /**
+         * Returns the child for the character.
+         * @param c The character.
+         * @return The child or {@code null}.
+         */
+        private Node get(char c) {
+            int index = Arrays.binarySearch(this.keys, c);
+            if (index < 0)
+                return null;
+            return this.children[index];
+        }
+
+        /**
+         * Returns the child for the character and creates it if it does not exist yet.
+         * @param c The character.
+         * @return The child.
+         */
+        private Node getOrCreate(char c) {
+            int index = Arrays.binarySearch(this.keys, c);
+            if (index >= 0)
+                return this.children[index];
+
+            index = -index - 1;
+            Node node = new Node();
+
+            char[] keys = new char[this.keys.length + 1];
+            System.arraycopy(this.keys, 0, keys, 0, index);
+            System.arraycopy(this.keys, index, keys, index + 1, this.keys.length - index);
+            keys[index] = c;
+
+            Node[] children = new Node[this.children.length + 1];
+            System.arraycopy(this.children, 0, children, 0, index);
+            System.arraycopy(this.children, index, children, index + 1, this.children.length - index);
+            children[index] = node;
+
+            this.keys = keys;
+            this.children = children;
+            return node;
+        }
+    }
+
+    /**
+     * The root of the trie.
+     */
+    private final Node root;
+
+    /**
+     * Creates a new trie.
+     * @param root The root of the trie.
+     */
+    private PermissionTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * <p>Compiles the permissions into a trie.</p>
+     * <p>The nodes are case insensitive. Nodes ending with {@code .*} and the node {@code *} are wildcards.</p>
+     *
+     * @param permissions The permission nodes and their values.
+     * @return The trie.
+     * @throws IllegalArgumentException If a node ends with {@code *} but is not a wildcard.
+     */
+    public static PermissionTrie compile(Map<String, Boolean> permissions) {
+        Node root = new Node();
+
+        for (Map.Entry<String, Boolean> entry : permissions.entrySet()) {
+            String permission = entry.getKey();
+            if (permission == null || entry.getValue() == null)
+                continue;
+
+            // The wildcard is stored at the node after the dot.
+            boolean wildcard = PermissionTrie.isWildcard(permission);
+            int length = wildcard ? permission.length() - 1 : permission.length();
+
+            Node current = root;
+            for (int i = 0; i < length; i++)
+                current = current.getOrCreate(Character.toLowerCase(permission.charAt(i)));
+
+            if (wildcard)
+                current.wildcard = entry.getValue();
+            else
+                current.value = entry.getValue();
+        }
+
+        return new PermissionTrie(root);
+    }
+
+    /**
+     * Checks if the node is a wildcard.
+     * @param permission The permission node.
+     * @return {@code true} if the node is {@code *} or ends with {@code .*}.
+     * @throws IllegalArgumentException If the node ends with {@code *} but is not a wildcard.
+     */
+    public static boolean isWildcard(String permission) {
+        if (!permission.endsWith("*"))
+            return false;
+
+        // Wildcards only match whole segments, so "a.b*" would never match anything.
+        if (!permission.equals("*") && !permission.endsWith(".*"))
+            throw new IllegalArgumentException("Wildcards have to match whole segments: " + permission);
+        return true;
+    }
+
+    /**
+     * Looks up the value of the permission node.
+     * @param permission The permission node.
+     * @return {@code null} if neither the node nor a wildcard matching the node is defined.
+     */
+    public Boolean get(String permission) {
+        Node current = this.root;
+        Boolean result = current.wildcard;
+
+        for (int i = 0, length = permission.length(); i < length; i++) {
+            current = current.get(Character.toLowerCase(permission.charAt(i)));
+            if (current == null)
+                return result;
+
+            // Wildcards only match whole segments.
+            if (current.wildcard != null && permission.charAt(i) == '.')
+                result = current.wildcard;
+        }
+
+        if (current.value != null)
+            return current.value;
+        return result;
+    }
+
+    /**
+     * Checks if the permission has been granted.
+     * @param permission The permission node.
+     * @return {@code true} if the node or a wildcard matching the node has been granted.
+     */
+    public boolean has(String permission) {
+        return Boolean.TRUE.equals(this.get(permission));
+    }
+}
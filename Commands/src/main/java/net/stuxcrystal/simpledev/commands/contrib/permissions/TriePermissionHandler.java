@@ -0,0 +1,323 @@
+package net.stuxcrystal.simpledev.commands.contrib.permissions;
+
+import net.stuxcrystal.simpledev.commands.CommandExecutor;
+import net.stuxcrystal.simpledev.commands.PermissionHandler;
+import net.stuxcrystal.simpledev.configuration.ConfigurationLoader;
+import net.stuxcrystal.simpledev.configuration.parser.exceptions.ConfigurationException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>A permission handler for platforms without a permission system of their own.</p>
+ *
+ * <p>
+ *     The groups and users are defined in a {@link PermissionConfiguration}. The inheritance of the groups
+ *     is resolved when the configuration is loaded. The effective permissions of a user are flattened into a
+ *     {@link PermissionTrie} the first time the user is checked, so checking a permission only walks the node once.
+ * </p>
+ *
+ * <p>
+ *     Executors that are not players (e.g. the console) have all permissions. Nodes that are not defined
+ *     are denied.
+ * </p>
+ *
+ * <p>
+ *     Call {@link net.stuxcrystal.simpledev.commands.PermissionCache#invalidateAll()} after reloading the
+ *     permissions, as the decisions of the handler are cached.
+ * </p>
+ */
+public class TriePermissionHandler implements PermissionHandler {
+
+    /**
+     * The maximal amount of users whose tries are kept. The tries are dropped once more users have been checked.
+     */
+    private static final int MAX_USERS = 1024;
+
+    /**
+     * The compiled configuration.
+     */
+    private static final class State {
+
+        /**
+         * The configuration.
+         */
+        private final PermissionConfiguration configuration;
+
+        /**
+         * The flattened permissions of the groups by their lower-cased name.
+         */
+        private final Map<String, Map<String, Boolean>> groups = new HashMap<>();
+
+        /**
+         * The definitions of the users by their lower-cased name.
+         */
+        private final Map<String, PermissionConfiguration.User> users = new HashMap<>();
+
+        /**
+         * The tries of the players.
+         */
+        private final ConcurrentMap<String, PermissionTrie> players = new ConcurrentHashMap<>();
+
+        /**
+         * The tries of the operators.
+         */
+        private final ConcurrentMap<String, PermissionTrie> operators = new ConcurrentHashMap<>();
+
+        /**
+         * Creates a new state.
+         * @param configuration The configuration.
+         */
+        private State(PermissionConfiguration configuration) {
+            this.configuration = configuration;
+        }
+    }
+
+    /**
+     * The current state.
+     */
+    private volatile State state;
+
+    /**
+     * Creates a new permission handler.
+     * @param configuration The definitions of the groups and users.
+     * @throws IllegalArgumentException If the groups inherit cyclically or a wildcard is invalid.
+     */
+    public TriePermissionHandler(PermissionConfiguration configuration) {
+        this.state = TriePermissionHandler.compile(configuration);
+    }
+
+    /**
+     * Loads the permissions using the configuration loader.
+     * @param loader The configuration loader.
+     * @param name   The name of the configuration file.
+     * @return The permission handler.
+     * @throws ConfigurationException If the configuration could not be loaded.
+     */
+    public static TriePermissionHandler load(ConfigurationLoader loader, String name) throws ConfigurationException {
+        return new TriePermissionHandler(loader.loadAndUpdate(name, null, PermissionConfiguration.class));
+    }
+
+    /**
+     * Replaces the definitions of the groups and users.
+     * @param configuration The new definitions.
+     * @throws IllegalArgumentException If the groups inherit cyclically or a wildcard is invalid.
+     */
+    public void reload(PermissionConfiguration configuration) {
+        this.state = TriePermissionHandler.compile(configuration);
+    }
+
+    /**
+     * Reloads the permissions using the configuration loader.
+     * @param loader The configuration loader.
+     * @param name   The name of the configuration file.
+     * @throws ConfigurationException If the configuration could not be loaded.
+     */
+    public void reload(ConfigurationLoader loader, String name) throws ConfigurationException {
+        this.reload(loader.loadAndUpdate(name, null, PermissionConfiguration.class));
+    }
+
+    /**
+     * Resolves the inheritance of all groups.
+     * @param configuration The configuration.
+     * @return The compiled state.
+     * @throws IllegalArgumentException If the groups inherit cyclically or a wildcard is invalid.
+     */
+    private static State compile(PermissionConfiguration configuration) {
+        State state = new State(configuration);
+
+        Map<String, PermissionConfiguration.Group> groups = new HashMap<>();
+        for (Map.Entry<String, PermissionConfiguration.Group> entry : configuration.groups.entrySet())
+            groups.put(entry.getKey().toLowerCase(Locale.ENGLISH), entry.getValue());
+
+        for (String name : groups.keySet())
+            TriePermissionHandler.flatten(name, groups, state.groups, new LinkedHashSet<String>());
+
+        // The first definition wins if several names only differ in their case.
+        for (Map.Entry<String, PermissionConfiguration.User> entry : configuration.users.entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ENGLISH);
+            if (entry.getValue() != null && !state.users.containsKey(name))
+                state.users.put(name, entry.getValue());
+        }
+
+        // Reject invalid wildcards now instead of the first time a user is checked.
+        for (Map<String, Boolean> permissions : state.groups.values())
+            TriePermissionHandler.validate(permissions.keySet());
+        for (PermissionConfiguration.User user : state.users.values()) {
+            Map<String, Boolean> permissions = new HashMap<>();
+            TriePermissionHandler.apply(permissions, user.permissions);
+            TriePermissionHandler.validate(permissions.keySet());
+        }
+
+        return state;
+    }
+
+    /**
+     * Checks the wildcards of the permissions.
+     * @param permissions The permission nodes.
+     * @throws IllegalArgumentException If a node ends with {@code *} but is not a wildcard.
+     */
+    private static void validate(Set<String> permissions) {
+        for (String permission : permissions)
+            PermissionTrie.isWildcard(permission);
+    }
+
+    /**
+     * Flattens the permissions of the group.
+     * @param name      The lower-cased name of the group.
+     * @param groups    The definitions of the groups.
+     * @param flattened The groups that have already been flattened.
+     * @param visiting  The groups that are currently flattened.
+     * @return The flattened permissions or {@code null} if the group does not exist.
+     */
+    private static Map<String, Boolean> flatten(
+            String name, Map<String, PermissionConfiguration.Group> groups,
+            Map<String, Map<String, Boolean>> flattened, Set<String> visiting
+    ) {
+        Map<String, Boolean> result = flattened.get(name);
+        if (result != null)
+            return result;
+
+        PermissionConfiguration.Group group = groups.get(name);
+        if (group == null)
+            return null;
+
+        if (!visiting.add(name))
+            throw new IllegalArgumentException("Cyclic inheritance of permission groups: " + visiting + " -> " + name);
+
+        // Inherited permissions are overridden by the permissions of the group.
+        result = new HashMap<>();
+        if (group.inherits != null) {
+            for (String parent : group.inherits) {
+                Map<String, Boolean> inherited = TriePermissionHandler.flatten(
+                        parent.toLowerCase(Locale.ENGLISH), groups, flattened, visiting
+                );
+                if (inherited != null)
+                    result.putAll(inherited);
+            }
+        }
+        TriePermissionHandler.apply(result, group.permissions);
+
+        visiting.remove(name);
+        flattened.put(name, result);
+        return result;
+    }
+
+    /**
+     * Adds the permissions to the map.
+     * @param result      The map.
+     * @param permissions The permissions. Negated permissions start with {@code -}.
+     */
+    private static void apply(Map<String, Boolean> result, List<String> permissions) {
+        if (permissions == null)
+            return;
+
+        for (String permission : permissions) {
+            if (permission == null)
+                continue;
+
+            permission = permission.trim().toLowerCase(Locale.ENGLISH);
+            if (permission.startsWith("-"))
+                result.put(permission.substring(1), false);
+            else if (!permission.isEmpty())
+                result.put(permission, true);
+        }
+    }
+
+    /**
+     * Adds the permissions of the groups to the map.
+     * @param state  The state.
+     * @param result The map.
+     * @param groups The names of the groups.
+     */
+    private static void applyGroups(State state, Map<String, Boolean> result, List<String> groups) {
+        if (groups == null)
+            return;
+
+        for (String group : groups) {
+            Map<String, Boolean> permissions = state.groups.get(group.toLowerCase(Locale.ENGLISH));
+            if (permissions != null)
+                result.putAll(permissions);
+        }
+    }
+
+    /**
+     * Flattens the permissions of the user.
+     * @param state    The state.
+     * @param name     The lower-cased name of the user.
+     * @param operator Is the user an operator?
+     * @return The trie of the user.
+     */
+    private static PermissionTrie compileUser(State state, String name, boolean operator) {
+        PermissionConfiguration configuration = state.configuration;
+        Map<String, Boolean> result = new HashMap<>();
+
+        TriePermissionHandler.applyGroups(state, result, configuration.defaultGroups);
+        if (operator)
+            TriePermissionHandler.applyGroups(state, result, configuration.operatorGroups);
+
+        PermissionConfiguration.User user = state.users.get(name);
+        if (user != null) {
+            TriePermissionHandler.applyGroups(state, result, user.groups);
+            TriePermissionHandler.apply(result, user.permissions);
+        }
+
+        return result.isEmpty() ? PermissionTrie.EMPTY : PermissionTrie.compile(result);
+    }
+
+    /**
+     * Returns the flattened permissions of the executor.
+     * @param executor The executor.
+     * @return The trie of the executor.
+     */
+    public PermissionTrie getPermissions(CommandExecutor<?> executor) {
+        State state = this.state;
+        boolean operator = executor.isOp();
+        ConcurrentMap<String, PermissionTrie> users = operator ? state.operators : state.players;
+
+        String name = executor.getName().toLowerCase(Locale.ENGLISH);
+        PermissionTrie trie = users.get(name);
+        if (trie == null) {
+            trie = TriePermissionHandler.compileUser(state, name, operator);
+
+            // Players that left are never removed explicitly.
+            if (users.size() >= TriePermissionHandler.MAX_USERS)
+                users.clear();
+
+            PermissionTrie previous = users.putIfAbsent(name, trie);
+            if (previous != null)
+                trie = previous;
+        }
+
+        return trie;
+    }
+
+    /**
+     * Removes the flattened permissions of the executor.<p />
+     *
+     * They are computed again on the next check.
+     *
+     * @param executor The executor.
+     */
+    public void invalidate(CommandExecutor<?> executor) {
+        State state = this.state;
+        String name = executor.getName().toLowerCase(Locale.ENGLISH);
+        state.players.remove(name);
+        state.operators.remove(name);
+    }
+
+    /**
+     * Checks the permission using the flattened permissions of the executor.
+     * @param executor The user.
+     * @param node     The node to check.
+     * @return true if the executor has the permission.
+     */
+    @Override
+    public boolean hasPermission(CommandExecutor<?> executor, String node) {
+        if (!executor.isPlayer())
+            return true;
+
+        return this.getPermissions(executor).has(node);
+    }
+}
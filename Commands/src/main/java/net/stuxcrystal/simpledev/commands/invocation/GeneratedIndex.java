@@ -0,0 +1,138 @@
+package net.stuxcrystal.simpledev.commands.invocation;
+
+import java.lang.reflect.Method;
+
+/**
+ * <p>An index over the commands and components of a class, generated at compile time.</p>
+ *
+ * <p>
+ *     The annotation processor of the {@code processor} module generates a subclass named
+ *     {@code <Class>$$Index} for each class that declares commands or components. The loaders use the index
+ *     instead of searching all methods of the class and call the methods without reflection.
+ * </p>
+ *
+ * <p>
+ *     An index is only used if it still matches its class: It is ignored if a method it refers to has been
+ *     removed or if the class declares a different amount of methods than it did when the index has been
+ *     generated, e.g. because the class has been recompiled without the annotation processor.
+ * </p>
+ */
+public abstract class GeneratedIndex {
+
+    /**
+     * The suffix of the generated classes.
+     */
+    public static final String SUFFIX = "$$Index";
+
+    /**
+     * The bound methods of a class.
+     */
+    private static final class Entry {
+
+        /**
+         * The bound commands.
+         */
+        private final Invocation[] commands;
+
+        /**
+         * The bound components.
+         */
+        private final Invocation[] components;
+
+        /**
+         * Creates a new entry.
+         * @param commands   The bound commands.
+         * @param components The bound components.
+         */
+        private Entry(Invocation[] commands, Invocation[] components) {
+            this.commands = commands;
+            this.components = components;
+        }
+    }
+
+    /**
+     * Marks classes without a usable index.
+     */
+    private static final Entry NONE = new Entry(null, null);
+
+    /**
+     * The bound methods of the classes. Every index is only used once.
+     */
+    private static final ClassValue<Entry> INDEXES = new ClassValue<Entry>() {
+        @Override
+        protected Entry computeValue(Class<?> type) {
+            try {
+                Class<?> index = Class.forName(type.getName() + GeneratedIndex.SUFFIX, true, type.getClassLoader());
+                if (!GeneratedIndex.class.isAssignableFrom(index))
+                    return GeneratedIndex.NONE;
+                GeneratedIndex generated = (GeneratedIndex) index.newInstance();
+
+                // Methods added after the index has been generated would be missing.
+                if (generated.getDeclaredMethodCount() != GeneratedIndex.countDeclared(type))
+                    return GeneratedIndex.NONE;
+
+                return new Entry(generated.getCommands(), generated.getComponents());
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // NoSuchMethodException: The index is outdated.
+                return GeneratedIndex.NONE;
+            }
+        }
+    };
+
+    /**
+     * Returns the amount of methods the class declared when the index has been generated.
+     * @return The amount of methods, not counting synthetic methods.
+     */
+    protected abstract int getDeclaredMethodCount();
+
+    /**
+     * <p>Returns the commands declared by the class.</p>
+     * <p>Methods declared by the superclasses are not included.</p>
+     *
+     * @return The bound methods.
+     * @throws NoSuchMethodException If the class has changed after the index has been generated.
+     */
+    protected abstract Invocation[] getCommands() throws NoSuchMethodException;
+
+    /**
+     * <p>Returns the components declared by the class.</p>
+     * <p>Methods declared by the superclasses are not included.</p>
+     *
+     * @return The bound methods.
+     * @throws NoSuchMethodException If the class has changed after the index has been generated.
+     */
+    protected abstract Invocation[] getComponents() throws NoSuchMethodException;
+
+    /**
+     * Counts the methods declared by the class.
+     * @param cls The class.
+     * @return The amount of methods, not counting synthetic methods.
+     */
+    private static int countDeclared(Class<?> cls) {
+        int count = 0;
+        for (Method method : cls.getDeclaredMethods()) {
+            // Bridges and accessors are generated by the compiler.
+            if (!method.isSynthetic())
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the commands declared by the class using its generated index.
+     * @param cls The class.
+     * @return The bound methods or {@code null} if there is no usable index. The array must not be modified.
+     */
+    public static Invocation[] getCommands(Class<?> cls) {
+        return GeneratedIndex.INDEXES.get(cls).commands;
+    }
+
+    /**
+     * Returns the components declared by the class using its generated index.
+     * @param cls The class.
+     * @return The bound methods or {@code null} if there is no usable index. The array must not be modified.
+     */
+    public static Invocation[] getComponents(Class<?> cls) {
+        return GeneratedIndex.INDEXES.get(cls).components;
+    }
+}
@@ -0,0 +1,63 @@
+package net.stuxcrystal.simpledev.commands.invocation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * <p>Calls a method that has been bound by an {@link InvocationBackend}.</p>
+ *
+ * <p>
+ *     The exceptions match the exceptions of {@link Method#invoke(Object, Object...)}: Exceptions thrown by the
+ *     method are wrapped into an {@link InvocationTargetException}.
+ * </p>
+ */
+public abstract class Invocation {
+
+    /**
+     * The method that is called.
+     */
+    private final Method method;
+
+    /**
+     * Creates a new invocation.
+     * @param method The method that is called.
+     */
+    protected Invocation(Method method) {
+        this.method = method;
+    }
+
+    /**
+     * Returns the method that is called.
+     * @return The method.
+     */
+    public Method getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Calls the method.
+     * @param instance The instance. Ignored for static methods.
+     * @param args     The arguments.
+     * @return The result of the method or {@code null} if the method returns nothing.
+     * @throws IllegalAccessException    If the method could not be accessed.
+     * @throws IllegalArgumentException  If the arguments do not match the parameters.
+     * @throws InvocationTargetException If the method threw an exception.
+     */
+    public abstract Object invoke(Object instance, Object... args)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException;
+
+    /**
+     * <p>Calls the method with an additional first argument.</p>
+     * <p>Use this method to avoid copying the arguments into a new array.</p>
+     *
+     * @param instance The instance. Ignored for static methods.
+     * @param first    The first argument.
+     * @param args     The remaining arguments.
+     * @return The result of the method or {@code null} if the method returns nothing.
+     * @throws IllegalAccessException    If the method could not be accessed.
+     * @throws IllegalArgumentException  If the arguments do not match the parameters.
+     * @throws InvocationTargetException If the method threw an exception.
+     */
+    public abstract Object invokeWith(Object instance, Object first, Object[] args)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException;
+}
@@ -0,0 +1,279 @@
+package net.stuxcrystal.simpledev.commands.invocation;
+
+import org.apache.commons.lang.ArrayUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * <p>Binds methods of commands and components to an {@link Invocation}.</p>
+ *
+ * <p>
+ *     The methods are bound once when they are registered. {@link #METHOD_HANDLES} also adapts the handles to
+ *     the generic signature at that point, so a call only invokes the adapted handle.
+ * </p>
+ */
+public abstract class InvocationBackend {
+
+    /**
+     * Calls the methods using {@link Method#invoke(Object, Object...)}.
+     */
+    public static final InvocationBackend REFLECTION = new ReflectionBackend();
+
+    /**
+     * Calls the methods using method handles.
+     */
+    public static final InvocationBackend METHOD_HANDLES = new MethodHandleBackend();
+
+    /**
+     * Binds the method.
+     * @param method The method.
+     * @return The invocation that calls the method.
+     */
+    public abstract Invocation bind(Method method);
+
+    /**
+     * Calls the methods using reflection.
+     */
+    private static class ReflectionBackend extends InvocationBackend {
+
+        /**
+         * Singleton.
+         */
+        private ReflectionBackend() {}
+
+        @Override
+        public Invocation bind(Method method) {
+            if (!method.isAccessible())
+                method.setAccessible(true);
+            return new ReflectionInvocation(method);
+        }
+    }
+
+    /**
+     * An invocation using reflection.
+     */
+    private static class ReflectionInvocation extends Invocation {
+
+        /**
+         * Is the method static?
+         */
+        private final boolean isStatic;
+
+        /**
+         * Creates a new invocation.
+         * @param method The method.
+         */
+        private ReflectionInvocation(Method method) {
+            super(method);
+            this.isStatic = Modifier.isStatic(method.getModifiers());
+        }
+
+        @Override
+        public Object invoke(Object instance, Object... args)
+                throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+            return this.getMethod().invoke(this.isStatic ? null : instance, args);
+        }
+
+        @Override
+        public Object invokeWith(Object instance, Object first, Object[] args)
+                throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+            return this.invoke(instance, ArrayUtils.add(args, 0, first));
+        }
+    }
+
+    /**
+     * Calls the methods using method handles.
+     */
+    private static class MethodHandleBackend extends InvocationBackend {
+
+        /**
+         * The generic type of {@link Invocation#invoke(Object, Object...)}.
+         */
+        private static final MethodType SPREAD = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+        /**
+         * The generic type of {@link Invocation#invokeWith(Object, Object, Object[])}.
+         */
+        private static final MethodType SPREAD_WITH = MethodType.methodType(
+                Object.class, Object.class, Object.class, Object[].class
+        );
+
+        /**
+         * Wraps the exceptions thrown by the methods. See {@link TargetException#rethrow(Throwable)}.
+         */
+        private static final MethodHandle RETHROW;
+
+        static {
+            try {
+                RETHROW = MethodHandles.lookup().findStatic(
+                        TargetException.class, "rethrow", MethodType.methodType(Object.class, Throwable.class)
+                );
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        /**
+         * Singleton.
+         */
+        private MethodHandleBackend() {}
+
+        @Override
+        public Invocation bind(Method method) {
+            if (!method.isAccessible())
+                method.setAccessible(true);
+
+            MethodHandle handle;
+            try {
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException e) {
+                // Fall back to reflection.
+                return InvocationBackend.REFLECTION.bind(method);
+            }
+
+            // Only the exceptions of the method itself are wrapped, not the ones of the conversions below.
+            MethodType type = handle.type();
+            MethodHandle rethrow = MethodHandleBackend.RETHROW.asType(
+                    MethodType.methodType(type.returnType(), Throwable.class)
+            );
+            handle = MethodHandles.catchException(
+                    handle, Throwable.class, MethodHandles.dropArguments(rethrow, 1, type.parameterList())
+            );
+
+            // Make all handles take the instance as their first argument.
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            if (isStatic)
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            else
+                handle = handle.asType(handle.type().changeParameterType(0, Object.class));
+
+            int count = method.getParameterTypes().length;
+            MethodHandle spread = handle.asSpreader(Object[].class, count).asType(SPREAD);
+            MethodHandle spreadWith = null;
+            if (count > 0)
+                spreadWith = handle.asSpreader(Object[].class, count - 1).asType(SPREAD_WITH);
+
+            return new MethodHandleInvocation(method, isStatic, spread, spreadWith);
+        }
+    }
+
+    /**
+     * Carries an exception thrown by a method out of its handle.
+     */
+    private static class TargetException extends RuntimeException {
+
+        /**
+         * Creates a new exception.
+         * @param cause The exception thrown by the method.
+         */
+        private TargetException(Throwable cause) {
+            super(null, cause, false, false);
+        }
+
+        /**
+         * Wraps the exception thrown by a method.
+         * @param cause The exception.
+         * @return Never returns.
+         */
+        static Object rethrow(Throwable cause) {
+            throw new TargetException(cause);
+        }
+    }
+
+    /**
+     * An invocation using method handles.<p />
+     *
+     * The handles convert the instance and the arguments themselves. A failed conversion is reported as an
+     * {@link IllegalArgumentException}, only the exceptions thrown by the method itself are wrapped into an
+     * {@link InvocationTargetException}.
+     */
+    private static class MethodHandleInvocation extends Invocation {
+
+        /**
+         * The handle taking the instance and all arguments.
+         */
+        private final MethodHandle spread;
+
+        /**
+         * The handle taking the instance, the first argument and the remaining arguments.
+         */
+        private final MethodHandle spreadWith;
+
+        /**
+         * Is the method static?
+         */
+        private final boolean isStatic;
+
+        /**
+         * Creates a new invocation.
+         * @param method     The method.
+         * @param isStatic   Is the method static?
+         * @param spread     The handle taking the instance and all arguments.
+         * @param spreadWith The handle taking the instance, the first and the remaining arguments.
+         */
+        private MethodHandleInvocation(Method method, boolean isStatic, MethodHandle spread, MethodHandle spreadWith) {
+            super(method);
+            this.isStatic = isStatic;
+            this.spread = spread;
+            this.spreadWith = spreadWith;
+        }
+
+        @Override
+        public Object invoke(Object instance, Object... args) throws InvocationTargetException {
+            if (instance == null && !this.isStatic)
+                throw new NullPointerException();
+
+            try {
+                return (Object) this.spread.invokeExact(instance, args != null ? args : ArrayUtils.EMPTY_OBJECT_ARRAY);
+            } catch (Throwable e) {
+                throw MethodHandleInvocation.translate(e);
+            }
+        }
+
+        @Override
+        public Object invokeWith(Object instance, Object first, Object[] args) throws InvocationTargetException {
+            if (this.spreadWith == null)
+                throw new IllegalArgumentException("The method does not take any arguments.");
+            if (instance == null && !this.isStatic)
+                throw new NullPointerException();
+
+            try {
+                return (Object) this.spreadWith.invokeExact(
+                        instance, first, args != null ? args : ArrayUtils.EMPTY_OBJECT_ARRAY
+                );
+            } catch (Throwable e) {
+                throw MethodHandleInvocation.translate(e);
+            }
+        }
+
+        /**
+         * Translates the exceptions thrown by the handles like {@link Method#invoke(Object, Object...)} does.
+         * @param e The exception thrown by the handle.
+         * @return The exception to throw.
+         * @throws InvocationTargetException If the method itself has thrown the exception.
+         */
+        private static RuntimeException translate(Throwable e) throws InvocationTargetException {
+            if (e instanceof TargetException)
+                throw new InvocationTargetException(e.getCause());
+
+            // The instance or an argument could not be cast or unboxed.
+            if (e instanceof ClassCastException || e instanceof NullPointerException)
+                return new IllegalArgumentException("argument type mismatch", e);
+
+            // The spreaders reject arrays of the wrong length.
+            if (e instanceof IllegalArgumentException)
+                return new IllegalArgumentException("wrong number of arguments", e);
+
+            if (e instanceof RuntimeException)
+                return (RuntimeException) e;
+            if (e instanceof Error)
+                throw (Error) e;
+            throw new InvocationTargetException(e);
+        }
+    }
+}
@@ -59,6 +59,7 @@ public class TranslationManager {
         Map<String, String> defaults = new HashMap<String, String>();
         // Errors
         defaults.put("cmd.notfound", "Command not found.");
+        defaults.put("cmd.notfound.suggest", "Did you mean: ${0}?");
         defaults.put("cmd.exception", "An exception occured while executing the command.");
         defaults.put("cmd.call.fail", "Failed to call command.");
         defaults.put("cmd.check.oponly", "You have to execute this command as an op.");
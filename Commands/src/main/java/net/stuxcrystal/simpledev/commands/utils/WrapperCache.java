@@ -0,0 +1,157 @@
+package net.stuxcrystal.simpledev.commands.utils;
+
+import net.stuxcrystal.simpledev.commands.CommandHandler;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Reuses the wrappers of the handles of a backend.</p>
+ *
+ * <p>
+ *     The handles are compared by identity. The wrappers of {@link #isRetained(Object) retained} handles
+ *     (e.g. players) are held strongly, so they keep their state (e.g. their component proxies) until the backend
+ *     {@link #remove(Object) removes} them when the player leaves the server.
+ * </p>
+ *
+ * <p>
+ *     Other handles (e.g. command blocks) may be created for every command and are never removed explicitly.
+ *     Their wrappers are only weakly referenced: Entries disappear when the handle is collected, and a wrapper
+ *     that is no longer used is simply created again.
+ * </p>
+ *
+ * @param <H> The type of the handles.
+ * @param <W> The type of the wrappers.
+ */
+public abstract class WrapperCache<H, W extends HandleWrapper<? extends H>> {
+
+    /**
+     * Weak reference to a handle that compares the handles by identity.
+     */
+    private static final class Key extends WeakReference<Object> {
+
+        /**
+         * The identity hash code of the handle.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new key.
+         * @param handle The handle.
+         * @param queue  The queue notified when the handle has been collected or {@code null} for lookups.
+         */
+        private Key(Object handle, ReferenceQueue<Object> queue) {
+            super(handle, queue);
+            this.hash = System.identityHashCode(handle);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Object handle = this.get();
+            return handle != null && handle == ((Key) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * The wrappers of the retained handles.
+     */
+    private final ConcurrentMap<Key, W> retained = new ConcurrentHashMap<>();
+
+    /**
+     * The wrappers of the other handles.
+     */
+    private final ConcurrentMap<Key, WeakReference<W>> wrappers = new ConcurrentHashMap<>();
+
+    /**
+     * Contains the keys of collected handles.
+     */
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    /**
+     * Creates a new wrapper.
+     * @param handle  The handle.
+     * @param handler The command handler of the backend.
+     * @return The wrapper.
+     */
+    protected abstract W create(H handle, CommandHandler handler);
+
+    /**
+     * <p>Checks if the wrapper of the handle is held until it is removed.</p>
+     * <p>Backends must remove the retained handles explicitly, override this method to exclude transient handles.</p>
+     *
+     * @param handle The handle.
+     * @return {@code true} if the wrapper is held strongly. All handles are retained by default.
+     */
+    protected boolean isRetained(H handle) {
+        return true;
+    }
+
+    /**
+     * Returns the wrapper of the handle and creates it if it does not exist.
+     * @param handle  The handle or {@code null}.
+     * @param handler The command handler of the backend. Wrappers created for another handler are replaced.
+     * @return The wrapper or {@code null} if the handle is {@code null}.
+     */
+    public W wrap(H handle, CommandHandler handler) {
+        if (handle == null)
+            return null;
+        this.expunge();
+
+        Key key = new Key(handle, null);
+        W wrapper = this.retained.get(key);
+        if (wrapper == null) {
+            Reference<W> reference = this.wrappers.get(key);
+            wrapper = reference == null ? null : reference.get();
+        }
+        if (wrapper != null && wrapper.getCommandHandler() == handler)
+            return wrapper;
+
+        // Another thread may replace the wrapper at the same time. Both wrappers are equivalent.
+        wrapper = this.create(handle, handler);
+        if (this.isRetained(handle))
+            this.retained.put(new Key(handle, null), wrapper);
+        else
+            this.wrappers.put(new Key(handle, this.queue), new WeakReference<>(wrapper));
+        return wrapper;
+    }
+
+    /**
+     * Forgets the wrapper of the handle.
+     * @param handle The handle.
+     */
+    public void remove(H handle) {
+        if (handle != null) {
+            Key key = new Key(handle, null);
+            this.retained.remove(key);
+            this.wrappers.remove(key);
+        }
+        this.expunge();
+    }
+
+    /**
+     * Forgets all wrappers.
+     */
+    public void clear() {
+        this.retained.clear();
+        this.wrappers.clear();
+    }
+
+    /**
+     * Removes the entries of collected handles.
+     */
+    private void expunge() {
+        Reference<?> key;
+        while ((key = this.queue.poll()) != null)
+            this.wrappers.remove(key);
+    }
+}
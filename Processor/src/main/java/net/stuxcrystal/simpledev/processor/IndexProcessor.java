@@ -0,0 +1,365 @@
+package net.stuxcrystal.simpledev.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * <p>Generates the indexes of the command listeners and component containers.</p>
+ *
+ * <p>
+ *     For each class that declares methods annotated with {@code @Command} or {@code @Component} a class named
+ *     {@code <Class>$$Index} is generated in the same package. It calls the methods directly, so the loaders
+ *     neither have to search the methods of the class nor call them using reflection.
+ * </p>
+ *
+ * <p>
+ *     Classes with private commands or components are skipped, as the generated class cannot call them.
+ *     They are still loaded using reflection.
+ * </p>
+ */
+@SupportedAnnotationTypes({IndexProcessor.COMMAND, IndexProcessor.COMPONENT})
+public class IndexProcessor extends AbstractProcessor {
+
+    /**
+     * The annotation of the commands.
+     */
+    static final String COMMAND = "net.stuxcrystal.simpledev.commands.commands.contrib.annotations.Command";
+
+    /**
+     * The annotation of the components.
+     */
+    static final String COMPONENT = "net.stuxcrystal.simpledev.commands.component.Component";
+
+    /**
+     * The suffix of the generated classes.
+     */
+    private static final String SUFFIX = "$$Index";
+
+    /**
+     * The base class of the generated classes.
+     */
+    private static final String INDEX = "net.stuxcrystal.simpledev.commands.invocation.GeneratedIndex";
+
+    /**
+     * The class of the bound methods.
+     */
+    private static final String INVOCATION = "net.stuxcrystal.simpledev.commands.invocation.Invocation";
+
+    /**
+     * The exception that wraps the exceptions of the methods.
+     */
+    private static final String TARGET_EXCEPTION = "java.lang.reflect.InvocationTargetException";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        // Group the methods by their class.
+        Map<TypeElement, Set<ExecutableElement>> classes = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.METHOD)
+                    continue;
+
+                TypeElement type = (TypeElement) element.getEnclosingElement();
+                Set<ExecutableElement> methods = classes.get(type);
+                if (methods == null)
+                    classes.put(type, methods = new LinkedHashSet<>());
+                methods.add((ExecutableElement) element);
+            }
+        }
+
+        for (Map.Entry<TypeElement, Set<ExecutableElement>> entry : classes.entrySet()) {
+            if (!this.isIndexable(entry.getKey(), entry.getValue()))
+                continue;
+
+            try {
+                this.generate(entry.getKey(), entry.getValue());
+            } catch (IOException e) {
+                this.processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.ERROR, "Failed to generate the index: " + e.getMessage(), entry.getKey()
+                );
+            }
+        }
+
+        // Other processors may handle the annotations, too.
+        return false;
+    }
+
+    /**
+     * Checks if the generated class can call the methods.
+     * @param type    The class.
+     * @param methods The annotated methods.
+     * @return {@code true} if the index can be generated.
+     */
+    private boolean isIndexable(TypeElement type, Set<ExecutableElement> methods) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.ENUM)
+            return false;
+
+        // The class has to be accessible from its package.
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            TypeElement currentType = (TypeElement) current;
+            if (currentType.getNestingKind() == NestingKind.LOCAL || currentType.getNestingKind() == NestingKind.ANONYMOUS)
+                return false;
+
+            if (currentType.getModifiers().contains(Modifier.PRIVATE)) {
+                this.note("Class is private, it will be loaded using reflection.", type);
+                return false;
+            }
+        }
+
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                this.note("Method is private, its class will be loaded using reflection.", method);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Prints a note.
+     * @param message The message.
+     * @param element The element the note refers to.
+     */
+    private void note(String message, Element element) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    /**
+     * Generates the index of the class.
+     * @param type    The class.
+     * @param methods The annotated methods.
+     * @throws IOException If the source file could not be written.
+     */
+    private void generate(TypeElement type, Set<ExecutableElement> methods) throws IOException {
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        String indexName = simpleName + IndexProcessor.SUFFIX;
+        String typeName = this.processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+
+        source.append("/**\n");
+        source.append(" * The index of {@link ").append(typeName).append("}.<p />\n");
+        source.append(" *\n");
+        source.append(" * Generated by ").append(IndexProcessor.class.getName()).append(". Do not edit.\n");
+        source.append(" */\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        source.append("public final class ").append(indexName).append(" extends ").append(INDEX).append(" {\n\n");
+        // Lets the loaders detect methods added without regenerating the index.
+        int declared = ElementFilter.methodsIn(type.getEnclosedElements()).size();
+        source.append("    @Override\n");
+        source.append("    protected int getDeclaredMethodCount() {\n");
+        source.append("        return ").append(declared).append(";\n");
+        source.append("    }\n\n");
+
+        this.generate(source, "getCommands", typeName, methods, COMMAND);
+        source.append("\n");
+        this.generate(source, "getComponents", typeName, methods, COMPONENT);
+        source.append("}\n");
+
+        String fileName = packageName.isEmpty() ? indexName : packageName + "." + indexName;
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(fileName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    /**
+     * Generates the method returning the bound methods with the given annotation.
+     * @param source     The source of the index.
+     * @param name       The name of the generated method.
+     * @param typeName   The name of the class.
+     * @param methods    The annotated methods.
+     * @param annotation The name of the annotation.
+     */
+    private void generate(StringBuilder source, String name, String typeName, Set<ExecutableElement> methods, String annotation) {
+        source.append("    @Override\n");
+        source.append("    protected ").append(INVOCATION).append("[] ").append(name).append("() throws NoSuchMethodException {\n");
+        source.append("        return new ").append(INVOCATION).append("[] {\n");
+
+        for (ExecutableElement method : methods) {
+            if (this.isAnnotated(method, annotation))
+                this.generate(source, typeName, method);
+        }
+
+        source.append("        };\n");
+        source.append("    }\n");
+    }
+
+    /**
+     * Checks if the method is annotated with the annotation.
+     * @param method     The method.
+     * @param annotation The name of the annotation.
+     * @return {@code true} if the annotation is present.
+     */
+    private boolean isAnnotated(ExecutableElement method, String annotation) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotation))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Generates the bound method.
+     * @param source   The source of the index.
+     * @param typeName The name of the class.
+     * @param method   The method.
+     */
+    private void generate(StringBuilder source, String typeName, ExecutableElement method) {
+        Types types = this.processingEnv.getTypeUtils();
+        List<? extends VariableElement> parameters = method.getParameters();
+        String name = method.getSimpleName().toString();
+
+        // Look up the method itself.
+        source.append("            new ").append(INVOCATION).append("(").append(typeName);
+        source.append(".class.getDeclaredMethod(\"").append(name).append("\"");
+        for (VariableElement parameter : parameters)
+            source.append(", ").append(types.erasure(parameter.asType())).append(".class");
+        source.append(")) {\n");
+
+        // The call itself.
+        boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+        boolean returns = method.getReturnType().getKind() != TypeKind.VOID;
+
+        // Invocation.invoke(Object, Object...)
+        String[] values = new String[parameters.size()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = "args[" + i + "]";
+        this.generateMethod(
+                source, "invoke(Object instance, Object... args)", typeName, isStatic, name, parameters, values, values.length, returns
+        );
+
+        // Invocation.invokeWith(Object, Object, Object[])
+        source.append("\n");
+        if (values.length == 0) {
+            source.append("                @Override\n");
+            source.append("                public Object invokeWith(Object instance, Object first, Object[] args) {\n");
+            source.append("                    throw new IllegalArgumentException(\"The method does not take any arguments.\");\n");
+            source.append("                }\n");
+        } else {
+            values[0] = "first";
+            for (int i = 1; i < values.length; i++)
+                values[i] = "args[" + (i - 1) + "]";
+            this.generateMethod(
+                    source, "invokeWith(Object instance, Object first, Object[] args)",
+                    typeName, isStatic, name, parameters, values, values.length - 1, returns
+            );
+        }
+
+        source.append("            },\n");
+    }
+
+    /**
+     * Generates a method of the bound method.<p />
+     *
+     * The instance and the arguments are cast before the method is called, so invalid arguments throw an
+     * {@link IllegalArgumentException} like {@link java.lang.reflect.Method#invoke(Object, Object...)} does and
+     * only the exceptions of the method are wrapped.
+     *
+     * @param source     The source of the index.
+     * @param signature  The signature of the method.
+     * @param typeName   The name of the class.
+     * @param isStatic   Is the method static?
+     * @param name       The name of the method to call.
+     * @param parameters The parameters of the method to call.
+     * @param values     The expressions of the arguments.
+     * @param spread     The amount of arguments taken from the array.
+     * @param returns    Does the method return a value?
+     */
+    private void generateMethod(StringBuilder source, String signature, String typeName, boolean isStatic, String name,
+                                List<? extends VariableElement> parameters, String[] values, int spread,
+                                boolean returns) {
+        Types types = this.processingEnv.getTypeUtils();
+
+        source.append("                @Override\n");
+        source.append("                public Object ").append(signature).append(" throws ").append(TARGET_EXCEPTION).append(" {\n");
+
+        // Check the arguments like Method.invoke does.
+        source.append("                    if ((args == null ? 0 : args.length) != ").append(spread).append(")\n");
+        source.append("                        throw new IllegalArgumentException(\"wrong number of arguments\");\n");
+        if (!isStatic) {
+            source.append("                    if (instance == null)\n");
+            source.append("                        throw new NullPointerException();\n");
+            source.append("                    if (!(instance instanceof ").append(typeName).append("))\n");
+            source.append("                        throw new IllegalArgumentException(\"object is not an instance of declaring class\");\n");
+        }
+
+        // Cast the arguments outside of the call.
+        if (values.length > 0) {
+            for (int i = 0; i < values.length; i++) {
+                TypeMirror type = parameters.get(i).asType();
+                String local = type.getKind().isPrimitive() ? type.toString() : types.erasure(type).toString();
+                source.append("                    final ").append(local).append(" arg").append(i).append(";\n");
+            }
+            source.append("                    try {\n");
+            for (int i = 0; i < values.length; i++) {
+                source.append("                        arg").append(i).append(" = ");
+                source.append(this.cast(parameters.get(i).asType(), values[i])).append(";\n");
+            }
+            source.append("                    } catch (ClassCastException | NullPointerException e) {\n");
+            source.append("                        throw new IllegalArgumentException(\"argument type mismatch\", e);\n");
+            source.append("                    }\n");
+        }
+
+        // Only wrap the exceptions of the method itself.
+        source.append("                    try {\n");
+        source.append("                        ");
+        if (returns)
+            source.append("return ");
+        if (isStatic)
+            source.append(typeName).append(".");
+        else
+            source.append("((").append(typeName).append(") instance).");
+        source.append(name).append("(");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                source.append(", ");
+            source.append("arg").append(i);
+        }
+        source.append(");\n");
+        if (!returns)
+            source.append("                        return null;\n");
+        source.append("                    } catch (Throwable e) {\n");
+        source.append("                        throw new ").append(TARGET_EXCEPTION).append("(e);\n");
+        source.append("                    }\n");
+        source.append("                }\n");
+    }
+
+    /**
+     * Casts the value to the type.
+     * @param type  The type.
+     * @param value The value.
+     * @return The casted value.
+     */
+    private String cast(TypeMirror type, String value) {
+        Types types = this.processingEnv.getTypeUtils();
+
+        // Primitives are unboxed.
+        if (type.getKind().isPrimitive())
+            return "((" + types.boxedClass((PrimitiveType) type).getQualifiedName() + ") " + value + ")";
+
+        return "((" + types.erasure(type) + ") " + value + ")";
+    }
+}